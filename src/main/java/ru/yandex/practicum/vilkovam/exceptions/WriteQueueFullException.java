@@ -0,0 +1,20 @@
+package ru.yandex.practicum.vilkovam.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Изменение не принято в очередь отложенной записи, так как она заполнена
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 18:50
+ * @project java-kanban
+ */
+public class WriteQueueFullException extends ManagerSaveException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private static final String DEFAULT_MESSAGE = "Write-behind queue is full, capacity: %d";
+
+    public WriteQueueFullException(int capacity) {
+        super(String.format(DEFAULT_MESSAGE, capacity));
+    }
+}
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+
+/**
+ * Приемник изменений {@link JournaledTaskManager}: записывает состояние измененного
+ * объекта или факт его удаления.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 18:40
+ * @project java-kanban
+ */
+public interface ChangeLog extends Closeable {
+
+    /**
+     * Проверка, что следующие {@code changes} изменений будут приняты. Менеджер вызывает ее до изменения
+     * состояния в памяти, чтобы отказ приемника не оставлял в памяти изменение, которое не будет записано.
+     * Резерв действует до {@link #endReservation()}.
+     *
+     * @param type    type of the first changed item
+     * @param id      id of the first changed item, {@code null} for item that is not created yet
+     * @param changes count of changes the mutation writes
+     */
+    default void reserve(ItemType type, Integer id, int changes) {
+    }
+
+    /**
+     * Отмена неиспользованного резерва {@link #reserve(ItemType, Integer, int)}
+     */
+    default void endReservation() {
+    }
+
+    void put(Task task);
+
+    void remove(ItemType type, Integer id);
+
+    /**
+     * Фиксация всех переданных ранее изменений
+     */
+    void commit();
+
+    /**
+     * Фиксация изменений и освобождение файла, например перед его удалением
+     */
+    void release();
+
+    /**
+     * Фиксация изменений и перенос файла в {@code target}, следующие изменения пишутся в новый файл.
+     * Если {@code target} уже существует, записи дописываются в его конец.
+     *
+     * @param target path to move written changes to
+     */
+    void rotate(Path target);
+
+    CommitStats getStats();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,470 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Хранилище контроллера в колонках: каждое поле объекта - отдельный массив примитивов, строки -
+ * в общем байтовом буфере в UTF-8. Объекты {@link Task}/{@link Epic}/{@link Subtask} создаются только
+ * при чтении. Время хранится в секундах от эпохи, продолжительность - в минутах; объект, значения которого
+ * так не представляются (доли секунды, продолжительность не в целых минутах), хранится целиком.
+ * <p>
+ * Удаленная строка помечается и переиспользуется только после уплотнения, которое запускается,
+ * когда удаленных строк или устаревших строк в буфере становится больше половины. Обход идет в порядке
+ * добавления объектов. Поиск строки по id - по массиву, индексированному id, как в {@link IdIndexedStorage}.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 16:10
+ * @project java-kanban
+ */
+public class ColumnarStorage<T extends Task> extends AbstractMap<Integer, T> {
+    private static final int MIN_CAPACITY = 64;
+    private static final byte REMOVED = -1;
+    private static final byte NO_STATUS = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_DURATION = -1;
+    private static final int NO_EPIC = Integer.MIN_VALUE;
+    private static final int NO_STRING = -1;
+    private static final int[] NO_SUBTASKS = new int[0];
+    private static final ItemType[] TYPES = ItemType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private int[] ids = new int[MIN_CAPACITY];
+    private byte[] types = new byte[MIN_CAPACITY];
+    private byte[] statuses = new byte[MIN_CAPACITY];
+    private long[] starts = new long[MIN_CAPACITY];
+    private long[] ends = new long[MIN_CAPACITY];
+    private int[] durations = new int[MIN_CAPACITY];
+    private int[] epicIds = new int[MIN_CAPACITY];
+    private int[] names = new int[MIN_CAPACITY];
+    private int[] descriptions = new int[MIN_CAPACITY];
+    private int[][] subtaskIds = new int[MIN_CAPACITY][];
+    private StringArena arena = new StringArena();
+    private Map<Integer, T> exactRows = new HashMap<>();
+    private int rowCount;
+    private int size;
+
+    private int[] idToRow = emptyIndex(MIN_CAPACITY);
+    private final Map<Integer, Integer> sparseRows = new HashMap<>();
+    private int modCount;
+
+    @Override
+    public T get(Object key) {
+        if (!(key instanceof Integer id)) return null;
+        int row = rowOf(id);
+        return row < 0 ? null : materialize(row);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && rowOf(id) >= 0;
+    }
+
+    @Override
+    public T put(Integer key, T value) {
+        if (value == null) throw new NullPointerException("value");
+        int id = key;
+        int row = rowOf(id);
+        T previous = null;
+        if (row >= 0) {
+            previous = materialize(row);
+            release(row);
+        } else {
+            row = appendRow();
+            bind(id, row);
+            size++;
+            modCount++;
+        }
+        write(row, id, value);
+        compactIfNeeded();
+        return previous;
+    }
+
+    @Override
+    public T remove(Object key) {
+        if (!(key instanceof Integer id)) return null;
+        int row = rowOf(id);
+        if (row < 0) return null;
+        T removed = removeRow(row);
+        compactIfNeeded();
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        ids = new int[MIN_CAPACITY];
+        types = new byte[MIN_CAPACITY];
+        statuses = new byte[MIN_CAPACITY];
+        starts = new long[MIN_CAPACITY];
+        ends = new long[MIN_CAPACITY];
+        durations = new int[MIN_CAPACITY];
+        epicIds = new int[MIN_CAPACITY];
+        names = new int[MIN_CAPACITY];
+        descriptions = new int[MIN_CAPACITY];
+        subtaskIds = new int[MIN_CAPACITY][];
+        arena = new StringArena();
+        exactRows = new HashMap<>();
+        idToRow = emptyIndex(MIN_CAPACITY);
+        sparseRows.clear();
+        rowCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, T>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Размер колонок и буфера строк, без объектов, хранящихся целиком
+     *
+     * @return approximate size in bytes
+     */
+    public long getColumnBytes() {
+        long perRow = Integer.BYTES * 5L + Byte.BYTES * 2L + Long.BYTES * 2L + 4L;
+        long subtasks = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (subtaskIds[row] != null && subtaskIds[row].length > 0) {
+                subtasks += 16L + (long) Integer.BYTES * subtaskIds[row].length;
+            }
+        }
+        return perRow * ids.length + (long) Integer.BYTES * idToRow.length + arena.data.length + subtasks;
+    }
+
+    /**
+     * Число объектов, хранящихся целиком
+     */
+    public int getExactRowCount() {
+        return exactRows.size();
+    }
+
+    private void write(int row, int id, T value) {
+        ids[row] = id;
+        types[row] = (byte) value.getType().ordinal();
+        statuses[row] = value.getStatus() == null ? NO_STATUS : (byte) value.getStatus().ordinal();
+        starts[row] = toSeconds(value.getStartTime());
+        durations[row] = toMinutes(value.getDuration());
+        names[row] = arena.add(value.getName());
+        descriptions[row] = arena.add(value.getDescription());
+        epicIds[row] = NO_EPIC;
+        ends[row] = NO_TIME;
+        subtaskIds[row] = null;
+        boolean exact = isExact(value.getStartTime()) && isExact(value.getDuration());
+        if (value instanceof Subtask subtask) {
+            exact &= subtask.getEpicId() == null || subtask.getEpicId() != NO_EPIC;
+            epicIds[row] = subtask.getEpicId() == null ? NO_EPIC : subtask.getEpicId();
+        } else if (value instanceof Epic epic) {
+            exact &= isExact(epic.getEndTime());
+            ends[row] = toSeconds(epic.getEndTime());
+            subtaskIds[row] = toArray(epic.getSubtaskIds());
+        }
+        if (!exact || value.getClass() != Task.class && value.getClass() != Epic.class
+                && value.getClass() != Subtask.class) {
+            exactRows.put(row, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T materialize(int row) {
+        T exact = exactRows.get(row);
+        if (exact != null) return exact;
+        int id = ids[row];
+        String name = arena.get(names[row]);
+        String description = arena.get(descriptions[row]);
+        TaskStatus status = statuses[row] == NO_STATUS ? null : STATUSES[statuses[row]];
+        Duration duration = durations[row] == NO_DURATION ? null : Duration.ofMinutes(durations[row]);
+        LocalDateTime start = toTime(starts[row]);
+        Task task = switch (TYPES[types[row]]) {
+            case TASK -> new Task(id, name, description, status, duration, start);
+            case SUBTASK -> new Subtask(id, name, description, status,
+                    epicIds[row] == NO_EPIC ? null : epicIds[row], duration, start);
+            case EPIC -> {
+                int[] subtasks = subtaskIds[row];
+                List<Integer> subtaskList = new ArrayList<>(subtasks.length);
+                for (int subtaskId : subtasks) {
+                    subtaskList.add(subtaskId);
+                }
+                Epic epic = new Epic(id, name, description, status, subtaskList);
+                epic.setDuration(duration);
+                epic.setStartTime(start);
+                epic.setEndTime(toTime(ends[row]));
+                yield epic;
+            }
+        };
+        return (T) task;
+    }
+
+    private T removeRow(int row) {
+        T removed = materialize(row);
+        release(row);
+        unbind(ids[row]);
+        types[row] = REMOVED;
+        subtaskIds[row] = null;
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Освобождение строк и целого объекта строки перед перезаписью или удалением
+     */
+    private void release(int row) {
+        arena.release(names[row]);
+        arena.release(descriptions[row]);
+        exactRows.remove(row);
+    }
+
+    private int appendRow() {
+        if (rowCount == ids.length) {
+            resize(ids.length * 2);
+        }
+        return rowCount++;
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        epicIds = Arrays.copyOf(epicIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        subtaskIds = Arrays.copyOf(subtaskIds, capacity);
+    }
+
+    /**
+     * Уплотнение: живые строки сдвигаются к началу с сохранением порядка, строки переписываются в новый буфер
+     */
+    private void compactIfNeeded() {
+        boolean rowsSparse = rowCount > MIN_CAPACITY && rowCount - size > rowCount / 2;
+        boolean arenaSparse = arena.garbage > MIN_CAPACITY * 1024 && arena.garbage > arena.used / 2;
+        if (!rowsSparse && !arenaSparse) return;
+        StringArena compacted = new StringArena();
+        Map<Integer, T> compactedExactRows = new HashMap<>();
+        int target = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (types[row] == REMOVED) continue;
+            ids[target] = ids[row];
+            types[target] = types[row];
+            statuses[target] = statuses[row];
+            starts[target] = starts[row];
+            ends[target] = ends[row];
+            durations[target] = durations[row];
+            epicIds[target] = epicIds[row];
+            names[target] = compacted.add(arena.get(names[row]));
+            descriptions[target] = compacted.add(arena.get(descriptions[row]));
+            subtaskIds[target] = subtaskIds[row];
+            T exact = exactRows.get(row);
+            if (exact != null) {
+                compactedExactRows.put(target, exact);
+            }
+            bind(ids[target], target);
+            target++;
+        }
+        Arrays.fill(subtaskIds, target, rowCount, null);
+        rowCount = target;
+        arena = compacted;
+        exactRows = compactedExactRows;
+        if (ids.length > MIN_CAPACITY && rowCount < ids.length / 4) {
+            resize(Math.max(MIN_CAPACITY, rowCount * 2));
+        }
+        modCount++;
+    }
+
+    private int rowOf(int id) {
+        if (id > 0 && id < idToRow.length) return idToRow[id];
+        Integer row = sparseRows.get(id);
+        return row == null ? -1 : row;
+    }
+
+    private void bind(int id, int row) {
+        if (id >= idToRow.length && IdIndexedStorage.fitsIndex(id, size)) {
+            growIndex(id);
+        }
+        if (id > 0 && id < idToRow.length) {
+            idToRow[id] = row;
+        } else {
+            sparseRows.put(id, row);
+        }
+    }
+
+    private void unbind(int id) {
+        if (id > 0 && id < idToRow.length) {
+            idToRow[id] = -1;
+        } else {
+            sparseRows.remove(id);
+        }
+    }
+
+    private void growIndex(int id) {
+        int oldLength = idToRow.length;
+        idToRow = Arrays.copyOf(idToRow, Math.max(id + 1, oldLength + (oldLength >> 1)));
+        Arrays.fill(idToRow, oldLength, idToRow.length, -1);
+        Iterator<Entry<Integer, Integer>> iterator = sparseRows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<Integer, Integer> entry = iterator.next();
+            int key = entry.getKey();
+            if (key > 0 && key < idToRow.length) {
+                idToRow[key] = entry.getValue();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static int[] emptyIndex(int capacity) {
+        int[] index = new int[capacity];
+        Arrays.fill(index, -1);
+        return index;
+    }
+
+    private static boolean isExact(LocalDateTime time) {
+        return time == null || time.getNano() == 0;
+    }
+
+    private static boolean isExact(Duration duration) {
+        return duration == null || duration.getNano() == 0 && duration.getSeconds() % 60 == 0
+                && !duration.isNegative() && duration.toMinutes() <= Integer.MAX_VALUE;
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toTime(long seconds) {
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    private static int toMinutes(Duration duration) {
+        return duration == null ? NO_DURATION : (int) Math.min(Integer.MAX_VALUE, Math.max(0, duration.toMinutes()));
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        if (values.isEmpty()) return NO_SUBTASKS;
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Буфер строк: запись {@code длина + UTF-8 байты}, ссылка на строку - смещение записи
+     */
+    private static final class StringArena {
+        private byte[] data = new byte[1024];
+        private int used;
+        private int garbage;
+
+        private int add(String value) {
+            if (value == null) return NO_STRING;
+            byte[] bytes = value.getBytes(UTF_8);
+            int required = used + Integer.BYTES + bytes.length;
+            if (required < 0) throw new IllegalStateException("String arena is full");
+            if (required > data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, data.length * 2L)));
+            }
+            int offset = used;
+            data[offset] = (byte) (bytes.length >>> 24);
+            data[offset + 1] = (byte) (bytes.length >>> 16);
+            data[offset + 2] = (byte) (bytes.length >>> 8);
+            data[offset + 3] = (byte) bytes.length;
+            System.arraycopy(bytes, 0, data, offset + Integer.BYTES, bytes.length);
+            used = required;
+            return offset;
+        }
+
+        private String get(int offset) {
+            if (offset == NO_STRING) return null;
+            return new String(data, offset + Integer.BYTES, length(offset), UTF_8);
+        }
+
+        private void release(int offset) {
+            if (offset != NO_STRING) {
+                garbage += Integer.BYTES + length(offset);
+            }
+        }
+
+        private int length(int offset) {
+            return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16
+                    | (data[offset + 2] & 0xFF) << 8 | data[offset + 3] & 0xFF;
+        }
+    }
+
+    /**
+     * Обход живых строк в порядке добавления. Удаление через итератор не уплотняет колонки.
+     */
+    private class EntryIterator implements Iterator<Entry<Integer, T>> {
+        private int expectedModCount = modCount;
+        private int nextRow = advance(0);
+        private int lastRow = -1;
+
+        @Override
+        public boolean hasNext() {
+            return nextRow < rowCount;
+        }
+
+        @Override
+        public Entry<Integer, T> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (nextRow >= rowCount) throw new NoSuchElementException();
+            lastRow = nextRow;
+            nextRow = advance(nextRow + 1);
+            return new SimpleImmutableEntry<>(ids[lastRow], materialize(lastRow));
+        }
+
+        @Override
+        public void remove() {
+            if (lastRow < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            removeRow(lastRow);
+            expectedModCount = modCount;
+            lastRow = -1;
+        }
+
+        private int advance(int from) {
+            int row = from;
+            while (row < rowCount && types[row] == REMOVED) {
+                row++;
+            }
+            return row;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+/**
+ * Политика фиксации записей журнала на диск.
+ * <ul>
+ *     <li>{@link Mode#SYNC} - каждая запись пишется и фиксируется через fsync;</li>
+ *     <li>{@link Mode#GROUP} - записи копятся в памяти и фиксируются одной пачкой при достижении
+ *     {@code maxBatchSize} записей или раз в {@code maxDelayMillis} мс;</li>
+ *     <li>{@link Mode#OS_BUFFERED} - каждая запись отдается ОС без fsync.</li>
+ * </ul>
+ *
+ * @param mode           commit mode
+ * @param maxBatchSize   max records in one group commit
+ * @param maxDelayMillis max time a record can wait for group commit, {@code 0} disables timer
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 12:02
+ * @project java-kanban
+ */
+public record CommitPolicy(Mode mode, int maxBatchSize, long maxDelayMillis) {
+
+    public CommitPolicy {
+        if (mode == null) {
+            throw new IllegalArgumentException("Commit mode must be set");
+        }
+        if (maxBatchSize < 1 || maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Wrong commit policy: " + maxBatchSize + " records, " + maxDelayMillis + " ms");
+        }
+    }
+
+    public static CommitPolicy perOperation() {
+        return new CommitPolicy(Mode.SYNC, 1, 0);
+    }
+
+    public static CommitPolicy groupCommit(int maxBatchSize, long maxDelayMillis) {
+        return new CommitPolicy(Mode.GROUP, maxBatchSize, maxDelayMillis);
+    }
+
+    public static CommitPolicy osBuffered() {
+        return new CommitPolicy(Mode.OS_BUFFERED, 1, 0);
+    }
+
+    public enum Mode {
+        SYNC,
+        GROUP,
+        OS_BUFFERED
+    }
+}
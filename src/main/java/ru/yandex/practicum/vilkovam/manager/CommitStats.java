@@ -0,0 +1,24 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+/**
+ * Статистика фиксаций журнала
+ *
+ * @param commits            count of physical writes
+ * @param records            count of committed records
+ * @param totalLatencyNanos  total time spent in write + fsync
+ * @param maxLatencyNanos    slowest commit
+ * @param maxBatchSize       biggest count of records in one commit
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 12:10
+ * @project java-kanban
+ */
+public record CommitStats(long commits, long records, long totalLatencyNanos, long maxLatencyNanos, int maxBatchSize) {
+
+    public double averageLatencyNanos() {
+        return commits == 0 ? 0 : (double) totalLatencyNanos / commits;
+    }
+
+    public double averageBatchSize() {
+        return commits == 0 ? 0 : (double) records / commits;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+/**
+ * Пороги фонового сжатия журнала {@link JournaledTaskManager}: как только журнал
+ * вырастает до {@code maxJournalBytes} или его первой записи исполняется {@code maxJournalAgeMillis},
+ * пишется свежий снимок, а примененный журнал удаляется.
+ *
+ * @param maxJournalBytes     journal size to start compaction, {@code 0} disables size threshold
+ * @param maxJournalAgeMillis journal age to start compaction, {@code 0} disables age threshold
+ * @param checkIntervalMillis interval between threshold checks
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 21:05
+ * @project java-kanban
+ */
+public record CompactionPolicy(long maxJournalBytes, long maxJournalAgeMillis, long checkIntervalMillis) {
+    private static final long DEFAULT_CHECK_INTERVAL_MILLIS = 1_000;
+
+    public CompactionPolicy {
+        if (maxJournalBytes < 0 || maxJournalAgeMillis < 0 || checkIntervalMillis < 1
+                || maxJournalBytes == 0 && maxJournalAgeMillis == 0) {
+            throw new IllegalArgumentException("Wrong compaction policy: " + maxJournalBytes + " bytes, "
+                    + maxJournalAgeMillis + " ms, check every " + checkIntervalMillis + " ms");
+        }
+    }
+
+    public static CompactionPolicy bySize(long maxJournalBytes) {
+        return new CompactionPolicy(maxJournalBytes, 0, DEFAULT_CHECK_INTERVAL_MILLIS);
+    }
+
+    public static CompactionPolicy byAge(long maxJournalAgeMillis) {
+        return new CompactionPolicy(0, maxJournalAgeMillis, DEFAULT_CHECK_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Проверка порогов
+     *
+     * @param journalBytes     current journal size
+     * @param journalAgeMillis age of the first journal record
+     * @return {@code true} if journal should be compacted
+     */
+    public boolean isExceeded(long journalBytes, long journalAgeMillis) {
+        if (journalBytes == 0) return false;
+        return maxJournalBytes > 0 && journalBytes >= maxJournalBytes
+                || maxJournalAgeMillis > 0 && journalAgeMillis >= maxJournalAgeMillis;
+    }
+}
@@ -1,7 +1,6 @@
 package ru.yandex.practicum.vilkovam.manager;
 
 import ru.yandex.practicum.vilkovam.model.Epic;
-import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
 
 /**
@@ -11,6 +10,6 @@ import ru.yandex.practicum.vilkovam.model.Task;
  */
 public record ControllersHolder(TaskController<Task> taskController,
                                 TaskController<Epic> epicController,
-                                TaskController<Subtask> subtaskController) {
+                                SubtaskController subtaskController) {
 
 }
@@ -0,0 +1,156 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранилище контроллера, в котором объекты лежат без описаний. Описание при записи
+ * уходит в {@link DescriptionStore}, при чтении объекта возвращается копия с подгруженным описанием.
+ * Объекты в наборе приоритетов хранятся без описаний, менеджер подгружает их при чтении набора,
+ * см. {@link TaskController#withDescription(Task)}.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 22:30
+ * @project java-kanban
+ */
+public class DescriptionStorage<T extends Task> extends AbstractMap<Integer, T> {
+    private final Map<Integer, T> storage;
+    private final DescriptionStore descriptions;
+    private final UnaryOperator<T> mapper;
+
+    /**
+     * @param storage      underlying storage, its items must already have descriptions moved to {@code descriptions}
+     * @param descriptions description store
+     * @param mapper       copy constructor to hydrate items
+     */
+    public DescriptionStorage(Map<Integer, T> storage, DescriptionStore descriptions, UnaryOperator<T> mapper) {
+        this.storage = storage;
+        this.descriptions = descriptions;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public T get(Object key) {
+        return hydrate(storage.get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return storage.containsKey(key);
+    }
+
+    @Override
+    public T put(Integer key, T value) {
+        return storage.put(key, strip(value));
+    }
+
+    @Override
+    public T replace(Integer key, T value) {
+        if (!storage.containsKey(key)) return null;
+        return storage.replace(key, strip(value));
+    }
+
+    @Override
+    public T remove(Object key) {
+        T removed = storage.remove(key);
+        if (removed != null) {
+            descriptions.remove(removed.getId());
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return storage.size();
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, T>> iterator() {
+                Iterator<Entry<Integer, T>> iterator = storage.entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Integer, T> next() {
+                        Entry<Integer, T> entry = iterator.next();
+                        return new SimpleImmutableEntry<>(entry.getKey(), hydrate(entry.getValue()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return storage.size();
+            }
+        };
+    }
+
+    /**
+     * Хранимый объект без описания и без копирования
+     *
+     * @param id item id
+     * @return stored reference or {@code null}
+     */
+    T getStored(Object id) {
+        return storage.get(id);
+    }
+
+    /**
+     * Хранимые объекты без описаний и без копирования
+     *
+     * @return stored references
+     */
+    List<T> getStoredItems() {
+        return new ArrayList<>(storage.values());
+    }
+
+    /**
+     * Описание объекта из {@link DescriptionStore} без копирования объекта
+     *
+     * @param stored item from {@link #getStored(Object)} or {@link #getStoredItems()}
+     * @return description or {@code null}
+     */
+    String descriptionOf(T stored) {
+        return descriptions.get(stored.getId());
+    }
+
+    /**
+     * Копия хранимого объекта с подгруженным описанием
+     *
+     * @param stored item from {@link #getStoredItems()}
+     * @return copy with description
+     */
+    T withDescription(T stored) {
+        return hydrate(stored);
+    }
+
+    /**
+     * Перенос описания в хранилище описаний. Объект уже является копией, сделанной контроллером.
+     */
+    private T strip(T value) {
+        descriptions.put(value.getId(), value.getDescription());
+        value.setDescription(null);
+        return value;
+    }
+
+    private T hydrate(T value) {
+        if (value == null) return null;
+        T copy = mapper.apply(value);
+        copy.setDescription(descriptions.get(value.getId()));
+        return copy;
+    }
+}
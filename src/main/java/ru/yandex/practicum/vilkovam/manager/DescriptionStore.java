@@ -0,0 +1,315 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Хранилище описаний задач вне кучи. Описание дописывается в файл записью
+ * {@code id + длина + UTF-8 байты}, в памяти остается только смещение записи по id объекта.
+ * Недавно прочитанные описания держатся в ограниченном LRU-кэше. Названия остаются в объектах:
+ * они нужны набору приоритетов, поиску и спискам задач, и обычно намного короче описаний.
+ * <p>
+ * Файл - рабочая копия, а не формат хранения: источником данных остаются снимок и журнал.
+ * Заголовок файла хранит размер, время изменения и ключ файла снимка, по которому он построен,
+ * и длину части, записанной при загрузке снимка. Если при следующей загрузке снимок не изменился,
+ * {@link #open(Path)} отрезает дописанное после этой части и восстанавливает смещения по файлу,
+ * иначе файл создается заново. Старые версии измененных описаний остаются в файле до следующей загрузки.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 22:05
+ * @project java-kanban
+ */
+public class DescriptionStore implements Closeable {
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAGIC = 0x4B424453;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 40;
+    private static final int BASE_LENGTH = 32;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final long NOT_SEALED = -1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<Integer, Long> idToOffset = new HashMap<>();
+    private final Map<Integer, String> cache;
+    private final ByteBuffer appendBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private boolean opened;
+    private long flushedSize;
+    private long hits;
+    private long misses;
+
+    public DescriptionStore(Path path) {
+        this(path, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Файл открывается без изменений, содержимое проверяется в {@link #open(Path)} при загрузке доски
+     *
+     * @param path      descriptions file
+     * @param cacheSize maximum number of cached descriptions
+     */
+    public DescriptionStore(Path path, int cacheSize) {
+        this.path = path;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        try {
+            this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot open description file " + path, e);
+        }
+    }
+
+    /**
+     * Подключение к снимку перед его загрузкой. Если файл построен по этому же снимку и загрузка
+     * тогда завершилась, описания снимка берутся из файла; иначе файл очищается.
+     *
+     * @param snapshot snapshot file, may not exist
+     * @return {@code true} if descriptions of the snapshot are already in the file
+     */
+    synchronized boolean open(Path snapshot) {
+        try {
+            ByteBuffer identity = identify(snapshot);
+            if (identity != null && restore(identity)) {
+                opened = true;
+                return true;
+            }
+            reset(identity);
+            return false;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot open description file " + path, e);
+        }
+    }
+
+    /**
+     * Отметка конца описаний снимка. Дописанное после нее отрезается при повторном использовании файла.
+     */
+    synchronized void seal() {
+        try {
+            ensureOpened();
+            flush();
+            writeFully(ByteBuffer.allocate(Long.BYTES).putLong(0, flushedSize), BASE_LENGTH);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot write description file " + path, e);
+        }
+    }
+
+    /**
+     * Сохранение описания объекта. Если описание совпадает с закэшированным, файл не меняется.
+     *
+     * @param id          item id
+     * @param description item description, may be {@code null}
+     */
+    public synchronized void put(int id, String description) {
+        if (description == null) {
+            remove(id);
+            return;
+        }
+        if (idToOffset.containsKey(id) && Objects.equals(cache.get(id), description)) return;
+        idToOffset.put(id, append(id, description.getBytes(UTF_8)));
+        cache.put(id, description);
+    }
+
+    /**
+     * Чтение описания: из кэша или одним позиционным чтением из файла
+     *
+     * @param id item id
+     * @return description or {@code null} if item has no description
+     */
+    public synchronized String get(int id) {
+        String description = cache.get(id);
+        if (description != null) {
+            hits++;
+            return description;
+        }
+        Long offset = idToOffset.get(id);
+        if (offset == null) return null;
+        misses++;
+        description = read(offset);
+        cache.put(id, description);
+        return description;
+    }
+
+    public synchronized void remove(int id) {
+        idToOffset.remove(id);
+        cache.remove(id);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Размер файла вместе с еще не записанным буфером
+     *
+     * @return size in bytes
+     */
+    public synchronized long getFileSize() {
+        return flushedSize + appendBuffer.position();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot close description file " + path, e);
+        }
+    }
+
+    /**
+     * Заголовок файла для снимка без длины описаний снимка
+     *
+     * @return header or {@code null} if snapshot does not exist
+     */
+    private static ByteBuffer identify(Path snapshot) throws IOException {
+        if (!Files.exists(snapshot)) return null;
+        BasicFileAttributes attributes = Files.readAttributes(snapshot, BasicFileAttributes.class);
+        return ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(attributes.size())
+                .putLong(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS))
+                .putInt(Objects.hashCode(attributes.fileKey()))
+                .putInt(0)
+                .putLong(NOT_SEALED)
+                .flip();
+    }
+
+    /**
+     * Восстановление смещений описаний снимка, если заголовок файла совпадает с {@code identity}
+     */
+    private boolean restore(ByteBuffer identity) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) return false;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        long baseLength = header.getLong(BASE_LENGTH);
+        if (!header.clear().limit(BASE_LENGTH).equals(identity.duplicate().limit(BASE_LENGTH))
+                || baseLength < HEADER_SIZE || baseLength > size) {
+            return false;
+        }
+        Map<Integer, Long> offsets = new HashMap<>();
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long offset = HEADER_SIZE;
+        while (offset < baseLength) {
+            readFully(recordHeader.clear(), offset);
+            int length = recordHeader.getInt(Integer.BYTES);
+            if (length < 0 || offset + RECORD_HEADER_SIZE + length > baseLength) return false;
+            offsets.put(recordHeader.getInt(0), offset);
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        channel.truncate(baseLength);
+        idToOffset.clear();
+        idToOffset.putAll(offsets);
+        cache.clear();
+        appendBuffer.clear();
+        flushedSize = baseLength;
+        return true;
+    }
+
+    private void reset(ByteBuffer identity) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = identity != null ? identity.duplicate() : ByteBuffer.allocate(HEADER_SIZE);
+        writeFully(header, 0);
+        idToOffset.clear();
+        cache.clear();
+        appendBuffer.clear();
+        flushedSize = HEADER_SIZE;
+        opened = true;
+    }
+
+    /**
+     * Хранилище, не подключенное к снимку, начинает файл заново при первом обращении
+     */
+    private void ensureOpened() throws IOException {
+        if (!opened) {
+            reset(null);
+        }
+    }
+
+    private long append(int id, byte[] bytes) {
+        try {
+            ensureOpened();
+            long offset = getFileSize();
+            int recordSize = RECORD_HEADER_SIZE + bytes.length;
+            if (appendBuffer.remaining() < recordSize) {
+                flush();
+            }
+            if (appendBuffer.remaining() < recordSize) {
+                ByteBuffer record = ByteBuffer.allocate(recordSize).putInt(id).putInt(bytes.length).put(bytes);
+                writeFully(record.flip(), flushedSize);
+                flushedSize += record.limit();
+            } else {
+                appendBuffer.putInt(id).putInt(bytes.length).put(bytes);
+            }
+            return offset;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot write description file " + path, e);
+        }
+    }
+
+    private String read(long offset) {
+        try {
+            if (offset >= flushedSize) {
+                flush();
+            }
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            readFully(header, offset);
+            ByteBuffer body = ByteBuffer.allocate(header.getInt(Integer.BYTES));
+            readFully(body, offset + RECORD_HEADER_SIZE);
+            return new String(body.array(), UTF_8);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot read description file " + path, e);
+        }
+    }
+
+    private void flush() throws IOException {
+        appendBuffer.flip();
+        int length = appendBuffer.limit();
+        writeFully(appendBuffer, flushedSize);
+        flushedSize += length;
+        appendBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of description file at " + position);
+            }
+            position += read;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.yandex.practicum.vilkovam.manager;
 
 import ru.yandex.practicum.vilkovam.model.Epic;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.function.UnaryOperator;
 
@@ -19,13 +20,23 @@ public class EpicController extends TaskController<Epic> {
         super(idGenerator, mapper, storage, idToItem);
     }
 
+    /**
+     * Контроллер над загруженным хранилищем, см. {@link TaskController#TaskController(IdGenerator, Map,
+     * UnaryOperator, Collection)}
+     */
+    public EpicController(IdGenerator idGenerator, Map<Integer, Epic> storage, UnaryOperator<Epic> mapper,
+                          Collection<Epic> items) {
+        super(idGenerator, storage, mapper, items);
+    }
+
     @Override
     public Epic create(Epic item) {
         if (item == null) return null;
         setIdAndStatus(item);
         Epic itemToSave = mapper.apply(item);
         itemToSave.getSubtaskIds().clear();
-        idToItem.put(itemToSave.getId(), itemToSave);
+        reindex(idToItem.put(itemToSave.getId(), itemToSave), itemToSave);
+        indexText(item);
         return item;
     }
 
@@ -33,6 +44,7 @@ public class EpicController extends TaskController<Epic> {
     public void update(Epic item) {
         if (item == null || item.getId() == null || !idToItem.containsKey(item.getId())) return;
         Epic epicToAdd = mapper.apply(item);
-        idToItem.replace(epicToAdd.getId(), epicToAdd);
+        reindex(idToItem.replace(epicToAdd.getId(), epicToAdd), epicToAdd);
+        indexText(item);
     }
 }
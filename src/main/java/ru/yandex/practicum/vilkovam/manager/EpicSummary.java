@@ -0,0 +1,39 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Сводка по подзадачам эпика, поддерживаемая {@link SubtaskController} при каждом изменении подзадачи
+ *
+ * @param subtaskCount count of epic subtasks
+ * @param status       epic status derived from subtask statuses
+ * @param duration     sum of subtask durations
+ * @param startTime    earliest subtask start, {@code null} if no subtask has start time
+ * @param endTime      latest subtask end, {@code null} if no subtask has end time
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 12:15
+ * @project java-kanban
+ */
+public record EpicSummary(int subtaskCount,
+                          TaskStatus status,
+                          Duration duration,
+                          LocalDateTime startTime,
+                          LocalDateTime endTime) {
+    /**
+     * Перенос статуса и времени в эпик. Эпик без подзадач получает только статус, его время не меняется.
+     *
+     * @param epic epic to update in place
+     */
+    public void applyTo(Epic epic) {
+        epic.setStatus(status);
+        if (subtaskCount > 0) {
+            epic.setDuration(duration);
+            epic.setStartTime(startTime);
+            epic.setEndTime(endTime);
+        }
+    }
+}
@@ -5,24 +5,31 @@ import ru.yandex.practicum.vilkovam.model.Epic;
 import ru.yandex.practicum.vilkovam.model.ItemType;
 import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.util.BinarySnapshotWriter;
 import ru.yandex.practicum.vilkovam.util.TaskSaveUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Map;
-import java.util.OptionalInt;
-import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
 
@@ -33,13 +40,29 @@ import static java.nio.file.StandardOpenOption.WRITE;
  */
 public class FileBackedTaskManager extends InMemoryTaskManager {
     public static final String CSV_FILE_HEADER = "id,type,name,status,description,startTime,duration,epic";
-    private final File file;
+    public static final String JOURNAL_FILE_SUFFIX = ".journal";
+    public static final String TEMP_FILE_SUFFIX = ".tmp";
+    public static final String COMPACTING_FILE_SUFFIX = ".compacting";
+    public static final String HISTORY_FILE_SUFFIX = ".history";
+    public static final String DESCRIPTIONS_FILE_SUFFIX = ".descriptions";
+    private static final int BUFFER_SIZE = 1 << 16;
+    protected final File file;
+    private SnapshotFormat snapshotFormat = SnapshotFormat.CSV;
+    private SnapshotCompression snapshotCompression = SnapshotCompression.NONE;
+    private LoadStats loadStats;
+    private RecoveryStats recoveryStats;
 
     public FileBackedTaskManager(File file, IdGenerator idGenerator, HistoryManager historyManager) {
         super(idGenerator, historyManager);
         this.file = file;
     }
 
+    public FileBackedTaskManager(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                 SnapshotFormat snapshotFormat) {
+        this(file, idGenerator, historyManager);
+        this.snapshotFormat = snapshotFormat;
+    }
+
     public FileBackedTaskManager(File file,
                                  SortedSet<Task> prioritizedTasks,
                                  HistoryManager historyManager,
@@ -49,150 +72,389 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     public static FileBackedTaskManager loadFromFile(File file, IdGenerator idGenerator, HistoryManager historyManager) {
-        try {
-            List<String> lines = Files.readAllLines(file.toPath(), UTF_8);
-            TaskByType taskByType = splitTasksByType(lines);
+        return loadFromFile(file, idGenerator, historyManager, null, 0);
+    }
+
+    /**
+     * Параллельная загрузка: CSV-снимок разбирается кусками на переданном пуле
+     *
+     * @param file           snapshot file
+     * @param idGenerator    generator to continue ids after loaded items
+     * @param historyManager history manager
+     * @param pool           pool to parse snapshot on
+     * @return loaded manager
+     */
+    public static FileBackedTaskManager loadFromFile(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                                     ForkJoinPool pool) {
+        return loadFromFile(file, idGenerator, historyManager, pool, ParallelSnapshotReader.DEFAULT_CHUNK_SIZE);
+    }
+
+    static FileBackedTaskManager loadFromFile(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                              ForkJoinPool pool, int chunkSize) {
+        LoadedBoard board = loadBoard(file, idGenerator, pool, chunkSize);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, board.prioritizedTasks(),
+                historyManager, board.controllers());
+        manager.afterLoad(board);
+        return manager;
+    }
 
-            setNextValueForIdGenerator(idGenerator, taskByType);
+    /**
+     * Загрузка с ленивыми описаниями: в памяти остаются только id, тип, статус, имя, время и связи,
+     * описания хранятся в {@link DescriptionStore} и подгружаются при чтении объекта
+     *
+     * @param file           snapshot file
+     * @param idGenerator    generator to continue ids after loaded items
+     * @param historyManager history manager
+     * @param descriptions   store for descriptions, usually at {@link #getDescriptionsPath(File)}
+     * @return loaded manager
+     */
+    public static FileBackedTaskManager loadFromFile(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                                     DescriptionStore descriptions) {
+        LoadedBoard board = loadBoard(file, idGenerator, null, 0, descriptions);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, board.prioritizedTasks(),
+                historyManager, board.controllers());
+        manager.afterLoad(board);
+        return manager;
+    }
+
+    /**
+     * Потоковая загрузка снимка и дописанного после него журнала изменений
+     *
+     * @param file        snapshot file
+     * @param idGenerator generator to continue ids after loaded items
+     * @return loaded controllers, replayed journal records count and load stats
+     */
+    static LoadedBoard loadBoard(File file, IdGenerator idGenerator) {
+        return loadBoard(file, idGenerator, null, 0);
+    }
 
-            TreeSet<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+    /**
+     * Загрузка снимка, при наличии пула - параллельная, и дописанного после него журнала изменений
+     *
+     * @param file        snapshot file
+     * @param idGenerator generator to continue ids after loaded items
+     * @param pool        pool to parse snapshot on, {@code null} for sequential load
+     * @param chunkSize   minimal chunk size in bytes for parallel load
+     * @return loaded controllers, replayed journal records count and load stats
+     */
+    static LoadedBoard loadBoard(File file, IdGenerator idGenerator, ForkJoinPool pool, int chunkSize) {
+        return loadBoard(file, idGenerator, pool, chunkSize, null);
+    }
 
-            ControllersHolder controllers = getControllersHolder(idGenerator, prioritizedTasks, taskByType);
+    /**
+     * Загрузка доски, описания объектов при наличии {@code descriptions} выносятся из памяти.
+     * Такая загрузка всегда последовательная: описание уходит в хранилище сразу после разбора записи.
+     * Если снимок не изменился с прошлой загрузки, описания снимка берутся из прежнего файла хранилища.
+     *
+     * @param file         snapshot file
+     * @param idGenerator  generator to continue ids after loaded items
+     * @param pool         pool to parse snapshot on, {@code null} for sequential load
+     * @param chunkSize    minimal chunk size in bytes for parallel load
+     * @param descriptions store to move descriptions to, {@code null} to keep them on heap
+     * @return loaded controllers, replayed journal records count and load stats
+     */
+    static LoadedBoard loadBoard(File file, IdGenerator idGenerator, ForkJoinPool pool, int chunkSize,
+                                 DescriptionStore descriptions) {
+        Path journalPath = getJournalPath(file);
+        Path compactingJournalPath = getCompactingJournalPath(file);
+        try {
+            TaskIntervalTree prioritizedTasks = new TaskIntervalTree();
+            TaskFileLoader loader = new TaskFileLoader(prioritizedTasks, descriptions);
+            SnapshotFormat snapshotFormat = SnapshotFormat.CSV;
+            if (file.exists() || !Files.exists(journalPath) && !Files.exists(compactingJournalPath)) {
+                loader.openDescriptions(file.toPath());
+                snapshotFormat = pool == null || descriptions != null
+                        ? loader.loadSnapshot(file.toPath())
+                        : loader.loadSnapshot(file.toPath(), pool, chunkSize);
+                loader.sealDescriptions();
+            }
+            int journalRecords = loader.loadJournal(compactingJournalPath) + loader.loadJournal(journalPath);
+            ControllersHolder controllers = loader.finish(idGenerator);
 
-            return new FileBackedTaskManager(file, prioritizedTasks, historyManager, controllers);
+            return new LoadedBoard(prioritizedTasks, controllers, snapshotFormat, loader.getCompression(),
+                    journalRecords, loader.getStats(), loader.getRecoveryStats());
         } catch (Exception e) {
             throw new ManagerSaveException("Cannot load tasks from file " + file.getAbsolutePath(), e);
         }
     }
 
-    private static ControllersHolder getControllersHolder(IdGenerator idGenerator, TreeSet<Task> prioritizedTasks, TaskByType taskByType) {
-        var taskController = new TaskController<>(idGenerator, Task::new,
-                new ItemPriorityStorage<>(prioritizedTasks), taskByType.idToTask);
+    public static Path getJournalPath(File file) {
+        return Path.of(file.getPath() + JOURNAL_FILE_SUFFIX);
+    }
 
-        var epicController = new EpicController(idGenerator, Epic::new, new HashMap<>(), taskByType.idToEpic);
+    /**
+     * Файл истории просмотров для {@link PersistentHistoryManager}
+     *
+     * @param file snapshot file
+     * @return path of history file
+     */
+    public static Path getHistoryPath(File file) {
+        return Path.of(file.getPath() + HISTORY_FILE_SUFFIX);
+    }
 
-        var subtaskTaskController = new TaskController<>(idGenerator, Subtask::new,
-                new ItemPriorityStorage<>(prioritizedTasks), taskByType.idToSubtask);
+    /**
+     * Рабочий файл {@link DescriptionStore} для ленивой загрузки описаний
+     *
+     * @param file snapshot file
+     * @return path of descriptions file
+     */
+    public static Path getDescriptionsPath(File file) {
+        return Path.of(file.getPath() + DESCRIPTIONS_FILE_SUFFIX);
+    }
 
-        return new ControllersHolder(taskController, epicController, subtaskTaskController);
+    /**
+     * Журнал, отложенный на время сжатия. Если он остался после сбоя, его записи
+     * применяются между снимком и текущим журналом.
+     *
+     * @param file snapshot file
+     * @return path of rotated journal
+     */
+    public static Path getCompactingJournalPath(File file) {
+        return Path.of(file.getPath() + JOURNAL_FILE_SUFFIX + COMPACTING_FILE_SUFFIX);
     }
 
-    private static TaskByType splitTasksByType(List<String> lines) {
-        List<Task> allTasks = lines.stream()
-                .skip(1)
-                .map(TaskSaveUtils::fromString)
-                .toList();
+    /**
+     * Статистика последней загрузки из файла
+     *
+     * @return stats or {@code null} if manager was not loaded from file
+     */
+    public LoadStats getLoadStats() {
+        return loadStats;
+    }
 
-        Map<Integer, Task> idToTask = allTasks.stream()
-                .filter(e -> ItemType.TASK.equals(e.getType()))
-                .map(e -> Map.entry(e.getId(), e))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    /**
+     * Результат проверки файлов при последней загрузке: целостность снимка и отброшенные байты
+     *
+     * @return stats or {@code null} if manager was not loaded from file
+     */
+    public RecoveryStats getRecoveryStats() {
+        return recoveryStats;
+    }
 
-        Map<Integer, Epic> idToEpic = allTasks.stream()
-                .filter(e -> ItemType.EPIC.equals(e.getType()))
-                .map(e -> Map.entry(e.getId(), (Epic) e))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
 
-        Map<Integer, Subtask> idToSubtask = allTasks.stream()
-                .filter(e -> ItemType.SUBTASK.equals(e.getType()))
-                .map(e -> Map.entry(e.getId(), (Subtask) e))
-                .filter(e -> e.getValue().getEpicId() == null
-                        || idToEpic.containsKey(e.getValue().getEpicId()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    /**
+     * Смена формата, в котором будут записываться следующие снимки
+     *
+     * @param snapshotFormat new format
+     */
+    public void setSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+    }
 
-        idToSubtask.forEach((k, v) -> {
-            if (v.getEpicId() != null) {
-                Epic epic = idToEpic.get(v.getEpicId());
-                epic.getSubtaskIds().add(k);
-            }
-        });
-        return new TaskByType(idToTask, idToEpic, idToSubtask);
+    public SnapshotCompression getSnapshotCompression() {
+        return snapshotCompression;
     }
 
-    private static void setNextValueForIdGenerator(IdGenerator idGenerator, TaskByType taskByType) {
-        OptionalInt maxId = Stream.of(taskByType.idToTask, taskByType.idToEpic, taskByType.idToSubtask)
-                .map(Map::keySet)
-                .flatMap(Set::stream)
-                .mapToInt(Integer::intValue)
-                .max();
+    /**
+     * Смена сжатия, с которым будут записываться следующие снимки
+     *
+     * @param snapshotCompression new compression
+     */
+    public void setSnapshotCompression(SnapshotCompression snapshotCompression) {
+        this.snapshotCompression = snapshotCompression;
+    }
 
-        idGenerator.setNextId(maxId.orElse(1));
+    protected void afterLoad(LoadedBoard board) {
+        snapshotFormat = board.snapshotFormat();
+        snapshotCompression = board.snapshotCompression();
+        loadStats = board.stats();
+        recoveryStats = board.recovery();
+        if (getHistoryManager() instanceof PersistentHistoryManager history) {
+            history.restore(this::findItem);
+        }
     }
 
-    private void save() {
-        try {
-            Files.writeString(file.toPath(), CSV_FILE_HEADER + System.lineSeparator(), CREATE, TRUNCATE_EXISTING, WRITE);
+    /**
+     * Сброс накопленных записей истории просмотров, если она сохраняется в файл
+     */
+    protected void flushHistory() {
+        if (getHistoryManager() instanceof PersistentHistoryManager history) {
+            history.flush();
+        }
+    }
 
-            List<String> listToSave = getUnifiedTaskList().stream()
-                    .map(TaskSaveUtils::toString)
-                    .toList();
-            Files.write(file.toPath(), listToSave, UTF_8, WRITE, APPEND);
+    /**
+     * Сохранение изменения одного объекта. По умолчанию перезаписывает весь снимок.
+     *
+     * @param type item type
+     * @param id   id of created/updated/removed item, may be {@code null}
+     */
+    protected void save(ItemType type, Integer id) {
+        save();
+    }
 
+    /**
+     * Полная перезапись снимка. Журнал, если он был, становится неактуальным и удаляется
+     * вместе с журналом незавершенного сжатия.
+     */
+    protected void save() {
+        writeSnapshot(getUnifiedTaskList());
+        try {
+            Files.deleteIfExists(getJournalPath(file));
+            Files.deleteIfExists(getCompactingJournalPath(file));
+        } catch (IOException e) {
+            throw new ManagerSaveException(e);
+        }
+        flushHistory();
+    }
+
+    /**
+     * Запись снимка, при включенном сжатии - через {@link GZIPOutputStream} по мере записи объектов.
+     * Снимок пишется во временный файл, сбрасывается на диск
+     * и атомарно переименовывается поверх старого, поэтому сбой во время записи оставляет
+     * предыдущий снимок целым.
+     *
+     * @param items items to save in {@link #getUnifiedTaskList()} order
+     */
+    protected void writeSnapshot(List<Task> items) {
+        Path tempPath = getTempPath(file);
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, CREATE, TRUNCATE_EXISTING, WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                if (snapshotCompression == SnapshotCompression.GZIP) {
+                    out = new GZIPOutputStream(out, BUFFER_SIZE);
+                }
+                switch (snapshotFormat) {
+                    case CSV -> writeCsv(out, items);
+                    case BINARY -> writeBinary(out, items);
+                }
+                if (out instanceof GZIPOutputStream gzip) {
+                    gzip.finish();
+                }
+                out.flush();
+                channel.force(true);
+            }
+            moveAtomically(tempPath, file.toPath());
         } catch (Exception e) {
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
             throw new ManagerSaveException(e);
         }
     }
 
+    public static Path getTempPath(File file) {
+        return Path.of(file.getPath() + TEMP_FILE_SUFFIX);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, REPLACE_EXISTING);
+        }
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Запись на диск записи каталога, чтобы переименование файла пережило отключение питания.
+     * На платформах, где каталог нельзя открыть как файл (Windows), вызов ничего не делает.
+     *
+     * @param directory directory containing renamed file
+     */
+    static void forceDirectory(Path directory) {
+        if (directory == null) return;
+        try (FileChannel channel = FileChannel.open(directory, READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException ignored) {
+            // каталог нельзя открыть или синхронизировать на этой платформе
+        }
+    }
+
+    private static void writeCsv(OutputStream out, List<Task> items) throws IOException {
+        Writer writer = new OutputStreamWriter(out, UTF_8);
+        writer.write(CSV_FILE_HEADER);
+        writer.write(System.lineSeparator());
+        for (Task task : items) {
+            writer.write(TaskSaveUtils.toString(task));
+            writer.write(System.lineSeparator());
+        }
+        writer.flush();
+    }
+
+    private static void writeBinary(OutputStream out, List<Task> items) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        BinarySnapshotWriter snapshotWriter = new BinarySnapshotWriter(dataOut);
+        for (Task task : items) {
+            snapshotWriter.write(task);
+        }
+        snapshotWriter.finish();
+        dataOut.flush();
+    }
+
     @Override
     public void updateTask(Task task) {
         super.updateTask(task);
-        save();
+        save(ItemType.TASK, idOf(task));
     }
 
     @Override
     public Task createTask(Task task) {
         Task tmp = super.createTask(task);
-        save();
+        save(ItemType.TASK, idOf(tmp));
         return tmp;
     }
 
     @Override
     public void removeTaskById(Integer id) {
         super.removeTaskById(id);
-        save();
+        save(ItemType.TASK, id);
     }
 
     @Override
     public Epic createEpic(Epic epic) {
         Epic tmp = super.createEpic(epic);
-        save();
+        save(ItemType.EPIC, idOf(tmp));
         return tmp;
     }
 
     @Override
     public void updateEpic(Epic epic) {
         super.updateEpic(epic);
-        save();
+        save(ItemType.EPIC, idOf(epic));
     }
 
     @Override
     public void removeEpicById(Integer id) {
         super.removeEpicById(id);
-        save();
+        save(ItemType.EPIC, id);
     }
 
     @Override
     public Subtask createSubtask(Subtask subtask) {
         Subtask tmp = super.createSubtask(subtask);
-        save();
+        save(ItemType.SUBTASK, idOf(tmp));
         return tmp;
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
         super.updateSubtask(subtask);
-        save();
+        save(ItemType.SUBTASK, idOf(subtask));
     }
 
     @Override
     public void removeSubtaskById(Integer id) {
         super.removeSubtaskById(id);
-        save();
+        save(ItemType.SUBTASK, id);
+    }
+
+    private static Integer idOf(Task task) {
+        return task == null ? null : task.getId();
     }
 
-    private record TaskByType(Map<Integer, Task> idToTask,
-                              Map<Integer, Epic> idToEpic,
-                              Map<Integer, Subtask> idToSubtask) {
+    record LoadedBoard(SortedSet<Task> prioritizedTasks,
+                       ControllersHolder controllers,
+                       SnapshotFormat snapshotFormat,
+                       SnapshotCompression snapshotCompression,
+                       int journalRecords,
+                       LoadStats stats,
+                       RecoveryStats recovery) {
     }
 
 }
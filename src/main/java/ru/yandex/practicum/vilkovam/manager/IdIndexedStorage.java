@@ -0,0 +1,218 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Хранилище контроллера в массиве, индексированном по id: поиск - одно обращение по индексу без хеширования,
+ * удаленный объект оставляет в массиве пустую ячейку. Один генератор выдает id задачам, эпикам и подзадачам
+ * вперемешку, поэтому id одного хранилища идут с шагом. Массив растет, пока на объект приходится
+ * не больше {@value #MAX_SLOTS_PER_ITEM} ячеек, см. {@link #fitsIndex(int, int)}; остальные id хранятся
+ * в отдельной {@code HashMap}. Обход идет по возрастанию id плотной части, затем по остальным объектам.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 13:10
+ * @project java-kanban
+ */
+public class IdIndexedStorage<T extends Task> extends AbstractMap<Integer, T> {
+    private static final int MIN_CAPACITY = 64;
+    /**
+     * Длина массива, до которой он растет при любом числе объектов
+     */
+    static final int MAX_GAP = 1024;
+    /**
+     * Наибольшее число ячеек массива на объект: ячейка - 4-8 байт, запись {@code HashMap} с ключом - 50-60 байт
+     */
+    static final int MAX_SLOTS_PER_ITEM = 8;
+
+    private Object[] items = new Object[MIN_CAPACITY];
+    private final Map<Integer, T> sparse = new HashMap<>();
+    private int denseSize;
+    private int modCount;
+
+    public T get(int id) {
+        return id > 0 && id < items.length ? element(id) : sparse.get(id);
+    }
+
+    public boolean containsKey(int id) {
+        return get(id) != null;
+    }
+
+    public T put(int id, T value) {
+        if (value == null) throw new NullPointerException("value");
+        if (id >= items.length && fitsIndex(id, size())) {
+            grow(id);
+        }
+        if (id <= 0 || id >= items.length) {
+            T previous = sparse.put(id, value);
+            if (previous == null) modCount++;
+            return previous;
+        }
+        T previous = element(id);
+        items[id] = value;
+        if (previous == null) {
+            denseSize++;
+            modCount++;
+        }
+        return previous;
+    }
+
+    public T remove(int id) {
+        if (id <= 0 || id >= items.length) {
+            T removed = sparse.remove(id);
+            if (removed != null) modCount++;
+            return removed;
+        }
+        T removed = element(id);
+        if (removed != null) {
+            items[id] = null;
+            denseSize--;
+            modCount++;
+        }
+        return removed;
+    }
+
+    @Override
+    public T get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public T put(Integer key, T value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public T remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return denseSize + sparse.size();
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(items, null);
+        sparse.clear();
+        denseSize = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, T>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return IdIndexedStorage.this.size();
+            }
+        };
+    }
+
+    /**
+     * Политика роста индекса по id: массив длиной до {@code id} не должен быть реже, чем один объект
+     * на {@value #MAX_SLOTS_PER_ITEM} ячеек. Плотность считается по длине массива, а не по числу объектов:
+     * при шаге id 3 (эпик и две его подзадачи) массив эпиков заполнен на треть, и все эпики остаются в нем.
+     *
+     * @param id   id to index
+     * @param size count of stored items before adding {@code id}
+     * @return {@code true} if index array should grow to hold {@code id}
+     */
+    static boolean fitsIndex(int id, int size) {
+        return id > 0 && (id < MAX_GAP || (long) (size + 1) * MAX_SLOTS_PER_ITEM > id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int id) {
+        return (T) items[id];
+    }
+
+    /**
+     * Расширение массива до {@code id}. Объекты из {@code sparse}, попавшие в новый диапазон, переносятся в массив.
+     */
+    private void grow(int id) {
+        items = Arrays.copyOf(items, Math.max(id + 1, items.length + (items.length >> 1)));
+        Iterator<Entry<Integer, T>> iterator = sparse.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<Integer, T> entry = iterator.next();
+            int key = entry.getKey();
+            if (key > 0 && key < items.length) {
+                items[key] = entry.getValue();
+                denseSize++;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Обход плотной части по возрастанию id, затем объектов из {@code sparse}
+     */
+    private class EntryIterator implements Iterator<Entry<Integer, T>> {
+        private final Iterator<Entry<Integer, T>> sparseIterator = sparse.entrySet().iterator();
+        private int expectedModCount = modCount;
+        private int nextIndex = advance(1);
+        private Integer lastKey;
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < items.length || sparseIterator.hasNext();
+        }
+
+        @Override
+        public Entry<Integer, T> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (nextIndex < items.length) {
+                int id = nextIndex;
+                nextIndex = advance(id + 1);
+                lastKey = id;
+                return new SimpleImmutableEntry<>(id, element(id));
+            }
+            if (!sparseIterator.hasNext()) throw new NoSuchElementException();
+            Entry<Integer, T> entry = sparseIterator.next();
+            lastKey = entry.getKey();
+            return new SimpleImmutableEntry<>(entry);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (lastKey > 0 && lastKey < items.length) {
+                IdIndexedStorage.this.remove(lastKey.intValue());
+            } else {
+                sparseIterator.remove();
+                modCount++;
+            }
+            expectedModCount = modCount;
+            lastKey = null;
+        }
+
+        private int advance(int from) {
+            int index = from;
+            while (index < items.length && items[index] == null) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package ru.yandex.practicum.vilkovam.manager;
 
 import ru.yandex.practicum.vilkovam.exceptions.OverlappingTaskException;
 import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemSnapshot;
+import ru.yandex.practicum.vilkovam.model.ItemType;
 import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
 import ru.yandex.practicum.vilkovam.model.TaskStatus;
@@ -9,14 +11,15 @@ import ru.yandex.practicum.vilkovam.util.Managers;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -28,12 +31,12 @@ import java.util.stream.Stream;
 public class InMemoryTaskManager implements TaskManager {
     private final TaskController<Task> taskController;
     private final TaskController<Epic> epicController;
-    private final TaskController<Subtask> subTaskController;
+    private final SubtaskController subTaskController;
     private final HistoryManager historyManager;
     private final SortedSet<Task> prioritizedTasks;
 
     public InMemoryTaskManager(IdGenerator idGenerator, HistoryManager historyManager) {
-        this.prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+        this.prioritizedTasks = new TaskIntervalTree();
         this.historyManager = historyManager;
 
         ControllersHolder controllers = Managers.getDefaultControllers(idGenerator);
@@ -185,9 +188,151 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
+    /**
+     * Задачи и подзадачи в порядке времени начала. Если описания хранятся вне объектов,
+     * см. {@link DescriptionStorage}, объекты возвращаются копиями с подгруженными описаниями.
+     *
+     * @return read-only view of prioritized items
+     */
     @Override
     public Set<Task> getPrioritizedTasks() {
-        return Collections.unmodifiableSet(prioritizedTasks);
+        if (!hasLazyDescriptions()) return Collections.unmodifiableSet(prioritizedTasks);
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Task> iterator() {
+                Iterator<Task> iterator = prioritizedTasks.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Task next() {
+                        return withDescription(iterator.next());
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return prioritizedTasks.contains(o);
+            }
+
+            @Override
+            public int size() {
+                return prioritizedTasks.size();
+            }
+        };
+    }
+
+    /**
+     * Задачи и подзадачи, пересекающиеся с интервалом {@code [from, to)}, в порядке времени начала
+     *
+     * @param from interval start, inclusive
+     * @param to   interval end, exclusive
+     * @return overlapping items
+     */
+    @Override
+    public List<Task> getOverlappingTasks(LocalDateTime from, LocalDateTime to) {
+        if (prioritizedTasks instanceof TaskIntervalTree intervalTree) {
+            return withDescriptions(intervalTree.findOverlapping(from, to));
+        }
+        return withDescriptions(prioritizedTasks.stream()
+                .filter(e -> TaskIntervalTree.overlaps(e, from, to))
+                .toList());
+    }
+
+    /**
+     * Задачи и подзадачи с временем начала в {@code [from, to)} в порядке времени начала
+     *
+     * @param from range start, inclusive, {@code null} for no lower bound
+     * @param to   range end, exclusive, {@code null} for no upper bound
+     * @return items starting in range
+     */
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return getPrioritizedTasks(from, to, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Страница задач и подзадач с временем начала в {@code [from, to)} в порядке времени начала
+     *
+     * @param from   range start, inclusive, {@code null} for no lower bound
+     * @param to     range end, exclusive, {@code null} for no upper bound
+     * @param offset number of items to skip
+     * @param limit  maximum page size
+     * @return items of the page
+     */
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int offset, int limit) {
+        return findStartingBetween(from, to, offset, limit, false);
+    }
+
+    /**
+     * Страница задач и подзадач с временем начала в {@code [from, to)}, начиная с самых поздних
+     *
+     * @param from   range start, inclusive, {@code null} for no lower bound
+     * @param to     range end, exclusive, {@code null} for no upper bound
+     * @param offset number of items to skip
+     * @param limit  maximum page size
+     * @return items of the page
+     */
+    @Override
+    public List<Task> getPrioritizedTasksDescending(LocalDateTime from, LocalDateTime to, int offset, int limit) {
+        return findStartingBetween(from, to, offset, limit, true);
+    }
+
+    /**
+     * Ближайшее время начала задачи заданной продолжительности, при котором она не пересечется
+     * с другими задачами и подзадачами
+     *
+     * @param duration      task duration
+     * @param earliestStart earliest start time
+     * @param horizon       latest end time, {@code null} for no limit
+     * @return start time or {@code null} if there is no free window before {@code horizon}
+     */
+    @Override
+    public LocalDateTime findFreeSlot(Duration duration, LocalDateTime earliestStart, LocalDateTime horizon) {
+        List<LocalDateTime> slots = findFreeSlots(duration, earliestStart, horizon, 1);
+        return slots.isEmpty() ? null : slots.getFirst();
+    }
+
+    /**
+     * Несколько ближайших свободных окон, идущих друг за другом, см. {@link TaskIntervalTree#findFreeSlots}
+     *
+     * @param duration      task duration
+     * @param earliestStart earliest start time
+     * @param horizon       latest end time, {@code null} for no limit
+     * @param count         maximum number of windows
+     * @return window start times in ascending order
+     */
+    @Override
+    public List<LocalDateTime> findFreeSlots(Duration duration, LocalDateTime earliestStart, LocalDateTime horizon,
+                                             int count) {
+        TaskIntervalTree intervalTree = prioritizedTasks instanceof TaskIntervalTree tree
+                ? tree
+                : new TaskIntervalTree(prioritizedTasks);
+        return Collections.unmodifiableList(intervalTree.findFreeSlots(duration, earliestStart, horizon, count));
+    }
+
+    private List<Task> findStartingBetween(LocalDateTime from, LocalDateTime to, int offset, int limit,
+                                           boolean descending) {
+        if (prioritizedTasks instanceof TaskIntervalTree intervalTree) {
+            return withDescriptions(intervalTree.findStartingBetween(from, to, offset, limit, descending));
+        }
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("offset and limit must not be negative");
+        List<Task> inRange = prioritizedTasks.stream()
+                .filter(e -> (from == null || !e.getStartTime().isBefore(from))
+                        && (to == null || e.getStartTime().isBefore(to)))
+                .collect(Collectors.toList());
+        if (descending) {
+            Collections.reverse(inRange);
+        }
+        return withDescriptions(inRange.stream()
+                .skip(offset)
+                .limit(limit)
+                .toList());
     }
 
     /**
@@ -228,9 +373,52 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public List<Subtask> getAllSubtaskByEpicId(Integer epicId) {
-        return getAllSubtask().stream()
-                .filter(e -> epicId.equals(e.getEpicId()))
-                .toList();
+        return subTaskController.getAllByEpicId(epicId);
+    }
+
+    /**
+     * Возвращает задачи с указанным статусом по индексу статусов
+     *
+     * @param status target status
+     * @return collections of {@link Task} with {@code status}
+     */
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return taskController.getAllByStatus(status);
+    }
+
+    /**
+     * Возвращает эпики с указанным статусом по индексу статусов
+     *
+     * @param status target status
+     * @return collections of {@link Epic} with {@code status}
+     */
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return epicController.getAllByStatus(status);
+    }
+
+    /**
+     * Возвращает подзадачи с указанным статусом по индексу статусов
+     *
+     * @param status target status
+     * @return collections of {@link Subtask} with {@code status}
+     */
+    @Override
+    public List<Subtask> getSubtasksByStatus(TaskStatus status) {
+        return subTaskController.getAllByStatus(status);
+    }
+
+    /**
+     * Возвращает подзадачи эпика с указанным статусом
+     *
+     * @param epicId id target epic
+     * @param status target status
+     * @return collections of {@link Subtask} of epic with {@code status}
+     */
+    @Override
+    public List<Subtask> getSubtasksByEpicIdAndStatus(Integer epicId, TaskStatus status) {
+        return subTaskController.getAllByEpicIdAndStatus(epicId, status);
     }
 
     /**
@@ -246,84 +434,141 @@ public class InMemoryTaskManager implements TaskManager {
     }
 
     /**
-     * Вспомогательный метод для обновление статуса {@link Epic}
+     * Захват всех объектов в порядке {@link #getUnifiedTaskList()} без копирования самих объектов.
+     * Вызывается под блокировкой мутаций, результат читается уже вне ее.
      *
-     * @param epic target epic for calculate status
+     * @return supplier of stored items for read-only use such as writing a snapshot
      */
-    private void updateEpicStatus(Epic epic) {
-        if (epic == null || epic.getId() == null || !epicController.existsById(epic.getId())) return;
-        Epic targetEpic = epicController.getById(epic.getId());
-        List<Integer> subtaskIds = targetEpic.getSubtaskIds();
-
-        if (subtaskIds.isEmpty() || isAllSubtaskHasStatus(targetEpic, TaskStatus.NEW)) {
-            targetEpic.setStatus(TaskStatus.NEW);
-        } else if (isAllSubtaskHasStatus(targetEpic, TaskStatus.DONE)) {
-            targetEpic.setStatus(TaskStatus.DONE);
-        } else {
-            targetEpic.setStatus(TaskStatus.IN_PROGRESS);
-        }
-        updateEpicDurationAndEndTime(targetEpic);
-        epicController.update(targetEpic);
+    protected Supplier<List<Task>> captureUnifiedTaskList() {
+        Supplier<List<Task>> tasks = taskController.captureItems();
+        Supplier<List<Epic>> epics = epicController.captureItems();
+        Supplier<List<Subtask>> subtasks = subTaskController.captureItems();
+        return () -> Stream.of(tasks.get(), epics.get(), subtasks.get())
+                .flatMap(Collection::stream)
+                .collect(Collectors.toList());
     }
 
     /**
-     * Вспомогательный метод проверки что все подзадачи эпика {@link Epic} имеют статус {@code status}
+     * Неизменяемый снимок задачи, эпика или подзадачи. Повторные чтения без изменений объекта
+     * возвращают тот же экземпляр, пока он в кэше снимков контроллера. Просмотр снимка не попадает в историю.
      *
-     * @param epic   target {@link Epic}
-     * @param status target {@link TaskStatus} for check
-     * @return result {@code true} or {@code false}
+     * @param id item id
+     * @return shared snapshot or {@code null} if item not found
      */
-    private boolean isAllSubtaskHasStatus(Epic epic, TaskStatus status) {
-        List<Integer> subtaskIds = epic.getSubtaskIds();
-        return subTaskController.getAllItem().stream()
-                .filter(e -> subtaskIds.contains(e.getId()))
-                .allMatch(e -> status.equals(e.getStatus()));
+    @Override
+    public ItemSnapshot getSnapshotById(Integer id) {
+        ItemSnapshot snapshot = taskController.getSnapshot(id);
+        if (snapshot == null) snapshot = epicController.getSnapshot(id);
+        if (snapshot == null) snapshot = subTaskController.getSnapshot(id);
+        return snapshot;
     }
 
-    private void updateEpicDurationAndEndTime(Epic epic) {
-        List<Subtask> allSubtaskByEpicId = getAllSubtaskByEpicId(epic.getId());
-        if (allSubtaskByEpicId.isEmpty()) return;
-
-        Duration epicDuration = allSubtaskByEpicId.stream()
-                .map(Subtask::getDuration)
-                .filter(Objects::nonNull)
-                .reduce(Duration.ZERO, Duration::plus);
-
-        epic.setDuration(epicDuration);
+    /**
+     * Снимки всех объектов в порядке {@link #getUnifiedTaskList()} без копирования самих объектов.
+     * Снимки, которых нет в кэше, создаются заново и в кэш не попадают.
+     *
+     * @return list of shared snapshots
+     */
+    @Override
+    public List<ItemSnapshot> getUnifiedSnapshotList() {
+        return Stream.of(taskController.getAllSnapshots(), epicController.getAllSnapshots(),
+                        subTaskController.getAllSnapshots())
+                .flatMap(Collection::stream)
+                .toList();
+    }
 
-        var epicStartTime = allSubtaskByEpicId.stream()
-                .map(Subtask::getStartTime)
-                .filter(Objects::nonNull)
-                .min(Comparator.naturalOrder())
-                .orElse(null);
+    /**
+     * Поиск задач, эпиков и подзадач по словам названия и описания. Каждое слово запроса ищется
+     * как префикс, объект должен содержать все слова.
+     *
+     * @param query words to search
+     * @return ids of found items, more matches first
+     */
+    @Override
+    public List<Integer> search(String query) {
+        return Stream.of(taskController.search(query), epicController.search(query), subTaskController.search(query))
+                .flatMap(Collection::stream)
+                .sorted(SearchHit.BY_RANK)
+                .map(SearchHit::id)
+                .toList();
+    }
 
-        epic.setStartTime(epicStartTime);
+    protected HistoryManager getHistoryManager() {
+        return historyManager;
+    }
 
-        var epicEndTime = allSubtaskByEpicId.stream()
-                .map(Subtask::getEndTime)
-                .filter(Objects::nonNull)
-                .max(Comparator.naturalOrder())
-                .orElse(null);
+    /**
+     * Получение объекта без записи в историю просмотров
+     *
+     * @param type item type
+     * @param id   item id
+     * @return copy of stored item or {@code null}
+     */
+    protected Task findItem(ItemType type, Integer id) {
+        if (id == null) return null;
+        return switch (type) {
+            case TASK -> taskController.getById(id);
+            case EPIC -> epicController.getById(id);
+            case SUBTASK -> subTaskController.getById(id);
+        };
+    }
 
-        epic.setEndTime(epicEndTime);
+    private boolean hasLazyDescriptions() {
+        return taskController.hasLazyDescriptions() || subTaskController.hasLazyDescriptions();
     }
 
-    private boolean isOverlapTask(Task task) {
-        if (prioritizedTasks == null || prioritizedTasks.isEmpty() || task == null) return false;
-        return getPrioritizedTasks().stream()
-                .filter(e -> !Objects.equals(e.getId(), task.getId()))
-                .anyMatch(e -> isOverlapTasks(task, e));
+    /**
+     * Объекты набора приоритетов с описаниями, см. {@link #getPrioritizedTasks()}
+     *
+     * @param items items of the prioritized set
+     * @return read-only list of items with descriptions
+     */
+    private List<Task> withDescriptions(List<Task> items) {
+        if (!hasLazyDescriptions()) return Collections.unmodifiableList(items);
+        return items.stream()
+                .map(this::withDescription)
+                .toList();
     }
 
-    private static boolean isOverlapTasks(Task t1, Task t2) {
-        LocalDateTime startTime1 = t1.getStartTime();
-        LocalDateTime endTime1 = t1.getEndTime();
+    private Task withDescription(Task item) {
+        return switch (item.getType()) {
+            case TASK -> taskController.withDescription(item);
+            case EPIC -> epicController.withDescription((Epic) item);
+            case SUBTASK -> subTaskController.withDescription((Subtask) item);
+        };
+    }
 
-        LocalDateTime startTime2 = t2.getStartTime();
-        LocalDateTime endTime2 = t2.getEndTime();
+    /**
+     * Вспомогательный метод для обновление статуса {@link Epic}
+     *
+     * @param epic target epic for calculate status
+     */
+    private void updateEpicStatus(Epic epic) {
+        if (epic == null || epic.getId() == null || !epicController.existsById(epic.getId())) return;
+        Epic targetEpic = epicController.getById(epic.getId());
+        subTaskController.getEpicSummary(epic.getId()).applyTo(targetEpic);
+        epicController.update(targetEpic);
+    }
 
-        return startTime2.isAfter(startTime1) && startTime2.isBefore(endTime1)
-                || endTime2.isAfter(startTime1) && endTime2.isBefore(endTime1)
-                || startTime2.isBefore(startTime1) && endTime2.isAfter(endTime1);
+    /**
+     * Проверка пересечения задачи по времени с другими задачами и подзадачами.
+     * Если набор приоритетов - {@link TaskIntervalTree}, проверка идет по индексу интервалов.
+     *
+     * @param task task to check
+     * @return {@code true} if task overlaps another item
+     */
+    private boolean isOverlapTask(Task task) {
+        if (prioritizedTasks == null || prioritizedTasks.isEmpty() || task == null
+                || task.getStartEpochSecond() == Task.NO_TIME) {
+            return false;
+        }
+        if (prioritizedTasks instanceof TaskIntervalTree intervalTree) {
+            return intervalTree.hasOverlap(task);
+        }
+        LocalDateTime startTime = task.getStartTime();
+        LocalDateTime endTime = task.getEndTime() != null ? task.getEndTime() : startTime;
+        return prioritizedTasks.stream()
+                .filter(e -> !Objects.equals(e.getId(), task.getId()))
+                .anyMatch(e -> TaskIntervalTree.overlaps(e, startTime, endTime));
     }
 }
@@ -2,7 +2,9 @@ package ru.yandex.practicum.vilkovam.manager;
 
 import ru.yandex.practicum.vilkovam.model.Task;
 
+import java.util.AbstractMap;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 
@@ -11,36 +13,87 @@ import java.util.SortedSet;
  * @created 05.11.2025 - 20:38
  * @project java-kanban
  */
-public class ItemPriorityStorage<T extends Task> extends HashMap<Integer, T> {
+public class ItemPriorityStorage<T extends Task> extends AbstractMap<Integer, T> {
+    private final Map<Integer, T> storage;
     private final Set<Task> sorted;
 
     public ItemPriorityStorage(SortedSet<Task> sorted) {
+        this(sorted, new HashMap<>());
+    }
+
+    /**
+     * @param sorted  set to index items with start time
+     * @param storage underlying storage, see {@link StorageEngine}
+     */
+    public ItemPriorityStorage(SortedSet<Task> sorted, Map<Integer, T> storage) {
         this.sorted = sorted;
+        this.storage = storage;
+    }
+
+    @Override
+    public T get(Object key) {
+        return storage.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return storage.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return storage.size();
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        return storage.entrySet();
     }
 
     @Override
     public T remove(Object key) {
-        T taskForRemove = super.remove(key);
-        if (taskForRemove != null && taskForRemove.getStartTime() != null) {
+        T taskForRemove = storage.remove(key);
+        if (taskForRemove != null && taskForRemove.getStartEpochSecond() != Task.NO_TIME) {
             sorted.remove(taskForRemove);
         }
-        return super.remove(key);
+        return taskForRemove;
     }
 
     @Override
     public T put(Integer key, T value) {
-        if (value.getStartTime() != null) {
-            sorted.add(value);
-        }
-        return super.put(key, value);
+        T previous = storage.put(key, value);
+        reindex(previous, value);
+        return previous;
     }
 
+    /**
+     * Замена объекта: прежняя версия удаляется из набора по своему ключу, иначе после переноса
+     * задачи на другое время в наборе осталась бы устаревшая запись
+     */
     @Override
     public T replace(Integer key, T value) {
-        if (value.getStartTime() != null) {
-            sorted.remove(value);
+        if (!storage.containsKey(key)) return null;
+        T previous = storage.put(key, value);
+        reindex(previous, value);
+        return previous;
+    }
+
+    private void reindex(T previous, T value) {
+        if (previous != null && previous.getStartEpochSecond() != Task.NO_TIME) {
+            sorted.remove(previous);
+        }
+        if (value.getStartEpochSecond() != Task.NO_TIME) {
             sorted.add(value);
         }
-        return super.replace(key, value);
+    }
+
+    /**
+     * Добавление объекта, который уже находится в отсортированном наборе, например при массовой загрузке
+     *
+     * @param key   item id
+     * @param value item
+     */
+    void putUnindexed(Integer key, T value) {
+        storage.put(key, value);
     }
 }
@@ -0,0 +1,335 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Менеджер, который вместо перезаписи всего файла на каждую мутацию
+ * дописывает одну запись в журнал {@link ChangeLog}, по умолчанию {@link TaskJournal}. Полный снимок
+ * пишется при вызове {@link #checkpoint()} или фоновым сжатием журнала,
+ * см. {@link #scheduleCompaction(CompactionPolicy)}.
+ * <p>
+ * Мутации синхронизированы с фоновым сжатием: оно блокирует их только на время копирования
+ * объектов и переименования журнала, снимок пишется уже без блокировки.
+ * Перед изменением памяти мутация проверяет {@link ChangeLog#reserve(ItemType, Integer, int)}, что журнал
+ * примет запись: отклоненное изменение не остается в памяти.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 10:40
+ * @project java-kanban
+ */
+public class JournaledTaskManager extends FileBackedTaskManager implements Closeable {
+    private final ChangeLog journal;
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private ScheduledExecutorService compactor;
+    private volatile long journalStartedNanos;
+    private volatile RuntimeException compactionFailure;
+    private long compactions;
+    private boolean reserving;
+
+    public JournaledTaskManager(File file, IdGenerator idGenerator, HistoryManager historyManager) {
+        this(file, idGenerator, historyManager, CommitPolicy.osBuffered());
+    }
+
+    public JournaledTaskManager(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                CommitPolicy commitPolicy) {
+        this(file, idGenerator, historyManager, new TaskJournal(getJournalPath(file), commitPolicy));
+    }
+
+    protected JournaledTaskManager(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                   ChangeLog journal) {
+        super(file, idGenerator, historyManager);
+        this.journal = journal;
+    }
+
+    public JournaledTaskManager(File file,
+                                SortedSet<Task> prioritizedTasks,
+                                HistoryManager historyManager,
+                                ControllersHolder controllers) {
+        this(file, prioritizedTasks, historyManager, controllers, CommitPolicy.osBuffered());
+    }
+
+    public JournaledTaskManager(File file,
+                                SortedSet<Task> prioritizedTasks,
+                                HistoryManager historyManager,
+                                ControllersHolder controllers,
+                                CommitPolicy commitPolicy) {
+        this(file, prioritizedTasks, historyManager, controllers, new TaskJournal(getJournalPath(file), commitPolicy));
+    }
+
+    protected JournaledTaskManager(File file,
+                                   SortedSet<Task> prioritizedTasks,
+                                   HistoryManager historyManager,
+                                   ControllersHolder controllers,
+                                   ChangeLog journal) {
+        super(file, prioritizedTasks, historyManager, controllers);
+        this.journal = journal;
+    }
+
+    public static JournaledTaskManager loadFromFile(File file, IdGenerator idGenerator, HistoryManager historyManager) {
+        return loadFromFile(file, idGenerator, historyManager, CommitPolicy.osBuffered());
+    }
+
+    public static JournaledTaskManager loadFromFile(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                                    CommitPolicy commitPolicy) {
+        return loadFromFile(file, idGenerator, historyManager, commitPolicy, null);
+    }
+
+    /**
+     * Загрузка с ленивыми описаниями, см. {@link FileBackedTaskManager#loadFromFile(File, IdGenerator,
+     * HistoryManager, DescriptionStore)}
+     *
+     * @param descriptions store for descriptions, {@code null} to keep them on heap
+     */
+    public static JournaledTaskManager loadFromFile(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                                    CommitPolicy commitPolicy, DescriptionStore descriptions) {
+        LoadedBoard board = loadBoard(file, idGenerator, null, 0, descriptions);
+        JournaledTaskManager manager = new JournaledTaskManager(file, board.prioritizedTasks(),
+                historyManager, board.controllers(), commitPolicy);
+        manager.afterLoad(board);
+        return manager;
+    }
+
+    /**
+     * Запись полного снимка и очистка журнала
+     */
+    public void checkpoint() {
+        compactionLock.lock();
+        try {
+            synchronized (this) {
+                journal.release();
+                super.save();
+                journalStartedNanos = 0;
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Сжатие журнала без остановки мутаций. Под блокировкой захватываются только ссылки на хранимые объекты
+     * (см. {@link #captureUnifiedTaskList()}) и журнал переносится в {@link #getCompactingJournalPath(File)},
+     * новые изменения пишутся в новый журнал. Затем вне блокировки пишется снимок и перенесенный журнал
+     * удаляется. Записи нового журнала полностью описывают объекты, поэтому более новые описания,
+     * попавшие в снимок, при загрузке перекрываются ими же. При сбое до удаления перенесенный журнал
+     * применяется при загрузке повторно, что безопасно, так как записи идемпотентны.
+     */
+    public void compact() {
+        throwIfCompactionFailed();
+        compactionLock.lock();
+        try {
+            Path compactingJournalPath = getCompactingJournalPath(file);
+            Supplier<List<Task>> items;
+            synchronized (this) {
+                items = captureUnifiedTaskList();
+                journal.rotate(compactingJournalPath);
+                journalStartedNanos = 0;
+            }
+            writeSnapshot(items.get());
+            Files.deleteIfExists(compactingJournalPath);
+            compactions++;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot remove compacted journal", e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Запуск фонового сжатия журнала по порогам размера и возраста
+     *
+     * @param policy compaction thresholds
+     */
+    public synchronized void scheduleCompaction(CompactionPolicy policy) {
+        if (compactor != null) {
+            compactor.shutdown();
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("task-journal-compactor").daemon().factory());
+        compactor.scheduleWithFixedDelay(() -> compactIfNeeded(policy),
+                policy.checkIntervalMillis(), policy.checkIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Количество выполненных сжатий журнала
+     *
+     * @return compactions count
+     */
+    public long getCompactions() {
+        compactionLock.lock();
+        try {
+            return compactions;
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private void compactIfNeeded(CompactionPolicy policy) {
+        if (compactionFailure != null) return;
+        try {
+            Path journalPath = getJournalPath(file);
+            long journalBytes = Files.exists(journalPath) ? Files.size(journalPath) : 0;
+            long startedNanos = journalStartedNanos;
+            long ageMillis = startedNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            if (policy.isExceeded(journalBytes, ageMillis)) {
+                compact();
+            }
+        } catch (IOException e) {
+            compactionFailure = new ManagerSaveException("Cannot check journal size", e);
+        } catch (RuntimeException e) {
+            compactionFailure = e;
+        }
+    }
+
+    private void throwIfCompactionFailed() {
+        if (compactionFailure != null) {
+            throw compactionFailure;
+        }
+    }
+
+    /**
+     * Принудительная фиксация записей, накопленных политикой {@link CommitPolicy.Mode#GROUP}
+     * или ожидающих отложенной записи
+     */
+    public void commit() {
+        journal.commit();
+    }
+
+    public CommitStats getCommitStats() {
+        return journal.getStats();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (compactor != null) {
+                compactor.shutdown();
+            }
+        }
+        compactionLock.lock();
+        try {
+            journal.close();
+        } finally {
+            compactionLock.unlock();
+        }
+        flushHistory();
+        throwIfCompactionFailed();
+    }
+
+    @Override
+    protected void afterLoad(LoadedBoard board) {
+        super.afterLoad(board);
+        if (board.journalRecords() > 0) {
+            journalStartedNanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public synchronized Task createTask(Task task) {
+        return reserved(ItemType.TASK, null, 1, () -> super.createTask(task));
+    }
+
+    @Override
+    public synchronized void updateTask(Task task) {
+        reserved(ItemType.TASK, idOf(task), 1, () -> super.updateTask(task));
+    }
+
+    @Override
+    public synchronized void removeTaskById(Integer id) {
+        reserved(ItemType.TASK, id, 1, () -> super.removeTaskById(id));
+    }
+
+    @Override
+    public synchronized Epic createEpic(Epic epic) {
+        return reserved(ItemType.EPIC, null, 1, () -> super.createEpic(epic));
+    }
+
+    @Override
+    public synchronized void updateEpic(Epic epic) {
+        reserved(ItemType.EPIC, idOf(epic), 1, () -> super.updateEpic(epic));
+    }
+
+    @Override
+    public synchronized void removeEpicById(Integer id) {
+        int changes = findItem(ItemType.EPIC, id) instanceof Epic epic ? 1 + epic.getSubtaskIds().size() : 1;
+        reserved(ItemType.EPIC, id, changes, () -> super.removeEpicById(id));
+    }
+
+    @Override
+    public synchronized Subtask createSubtask(Subtask subtask) {
+        return reserved(ItemType.SUBTASK, null, 1, () -> super.createSubtask(subtask));
+    }
+
+    @Override
+    public synchronized void updateSubtask(Subtask subtask) {
+        reserved(ItemType.SUBTASK, idOf(subtask), 1, () -> super.updateSubtask(subtask));
+    }
+
+    @Override
+    public synchronized void removeSubtaskById(Integer id) {
+        reserved(ItemType.SUBTASK, id, 1, () -> super.removeSubtaskById(id));
+    }
+
+    /**
+     * Мутация с резервом места в журнале: журнал проверяется до изменения памяти. Вложенные мутации,
+     * например удаление подзадач при удалении эпика, входят в резерв внешней.
+     *
+     * @param type     type of changed item
+     * @param id       id of changed item, {@code null} for created item
+     * @param changes  count of changes the mutation writes
+     * @param mutation in-memory mutation followed by {@link #save(ItemType, Integer)}
+     * @return result of {@code mutation}
+     */
+    private <R> R reserved(ItemType type, Integer id, int changes, Supplier<R> mutation) {
+        if (reserving) return mutation.get();
+        journal.reserve(type, id, changes);
+        reserving = true;
+        try {
+            return mutation.get();
+        } finally {
+            reserving = false;
+            journal.endReservation();
+        }
+    }
+
+    private void reserved(ItemType type, Integer id, int changes, Runnable mutation) {
+        reserved(type, id, changes, () -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    private static Integer idOf(Task task) {
+        return task == null ? null : task.getId();
+    }
+
+    @Override
+    protected void save(ItemType type, Integer id) {
+        if (id == null) return;
+        if (journalStartedNanos == 0) {
+            journalStartedNanos = System.nanoTime();
+        }
+        Task item = findItem(type, id);
+        if (item != null) {
+            journal.put(item);
+        } else {
+            journal.remove(type, id);
+        }
+    }
+}
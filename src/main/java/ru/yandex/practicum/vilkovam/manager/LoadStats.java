@@ -0,0 +1,25 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+/**
+ * Статистика загрузки доски из файла. Время загрузки делится на этапы: разбор снимка, который
+ * при параллельной загрузке идет на пуле потоков, и последовательные слияние кусков, применение
+ * журнала и построение контроллеров.
+ *
+ * @param lines        count of read snapshot lines and journal records
+ * @param bytes        size of read files
+ * @param elapsedNanos load time
+ * @param parseNanos   snapshot parsing time, for sequential load includes putting items into storages
+ * @param mergeNanos   time to merge parsed chunks in file order and put them into storages, parallel load only
+ * @param journalNanos journal replay time
+ * @param finishNanos  time to build controllers and recompute epics
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 13:20
+ * @project java-kanban
+ */
+public record LoadStats(long lines, long bytes, long elapsedNanos, long parseNanos, long mergeNanos,
+                        long journalNanos, long finishNanos) {
+
+    public double linesPerSecond() {
+        return elapsedNanos == 0 ? 0 : lines * 1_000_000_000.0 / elapsedNanos;
+    }
+}
@@ -0,0 +1,621 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Хранилище контроллера вне кучи. Каждый объект - запись фиксированной длины {@value #RECORD_SIZE} байт
+ * (id, тип, статус, время начала и окончания, продолжительность, id эпика, ссылки на строки) в буфере записей,
+ * названия, описания и списки подзадач эпиков - в отдельном буфере строк. В куче остается индекс
+ * {@code id -> номер записи}: массив примитивов, который растет по тому же правилу плотности, что
+ * и {@link IdIndexedStorage#fitsIndex(int, int)}, и {@code HashMap} для id, не попавших в массив.
+ * Сборщик мусора не просматривает данные доски. Объекты {@link Task}/{@link Epic}/{@link Subtask}
+ * создаются только при чтении.
+ * <p>
+ * Буферы - прямые {@link ByteBuffer} или, если указан файл, {@link MappedByteBuffer} над файлом записей
+ * и файлом строк {@code <файл>.strings}. Открытие существующего файла восстанавливает хранилище без разбора
+ * объектов. Изменения попадают в файл через страничный кэш ОС, на диск - при {@link #force()} и {@link #close()};
+ * при сбое посреди записи объекта файл может остаться несогласованным. Размер каждого буфера - до 2 ГБ.
+ * <p>
+ * Удаленная запись помечается и освобождается уплотнением, как в {@link ColumnarStorage}; обход идет
+ * в порядке добавления.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 17:20
+ * @project java-kanban
+ */
+public class OffHeapStorage<T extends Task> extends AbstractMap<Integer, T> implements Closeable {
+    public static final int RECORD_SIZE = 64;
+    private static final int MAGIC = 0x4B424F48;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int MIN_ROWS = 64;
+    private static final int NO_REF = -1;
+    private static final byte REMOVED = -1;
+    private static final byte NO_STATUS = -1;
+    private static final int HAS_START = 1;
+    private static final int HAS_DURATION = 1 << 1;
+    private static final int HAS_END = 1 << 2;
+    private static final int HAS_EPIC = 1 << 3;
+    private static final ItemType[] TYPES = ItemType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private static final int ID = 0;
+    private static final int TYPE = 4;
+    private static final int STATUS = 5;
+    private static final int FLAGS = 6;
+    private static final int START_SECONDS = 8;
+    private static final int START_NANOS = 16;
+    private static final int DURATION_NANOS = 20;
+    private static final int DURATION_SECONDS = 24;
+    private static final int END_SECONDS = 32;
+    private static final int END_NANOS = 40;
+    private static final int EPIC_ID = 44;
+    private static final int NAME = 48;
+    private static final int DESCRIPTION = 52;
+    private static final int SUBTASKS = 56;
+
+    private static final int ROW_COUNT = 8;
+    private static final int ARENA_USED = 4;
+    private static final int ARENA_GARBAGE = 8;
+
+    private final Region records;
+    private final Region arena;
+    private int rowCount;
+    private int size;
+    private int arenaUsed;
+    private int arenaGarbage;
+    private int[] idToRow = emptyIndex(MIN_ROWS);
+    private final Map<Integer, Integer> sparseRows = new HashMap<>();
+    private int modCount;
+
+    /**
+     * Хранилище в прямых буферах, без файла
+     */
+    public OffHeapStorage() {
+        this.records = new Region(null, HEADER_SIZE + (long) MIN_ROWS * RECORD_SIZE);
+        this.arena = new Region(null, HEADER_SIZE + 1024L);
+        initHeaders();
+    }
+
+    /**
+     * Хранилище над файлом. Если файл уже содержит данные, они становятся содержимым хранилища.
+     *
+     * @param path records file, strings are kept in {@code path + ".strings"}
+     */
+    public OffHeapStorage(Path path) {
+        Path stringsPath = path.resolveSibling(path.getFileName() + ".strings");
+        this.records = Region.map(path, HEADER_SIZE + (long) MIN_ROWS * RECORD_SIZE);
+        this.arena = Region.map(stringsPath, HEADER_SIZE + 1024L);
+        ByteBuffer header = records.buffer;
+        if (header.getInt(0) == 0) {
+            initHeaders();
+            return;
+        }
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || arena.buffer.getInt(0) != MAGIC) {
+            releaseRegions();
+            throw new ManagerSaveException("Unsupported off-heap storage file " + path);
+        }
+        rowCount = header.getInt(ROW_COUNT);
+        arenaUsed = arena.buffer.getInt(ARENA_USED);
+        arenaGarbage = arena.buffer.getInt(ARENA_GARBAGE);
+        if (rowCount < 0 || recordOffset(rowCount) > records.buffer.capacity()
+                || arenaUsed < HEADER_SIZE || arenaUsed > arena.buffer.capacity()) {
+            releaseRegions();
+            throw new ManagerSaveException("Corrupted off-heap storage file " + path);
+        }
+        for (int row = 0; row < rowCount; row++) {
+            if (type(row) != REMOVED) {
+                bind(records.buffer.getInt(recordOffset(row) + ID), row);
+                size++;
+            }
+        }
+    }
+
+    @Override
+    public T get(Object key) {
+        if (!(key instanceof Integer id)) return null;
+        int row = rowOf(id);
+        return row < 0 ? null : materialize(row);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && rowOf(id) >= 0;
+    }
+
+    @Override
+    public T put(Integer key, T value) {
+        if (value == null) throw new NullPointerException("value");
+        if (value.getClass() != Task.class && value.getClass() != Epic.class && value.getClass() != Subtask.class) {
+            throw new IllegalArgumentException("Unsupported item class " + value.getClass().getName());
+        }
+        int id = key;
+        int row = rowOf(id);
+        T previous = null;
+        if (row >= 0) {
+            previous = materialize(row);
+            release(row);
+            write(row, id, value);
+        } else {
+            row = rowCount;
+            records.ensureCapacity(recordOffset(row + 1));
+            write(row, id, value);
+            rowCount++;
+            records.buffer.putInt(ROW_COUNT, rowCount);
+            bind(id, row);
+            size++;
+            modCount++;
+        }
+        compactIfNeeded();
+        return previous;
+    }
+
+    @Override
+    public T remove(Object key) {
+        if (!(key instanceof Integer id)) return null;
+        int row = rowOf(id);
+        if (row < 0) return null;
+        T removed = removeRow(row);
+        compactIfNeeded();
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        rowCount = 0;
+        size = 0;
+        idToRow = emptyIndex(MIN_ROWS);
+        sparseRows.clear();
+        initHeaders();
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, T>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Размер буферов вне кучи
+     *
+     * @return capacity of records and strings buffers in bytes
+     */
+    public long getOffHeapBytes() {
+        return (long) records.buffer.capacity() + arena.buffer.capacity();
+    }
+
+    /**
+     * Запись изменений файла на диск. Для хранилища без файла ничего не делает.
+     */
+    public void force() {
+        records.force();
+        arena.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            force();
+        } finally {
+            releaseRegions();
+        }
+    }
+
+    /**
+     * Освобождение буферов и файлов без записи на диск; вызывается и из конструктора
+     */
+    private void releaseRegions() {
+        try {
+            records.close();
+        } finally {
+            arena.close();
+        }
+    }
+
+    private void initHeaders() {
+        records.buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(ROW_COUNT, 0);
+        arena.buffer.putInt(0, MAGIC).putInt(ARENA_USED, HEADER_SIZE).putInt(ARENA_GARBAGE, 0);
+        arenaUsed = HEADER_SIZE;
+        arenaGarbage = 0;
+    }
+
+    /**
+     * Строки пишутся до записи объекта, счетчик записей - после, чтобы прерванное добавление
+     * не оставило в файле запись со ссылками на незаписанные строки
+     */
+    private void write(int row, int id, T value) {
+        int name = addString(value.getName());
+        int description = addString(value.getDescription());
+        int subtasks = value instanceof Epic epic ? addInts(epic.getSubtaskIds()) : NO_REF;
+        ByteBuffer buffer = records.buffer;
+        int offset = recordOffset(row);
+        int flags = 0;
+        LocalDateTime start = value.getStartTime();
+        Duration duration = value.getDuration();
+        LocalDateTime end = value instanceof Epic epic ? epic.getEndTime() : null;
+        Integer epicId = value instanceof Subtask subtask ? subtask.getEpicId() : null;
+        if (start != null) {
+            flags |= HAS_START;
+            buffer.putLong(offset + START_SECONDS, start.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(offset + START_NANOS, start.getNano());
+        }
+        if (duration != null) {
+            flags |= HAS_DURATION;
+            buffer.putLong(offset + DURATION_SECONDS, duration.getSeconds());
+            buffer.putInt(offset + DURATION_NANOS, duration.getNano());
+        }
+        if (end != null) {
+            flags |= HAS_END;
+            buffer.putLong(offset + END_SECONDS, end.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(offset + END_NANOS, end.getNano());
+        }
+        if (epicId != null) {
+            flags |= HAS_EPIC;
+            buffer.putInt(offset + EPIC_ID, epicId);
+        }
+        buffer.putInt(offset + ID, id);
+        buffer.put(offset + STATUS, value.getStatus() == null ? NO_STATUS : (byte) value.getStatus().ordinal());
+        buffer.putShort(offset + FLAGS, (short) flags);
+        buffer.putInt(offset + NAME, name);
+        buffer.putInt(offset + DESCRIPTION, description);
+        buffer.putInt(offset + SUBTASKS, subtasks);
+        buffer.put(offset + TYPE, (byte) value.getType().ordinal());
+    }
+
+    @SuppressWarnings("unchecked")
+    private T materialize(int row) {
+        ByteBuffer buffer = records.buffer;
+        int offset = recordOffset(row);
+        int flags = buffer.getShort(offset + FLAGS);
+        int id = buffer.getInt(offset + ID);
+        String name = getString(buffer.getInt(offset + NAME));
+        String description = getString(buffer.getInt(offset + DESCRIPTION));
+        byte statusOrdinal = buffer.get(offset + STATUS);
+        TaskStatus status = statusOrdinal == NO_STATUS ? null : STATUSES[statusOrdinal];
+        Duration duration = (flags & HAS_DURATION) == 0 ? null
+                : Duration.ofSeconds(buffer.getLong(offset + DURATION_SECONDS), buffer.getInt(offset + DURATION_NANOS));
+        LocalDateTime start = (flags & HAS_START) == 0 ? null
+                : toTime(buffer.getLong(offset + START_SECONDS), buffer.getInt(offset + START_NANOS));
+        Task task = switch (TYPES[buffer.get(offset + TYPE)]) {
+            case TASK -> new Task(id, name, description, status, duration, start);
+            case SUBTASK -> new Subtask(id, name, description, status,
+                    (flags & HAS_EPIC) == 0 ? null : buffer.getInt(offset + EPIC_ID), duration, start);
+            case EPIC -> {
+                Epic epic = new Epic(id, name, description, status, getInts(buffer.getInt(offset + SUBTASKS)));
+                epic.setDuration(duration);
+                epic.setStartTime(start);
+                if ((flags & HAS_END) != 0) {
+                    epic.setEndTime(toTime(buffer.getLong(offset + END_SECONDS), buffer.getInt(offset + END_NANOS)));
+                }
+                yield epic;
+            }
+        };
+        return (T) task;
+    }
+
+    private T removeRow(int row) {
+        T removed = materialize(row);
+        release(row);
+        records.buffer.put(recordOffset(row) + TYPE, REMOVED);
+        unbind(removed.getId());
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    private void release(int row) {
+        int offset = recordOffset(row);
+        releaseRef(records.buffer.getInt(offset + NAME), 1);
+        releaseRef(records.buffer.getInt(offset + DESCRIPTION), 1);
+        releaseRef(records.buffer.getInt(offset + SUBTASKS), Integer.BYTES);
+    }
+
+    /**
+     * Уплотнение: живые записи сдвигаются к началу с сохранением порядка, живые строки переписываются
+     * через временный прямой буфер в начало буфера строк
+     */
+    private void compactIfNeeded() {
+        boolean rowsSparse = rowCount > MIN_ROWS && rowCount - size > rowCount / 2;
+        boolean arenaSparse = arenaGarbage > 64 * 1024 && arenaGarbage > (arenaUsed - HEADER_SIZE) / 2;
+        if (!rowsSparse && !arenaSparse) return;
+        ByteBuffer buffer = records.buffer;
+        ByteBuffer live = ByteBuffer.allocateDirect(arenaUsed - arenaGarbage);
+        int target = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (type(row) == REMOVED) continue;
+            int from = recordOffset(row);
+            int to = recordOffset(target);
+            if (from != to) {
+                buffer.put(to, buffer, from, RECORD_SIZE);
+            }
+            buffer.putInt(to + NAME, moveRef(buffer.getInt(to + NAME), 1, live));
+            buffer.putInt(to + DESCRIPTION, moveRef(buffer.getInt(to + DESCRIPTION), 1, live));
+            buffer.putInt(to + SUBTASKS, moveRef(buffer.getInt(to + SUBTASKS), Integer.BYTES, live));
+            bind(buffer.getInt(to + ID), target);
+            target++;
+        }
+        arena.buffer.put(HEADER_SIZE, live, 0, live.position());
+        arenaUsed = HEADER_SIZE + live.position();
+        arenaGarbage = 0;
+        arena.buffer.putInt(ARENA_USED, arenaUsed).putInt(ARENA_GARBAGE, 0);
+        rowCount = target;
+        buffer.putInt(ROW_COUNT, rowCount);
+        modCount++;
+    }
+
+    private int moveRef(int ref, int elementSize, ByteBuffer live) {
+        if (ref == NO_REF) return NO_REF;
+        int length = Integer.BYTES + arena.buffer.getInt(ref) * elementSize;
+        int moved = HEADER_SIZE + live.position();
+        live.put(live.position(), arena.buffer, ref, length);
+        live.position(live.position() + length);
+        return moved;
+    }
+
+    private int addString(String value) {
+        if (value == null) return NO_REF;
+        byte[] bytes = value.getBytes(UTF_8);
+        int offset = allocate(Integer.BYTES + bytes.length);
+        arena.buffer.putInt(offset, bytes.length).put(offset + Integer.BYTES, bytes);
+        return offset;
+    }
+
+    private String getString(int ref) {
+        if (ref == NO_REF) return null;
+        byte[] bytes = new byte[arena.buffer.getInt(ref)];
+        arena.buffer.get(ref + Integer.BYTES, bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private int addInts(List<Integer> values) {
+        if (values.isEmpty()) return NO_REF;
+        int offset = allocate(Integer.BYTES * (1 + values.size()));
+        ByteBuffer buffer = arena.buffer;
+        buffer.putInt(offset, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            buffer.putInt(offset + Integer.BYTES * (i + 1), values.get(i));
+        }
+        return offset;
+    }
+
+    private List<Integer> getInts(int ref) {
+        if (ref == NO_REF) return List.of();
+        int count = arena.buffer.getInt(ref);
+        List<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(arena.buffer.getInt(ref + Integer.BYTES * (i + 1)));
+        }
+        return values;
+    }
+
+    private int allocate(int length) {
+        long required = (long) arenaUsed + length;
+        arena.ensureCapacity(required);
+        int offset = arenaUsed;
+        arenaUsed = (int) required;
+        arena.buffer.putInt(ARENA_USED, arenaUsed);
+        return offset;
+    }
+
+    private void releaseRef(int ref, int elementSize) {
+        if (ref == NO_REF) return;
+        arenaGarbage += Integer.BYTES + arena.buffer.getInt(ref) * elementSize;
+        arena.buffer.putInt(ARENA_GARBAGE, arenaGarbage);
+    }
+
+    private byte type(int row) {
+        return records.buffer.get(recordOffset(row) + TYPE);
+    }
+
+    private static int recordOffset(int row) {
+        return HEADER_SIZE + row * RECORD_SIZE;
+    }
+
+    private static LocalDateTime toTime(long seconds, int nanos) {
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private int rowOf(int id) {
+        if (id > 0 && id < idToRow.length) return idToRow[id];
+        Integer row = sparseRows.get(id);
+        return row == null ? -1 : row;
+    }
+
+    private void bind(int id, int row) {
+        if (id >= idToRow.length && IdIndexedStorage.fitsIndex(id, size)) {
+            growIndex(id);
+        }
+        if (id > 0 && id < idToRow.length) {
+            idToRow[id] = row;
+        } else {
+            sparseRows.put(id, row);
+        }
+    }
+
+    private void unbind(int id) {
+        if (id > 0 && id < idToRow.length) {
+            idToRow[id] = -1;
+        } else {
+            sparseRows.remove(id);
+        }
+    }
+
+    private void growIndex(int id) {
+        int oldLength = idToRow.length;
+        idToRow = Arrays.copyOf(idToRow, Math.max(id + 1, oldLength + (oldLength >> 1)));
+        Arrays.fill(idToRow, oldLength, idToRow.length, -1);
+        Iterator<Entry<Integer, Integer>> iterator = sparseRows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<Integer, Integer> entry = iterator.next();
+            int key = entry.getKey();
+            if (key > 0 && key < idToRow.length) {
+                idToRow[key] = entry.getValue();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static int[] emptyIndex(int capacity) {
+        int[] index = new int[capacity];
+        Arrays.fill(index, -1);
+        return index;
+    }
+
+    /**
+     * Буфер, растущий вдвое: прямой с копированием содержимого или отображение файла большего размера
+     */
+    private static final class Region {
+        private static final long MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+        private final Path path;
+        private final FileChannel channel;
+        private ByteBuffer buffer;
+
+        private Region(Path path, FileChannel channel, ByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private Region(Path path, long capacity) {
+            this(path, null, ByteBuffer.allocateDirect((int) capacity));
+        }
+
+        private static Region map(Path path, long minCapacity) {
+            try {
+                FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+                try {
+                    long capacity = Math.max(channel.size(), minCapacity);
+                    if (capacity > MAX_CAPACITY) {
+                        throw new ManagerSaveException("Off-heap storage file is too large: " + path);
+                    }
+                    return new Region(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+            } catch (IOException e) {
+                throw new ManagerSaveException("Cannot map off-heap storage file " + path, e);
+            }
+        }
+
+        private void ensureCapacity(long required) {
+            if (required <= buffer.capacity()) return;
+            if (required > MAX_CAPACITY) throw new IllegalStateException("Off-heap buffer is full");
+            long capacity = Math.min(MAX_CAPACITY, Math.max(required, buffer.capacity() * 2L));
+            if (channel == null) {
+                ByteBuffer grown = ByteBuffer.allocateDirect((int) capacity);
+                grown.put(0, buffer, 0, buffer.capacity());
+                buffer = grown;
+                return;
+            }
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Cannot grow off-heap storage file " + path, e);
+            }
+        }
+
+        private void force() {
+            if (buffer instanceof MappedByteBuffer mapped && channel != null && channel.isOpen()) {
+                mapped.force();
+            }
+        }
+
+        private void close() {
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ManagerSaveException("Cannot close off-heap storage file " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Обход живых записей в порядке добавления. Удаление через итератор не уплотняет буферы.
+     */
+    private class EntryIterator implements Iterator<Entry<Integer, T>> {
+        private int expectedModCount = modCount;
+        private int nextRow = advance(0);
+        private int lastRow = -1;
+
+        @Override
+        public boolean hasNext() {
+            return nextRow < rowCount;
+        }
+
+        @Override
+        public Entry<Integer, T> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (nextRow >= rowCount) throw new NoSuchElementException();
+            lastRow = nextRow;
+            nextRow = advance(nextRow + 1);
+            T item = materialize(lastRow);
+            return new SimpleImmutableEntry<>(item.getId(), item);
+        }
+
+        @Override
+        public void remove() {
+            if (lastRow < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            removeRow(lastRow);
+            expectedModCount = modCount;
+            lastRow = -1;
+        }
+
+        private int advance(int from) {
+            int row = from;
+            while (row < rowCount && type(row) == REMOVED) {
+                row++;
+            }
+            return row;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.stream.Stream;
+
+/**
+ * Менеджер, контроллеры которого хранят объекты в {@link OffHeapStorage} над файлами
+ * {@code tasks.bin}, {@code epics.bin} и {@code subtasks.bin} в каталоге доски. Повторное открытие каталога
+ * восстанавливает доску без загрузки снимка: индексы контроллеров и набор приоритетов строятся
+ * по записям хранилищ. Набор приоритетов хранит только ключи и время окончания задач, сами задачи
+ * читаются из хранилищ при обходе набора.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 17:55
+ * @project java-kanban
+ */
+public class OffHeapTaskManager extends InMemoryTaskManager implements Closeable {
+    private final List<OffHeapStorage<?>> storages;
+
+    private OffHeapTaskManager(SortedSet<Task> prioritizedTasks, HistoryManager historyManager,
+                               ControllersHolder controllers, List<OffHeapStorage<?>> storages) {
+        super(prioritizedTasks, historyManager, controllers);
+        this.storages = storages;
+    }
+
+    /**
+     * Открытие доски в каталоге. Если каталог пуст, создается пустая доска.
+     *
+     * @param directory      board directory
+     * @param idGenerator    id generator, continues after the largest stored id
+     * @param historyManager history manager
+     * @return manager, must be closed to write changes to disk
+     */
+    public static OffHeapTaskManager open(Path directory, IdGenerator idGenerator, HistoryManager historyManager) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot create board directory " + directory, e);
+        }
+        OffHeapStorage<Task> tasks = new OffHeapStorage<>(directory.resolve("tasks.bin"));
+        OffHeapStorage<Epic> epics = new OffHeapStorage<>(directory.resolve("epics.bin"));
+        OffHeapStorage<Subtask> subtasks = new OffHeapStorage<>(directory.resolve("subtasks.bin"));
+        List<Task> loadedTasks = List.copyOf(tasks.values());
+        List<Epic> loadedEpics = List.copyOf(epics.values());
+        List<Subtask> loadedSubtasks = List.copyOf(subtasks.values());
+
+        TaskIntervalTree prioritizedTasks = TaskIntervalTree.over(tasks, subtasks);
+        Stream.concat(loadedTasks.stream(), loadedSubtasks.stream())
+                .filter(task -> task.getStartEpochSecond() != Task.NO_TIME)
+                .forEach(prioritizedTasks::add);
+        idGenerator.setNextId(Stream.of(tasks.keySet(), epics.keySet(), subtasks.keySet())
+                .flatMap(Set::stream)
+                .mapToInt(Integer::intValue)
+                .max()
+                .orElse(0) + 1);
+
+        ControllersHolder controllers = new ControllersHolder(
+                new TaskController<>(idGenerator, new ItemPriorityStorage<>(prioritizedTasks, tasks), Task::new,
+                        loadedTasks),
+                new EpicController(idGenerator, epics, Epic::new, loadedEpics),
+                new SubtaskController(idGenerator, new ItemPriorityStorage<>(prioritizedTasks, subtasks), Subtask::new,
+                        loadedSubtasks));
+        return new OffHeapTaskManager(prioritizedTasks, historyManager, controllers, List.of(tasks, epics, subtasks));
+    }
+
+    /**
+     * Запись изменений на диск без закрытия файлов
+     */
+    public void force() {
+        storages.forEach(OffHeapStorage::force);
+    }
+
+    @Override
+    public void close() {
+        storages.forEach(OffHeapStorage::close);
+    }
+}
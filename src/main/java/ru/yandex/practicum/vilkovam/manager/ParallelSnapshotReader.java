@@ -0,0 +1,287 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.util.CsvTaskParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Параллельное чтение CSV-снимка. Файл делится на куски по байтам, границы записей
+ * находятся по четности кавычек: перевод строки вне кавычек завершает запись.
+ * Куски разбираются на {@link ForkJoinPool}, затем результаты сливаются в порядке файла,
+ * задачи сортируются по времени начала, подзадачи связываются с эпиками. Эпики пересчитываются
+ * так же, как после последовательной загрузки, в {@link TaskFileLoader#finish(IdGenerator)}.
+ * <p>
+ * Байты {@code '"'} и {@code '\n'} не встречаются внутри многобайтовых символов UTF-8,
+ * поэтому деление по байтам безопасно.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 17:20
+ * @project java-kanban
+ */
+class ParallelSnapshotReader {
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelSnapshotReader() {
+    }
+
+    /**
+     * Чтение снимка на пуле потоков
+     *
+     * @param path      CSV snapshot
+     * @param pool      pool to run parsing on
+     * @param chunkSize minimal chunk size in bytes
+     * @return parsed items in file order, epics are linked to subtasks
+     */
+    static Snapshot read(Path path, ForkJoinPool pool, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            long size = channel.size();
+            int chunks = (int) Math.max(1, Math.min((long) pool.getParallelism() * CHUNKS_PER_THREAD,
+                    size / chunkSize));
+            return pool.invoke(ForkJoinTask.adapt(() -> read(channel, size, chunks)));
+        }
+    }
+
+    private static Snapshot read(FileChannel channel, long size, int chunks) {
+        long start = System.nanoTime();
+        List<ForkJoinTask<QuoteScan>> scans = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long from = size * i / chunks;
+            long to = size * (i + 1) / chunks;
+            scans.add(ForkJoinTask.adapt(() -> scan(channel, from, to)));
+        }
+        ForkJoinTask.invokeAll(scans);
+
+        List<Long> starts = new ArrayList<>(chunks);
+        starts.add(0L);
+        int quoted = 0;
+        for (int i = 0; i < chunks; i++) {
+            QuoteScan scan = scans.get(i).join();
+            if (i > 0 && scan.firstNewline()[quoted] >= 0) {
+                starts.add(scan.firstNewline()[quoted] + 1);
+            }
+            quoted ^= scan.parity();
+        }
+
+        List<ForkJoinTask<Chunk>> parsers = new ArrayList<>(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            long from = starts.get(i);
+            long to = i + 1 < starts.size() ? starts.get(i + 1) : size;
+            boolean header = i == 0;
+            parsers.add(ForkJoinTask.adapt(() -> parse(channel, from, to, header)));
+        }
+        ForkJoinTask.invokeAll(parsers);
+
+        List<Chunk> parsed = new ArrayList<>(parsers.size());
+        for (ForkJoinTask<Chunk> parser : parsers) {
+            parsed.add(parser.join());
+        }
+        return merge(parsed, System.nanoTime() - start);
+    }
+
+    /**
+     * Подсчет кавычек в куске и поиск первого перевода строки при четном и нечетном числе кавычек перед ним
+     */
+    private static QuoteScan scan(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long[] firstNewline = {-1, -1};
+        int parity = 0;
+        long position = from;
+        while (position < to) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '"') {
+                    parity ^= 1;
+                } else if (bytes[i] == '\n' && firstNewline[parity] < 0) {
+                    firstNewline[parity] = position + i;
+                }
+            }
+            position += read;
+        }
+        return new QuoteScan(parity, firstNewline);
+    }
+
+    private static Chunk parse(FileChannel channel, long from, long to, boolean header) {
+        CsvTaskParser parser = new CsvTaskParser(new InputStreamReader(new RangeInputStream(channel, from, to), UTF_8));
+        Chunk chunk = new Chunk();
+        if (header && parser.hasNext()) {
+            parser.endRecord();
+        }
+        while (parser.hasNext()) {
+            Task task = parser.readTask();
+            if (task == null) {
+                throw new IllegalArgumentException("Wrong columns count in record " + (chunk.lines + 1)
+                        + " of chunk at byte " + from);
+            }
+            chunk.add(task);
+        }
+        return chunk;
+    }
+
+    /**
+     * Слияние кусков в порядке файла. Карты каждого типа, индекс подзадач эпиков и отсортированный
+     * список строятся параллельно; id в снимке уникальны, так как он записывается из карт менеджера.
+     */
+    private static Snapshot merge(List<Chunk> chunks, long parseNanos) {
+        long start = System.nanoTime();
+        int tasksCount = 0;
+        int epicsCount = 0;
+        int subtasksCount = 0;
+        int maxId = 0;
+        long lines = 0;
+        for (Chunk chunk : chunks) {
+            tasksCount += chunk.tasks.size();
+            epicsCount += chunk.epics.size();
+            subtasksCount += chunk.subtasks.size();
+            maxId = Math.max(maxId, chunk.maxId);
+            lines += chunk.lines;
+        }
+        Map<Integer, Task> idToTask = HashMap.newHashMap(tasksCount);
+        Map<Integer, Epic> idToEpic = HashMap.newHashMap(epicsCount);
+        Map<Integer, Subtask> idToSubtask = HashMap.newHashMap(subtasksCount);
+        Map<Integer, List<Integer>> epicToSubtaskIds = HashMap.newHashMap(epicsCount);
+        Task[] timed = new Task[tasksCount + subtasksCount];
+        int[] timedCount = new int[1];
+        ForkJoinTask.invokeAll(
+                ForkJoinTask.adapt(() -> chunks.forEach(chunk ->
+                        chunk.tasks.forEach(task -> idToTask.put(task.getId(), task)))),
+                ForkJoinTask.adapt(() -> chunks.forEach(chunk ->
+                        chunk.epics.forEach(epic -> idToEpic.put(epic.getId(), epic)))),
+                ForkJoinTask.adapt(() -> chunks.forEach(chunk ->
+                        chunk.subtasks.forEach(subtask -> idToSubtask.put(subtask.getId(), subtask)))),
+                ForkJoinTask.adapt(() -> chunks.forEach(chunk ->
+                        chunk.epicToSubtaskIds.forEach((epicId, ids) ->
+                                epicToSubtaskIds.computeIfAbsent(epicId, k -> new ArrayList<>()).addAll(ids)))),
+                ForkJoinTask.adapt(() -> {
+                    for (Chunk chunk : chunks) {
+                        for (Task task : chunk.tasks) {
+                            if (task.getStartEpochSecond() != Task.NO_TIME) timed[timedCount[0]++] = task;
+                        }
+                        for (Subtask subtask : chunk.subtasks) {
+                            if (subtask.getStartEpochSecond() != Task.NO_TIME) timed[timedCount[0]++] = subtask;
+                        }
+                    }
+                }));
+        Task[] sorted = Arrays.copyOf(timed, timedCount[0]);
+        Arrays.parallelSort(sorted, TaskIntervalTree.PRIORITY_ORDER);
+
+        Map<Integer, List<Integer>> orphanSubtaskIds = new HashMap<>();
+        epicToSubtaskIds.forEach((epicId, ids) -> {
+            if (!idToEpic.containsKey(epicId)) orphanSubtaskIds.put(epicId, ids);
+        });
+
+        idToEpic.forEach((epicId, epic) -> {
+            epic.getSubtaskIds().clear();
+            epic.getSubtaskIds().addAll(epicToSubtaskIds.getOrDefault(epicId, List.of()));
+        });
+
+        return new Snapshot(idToTask, idToEpic, idToSubtask, Arrays.asList(sorted), orphanSubtaskIds, maxId, lines,
+                parseNanos, System.nanoTime() - start);
+    }
+
+    /**
+     * Результат чтения снимка
+     *
+     * @param idToTask          tasks
+     * @param idToEpic          epics with linked subtasks
+     * @param idToSubtask       subtasks
+     * @param prioritized       tasks and subtasks with start time, sorted by start time and id
+     * @param orphanSubtaskIds  subtasks of epics missing in snapshot, by epic id
+     * @param maxId             max read id
+     * @param lines             count of read records
+     * @param parseNanos        time to find chunk boundaries and parse chunks
+     * @param mergeNanos        time to merge chunks
+     */
+    record Snapshot(Map<Integer, Task> idToTask,
+                    Map<Integer, Epic> idToEpic,
+                    Map<Integer, Subtask> idToSubtask,
+                    List<Task> prioritized,
+                    Map<Integer, List<Integer>> orphanSubtaskIds,
+                    int maxId,
+                    long lines,
+                    long parseNanos,
+                    long mergeNanos) {
+    }
+
+    private record QuoteScan(int parity, long[] firstNewline) {
+    }
+
+    private static class Chunk {
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<Epic> epics = new ArrayList<>();
+        private final List<Subtask> subtasks = new ArrayList<>();
+        private final Map<Integer, List<Integer>> epicToSubtaskIds = new HashMap<>();
+        private int maxId;
+        private long lines;
+
+        private void add(Task task) {
+            maxId = Math.max(maxId, task.getId());
+            lines++;
+            switch (task.getType()) {
+                case TASK -> tasks.add(task);
+                case EPIC -> epics.add((Epic) task);
+                case SUBTASK -> {
+                    Subtask subtask = (Subtask) task;
+                    subtasks.add(subtask);
+                    if (subtask.getEpicId() != null) {
+                        epicToSubtaskIds.computeIfAbsent(subtask.getEpicId(), k -> new ArrayList<>()).add(subtask.getId());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Поток байтов из диапазона файла. Чтение по позиции не меняет позицию канала,
+     * поэтому один канал читается из нескольких потоков.
+     */
+    private static class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        private RangeInputStream(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.position = from;
+            this.end = to;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) return -1;
+            int length = (int) Math.min(len, end - position);
+            int read = channel.read(ByteBuffer.wrap(b, off, length), position);
+            if (read < 0) return -1;
+            position += read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * История просмотров, сохраняемая в файл. Каждый просмотр и удаление дописывается в конец
+ * файла записью из 5 байт: тип объекта ({@code -1} для удаления) и id. Записи копятся
+ * в буфере, поэтому чтение задачи не ждет диска. Когда записей становится заметно больше,
+ * чем объектов в истории, файл переписывается только с текущей историей в фоновом потоке:
+ * под блокировкой копируется только список истории и подменяется файл, записи, добавленные
+ * во время перезаписи, переносятся в новый файл. Неудачное сжатие не мешает чтению задач: временный файл
+ * удаляется, записи продолжают дописываться в прежний файл, а сжатие повторяется на следующем пороге.
+ * Если прежний файл не удается открыть снова, история перестает сохраняться.
+ * <p>
+ * После загрузки доски {@link #restore(BiFunction)} наполняет историю объектами доски
+ * в исходном порядке просмотров, без повторного чтения через {@code getXById}.
+ * Записи, не сброшенные на диск до сбоя, теряются: история - вспомогательные данные.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 21:10
+ * @project java-kanban
+ */
+public class PersistentHistoryManager implements HistoryManager, Closeable {
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 4096;
+    static final int RECORD_SIZE = 1 + Integer.BYTES;
+    private static final byte REMOVED = -1;
+    private static final int BUFFER_SIZE = 1 << 13;
+    private static final ItemType[] TYPES = ItemType.values();
+    private static final String BACKGROUND_COMPACTION_SUFFIX = ".compacting";
+
+    private final Path path;
+    private final HistoryManager delegate;
+    private final int compactionThreshold;
+    private Map<Integer, ItemType> restoredViews;
+    private DataOutputStream out;
+    private long records;
+    private long nextCompaction;
+    private int compactions;
+    private int failedCompactions;
+    private ExecutorService compactor;
+    private boolean compactionScheduled;
+    private ByteArrayOutputStream compactionTail;
+    private boolean persistenceStopped;
+
+    public PersistentHistoryManager(Path path, HistoryManager delegate) {
+        this(path, delegate, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public PersistentHistoryManager(Path path, HistoryManager delegate, int compactionThreshold) {
+        this.path = path;
+        this.delegate = delegate;
+        this.compactionThreshold = compactionThreshold;
+        try {
+            this.restoredViews = readViews(path);
+            this.records = Files.exists(path) ? Files.size(path) / RECORD_SIZE : 0;
+            this.out = openAppend(path);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot open history file " + path, e);
+        }
+        this.nextCompaction = compactionThreshold;
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        if (task == null || task.getId() == null) return;
+        delegate.add(task);
+        append((byte) task.getType().ordinal(), task.getId());
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        delegate.remove(id);
+        append(REMOVED, id);
+    }
+
+    /**
+     * Наполнение истории сохраненными просмотрами, от самого старого к самому новому.
+     * Объекты, которых больше нет на доске, пропускаются, после чего файл сжимается.
+     *
+     * @param lookup item lookup by type and id without history side effects
+     * @return restored items count
+     */
+    public synchronized int restore(BiFunction<ItemType, Integer, Task> lookup) {
+        int restored = 0;
+        for (Map.Entry<Integer, ItemType> view : restoredViews.entrySet()) {
+            Task task = lookup.apply(view.getValue(), view.getKey());
+            if (task != null) {
+                delegate.add(task);
+                restored++;
+            }
+        }
+        restoredViews = Map.of();
+        compact();
+        return restored;
+    }
+
+    /**
+     * Перезапись файла текущей историей в вызывающем потоке
+     */
+    public synchronized void compact() {
+        Path tempPath = getCompactionPath();
+        try {
+            List<Task> history = delegate.getHistory();
+            writeHistory(tempPath, history);
+            replaceFile(tempPath, history.size());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot compact history file " + path, e);
+        }
+    }
+
+    /**
+     * Сброс накопленных записей в файл
+     */
+    public synchronized void flush() {
+        if (persistenceStopped) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot write history file " + path, e);
+        }
+    }
+
+    /**
+     * Количество записей в файле, включая еще не сброшенные
+     *
+     * @return records count
+     */
+    public synchronized long getRecordCount() {
+        return records;
+    }
+
+    public synchronized int getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Количество фоновых сжатий, завершившихся ошибкой
+     *
+     * @return failed compactions count
+     */
+    public synchronized int getFailedCompactions() {
+        return failedCompactions;
+    }
+
+    /**
+     * Закрытие файла. Дожидается фонового сжатия, а если порог уже превышен, сжимает файл сразу.
+     */
+    @Override
+    public void close() {
+        ExecutorService runningCompactor;
+        synchronized (this) {
+            runningCompactor = compactor;
+            compactor = null;
+        }
+        if (runningCompactor != null) {
+            runningCompactor.shutdown();
+            try {
+                runningCompactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (persistenceStopped) return;
+            if (records >= nextCompaction) {
+                compact();
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new ManagerSaveException("Cannot close history file " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Запись в буфер файла. Сжатие при превышении порога только планируется в фоновом потоке.
+     */
+    private void append(byte type, int id) {
+        if (persistenceStopped) return;
+        try {
+            out.writeByte(type);
+            out.writeInt(id);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot write history file " + path, e);
+        }
+        if (compactionTail != null) {
+            compactionTail.write(type);
+            compactionTail.write(id >>> 24);
+            compactionTail.write(id >>> 16);
+            compactionTail.write(id >>> 8);
+            compactionTail.write(id);
+        }
+        if (++records >= nextCompaction && !compactionScheduled) {
+            compactionScheduled = true;
+            if (compactor == null) {
+                compactor = Executors.newSingleThreadExecutor(
+                        Thread.ofPlatform().name("history-compactor").daemon().factory());
+            }
+            compactor.execute(this::compactInBackground);
+        }
+    }
+
+    /**
+     * Фоновое сжатие: под блокировкой копируется история, файл пишется без блокировки,
+     * затем под блокировкой к нему дописываются записи, сделанные за это время, и он подменяет прежний.
+     * При ошибке временный файл удаляется, следующая попытка - через {@code compactionThreshold} записей.
+     */
+    private void compactInBackground() {
+        List<Task> history;
+        synchronized (this) {
+            history = delegate.getHistory();
+            compactionTail = new ByteArrayOutputStream();
+        }
+        Path tempPath = Path.of(path + BACKGROUND_COMPACTION_SUFFIX + FileBackedTaskManager.TEMP_FILE_SUFFIX);
+        try {
+            writeHistory(tempPath, history);
+            synchronized (this) {
+                byte[] tail = compactionTail.toByteArray();
+                Files.write(tempPath, tail, APPEND);
+                replaceFile(tempPath, history.size() + tail.length / RECORD_SIZE);
+            }
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                deleteTempFile(tempPath);
+                nextCompaction = records + compactionThreshold;
+                failedCompactions++;
+            }
+        } finally {
+            synchronized (this) {
+                compactionTail = null;
+                compactionScheduled = false;
+            }
+        }
+    }
+
+    private Path getCompactionPath() {
+        return Path.of(path + FileBackedTaskManager.TEMP_FILE_SUFFIX);
+    }
+
+    private static void writeHistory(Path tempPath, List<Task> history) throws IOException {
+        try (DataOutputStream temp = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempPath), BUFFER_SIZE))) {
+            for (int i = history.size() - 1; i >= 0; i--) {
+                Task task = history.get(i);
+                temp.writeByte(task.getType().ordinal());
+                temp.writeInt(task.getId());
+            }
+        }
+    }
+
+    /**
+     * Подмена файла сжатой копией; вызывается под блокировкой. Если подменить файл не удалось,
+     * записи снова дописываются в прежний файл.
+     */
+    private void replaceFile(Path tempPath, long newRecords) throws IOException {
+        try {
+            out.close();
+            try {
+                Files.move(tempPath, path, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            reopen();
+            throw e;
+        }
+        FileBackedTaskManager.forceDirectory(path.toAbsolutePath().getParent());
+        records = newRecords;
+        nextCompaction = Math.max(compactionThreshold, 2 * records);
+        compactions++;
+        reopen();
+    }
+
+    /**
+     * Открытие файла для дописывания после подмены. Если это не удалось, история больше не сохраняется.
+     */
+    private void reopen() {
+        try {
+            out = openAppend(path);
+        } catch (IOException e) {
+            persistenceStopped = true;
+        }
+    }
+
+    private static void deleteTempFile(Path tempPath) {
+        try {
+            Files.deleteIfExists(tempPath);
+        } catch (IOException ignored) {
+            // временный файл перезапишется при следующем сжатии
+        }
+    }
+
+    /**
+     * Чтение просмотров в порядке от старого к новому. Оборванная последняя запись отрезается.
+     */
+    private static Map<Integer, ItemType> readViews(Path path) throws IOException {
+        Map<Integer, ItemType> views = new LinkedHashMap<>();
+        if (!Files.exists(path)) return views;
+        long size = Files.size(path);
+        if (size % RECORD_SIZE != 0) {
+            try (FileChannel channel = FileChannel.open(path, WRITE)) {
+                channel.truncate(size - size % RECORD_SIZE);
+            }
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            while (true) {
+                byte type;
+                int id;
+                try {
+                    type = in.readByte();
+                    id = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                views.remove(id);
+                if (type >= 0 && type < TYPES.length) {
+                    views.put(id, TYPES[type]);
+                }
+            }
+        }
+        return views;
+    }
+
+    private static DataOutputStream openAppend(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path, CREATE, APPEND),
+                BUFFER_SIZE));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+/**
+ * Результат проверки файлов при загрузке доски
+ *
+ * @param snapshotComplete {@code false} if snapshot was torn or damaged and only its valid part was loaded
+ * @param snapshotBytes    scanned snapshot bytes
+ * @param journalBytes     scanned journal bytes
+ * @param discardedBytes   bytes of torn or damaged tails of snapshot and journal
+ * @param elapsedNanos     load and recovery time
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 20:40
+ * @project java-kanban
+ */
+public record RecoveryStats(boolean snapshotComplete,
+                            long snapshotBytes,
+                            long journalBytes,
+                            long discardedBytes,
+                            long elapsedNanos) {
+
+    public long bytesScanned() {
+        return snapshotBytes + journalBytes;
+    }
+
+    /**
+     * Признак загрузки без потерь
+     *
+     * @return {@code true} if nothing was discarded
+     */
+    public boolean isClean() {
+        return snapshotComplete && discardedBytes == 0;
+    }
+}
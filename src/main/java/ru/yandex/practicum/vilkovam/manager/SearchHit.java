@@ -0,0 +1,20 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import java.util.Comparator;
+
+/**
+ * Результат поиска по {@link TextIndex}
+ *
+ * @param id    item id
+ * @param score number of occurrences of matched words in item name and description
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 15:00
+ * @project java-kanban
+ */
+public record SearchHit(int id, int score) {
+    /**
+     * Порядок выдачи: больше совпадений - выше, при равенстве - по id
+     */
+    public static final Comparator<SearchHit> BY_RANK = Comparator.comparingInt(SearchHit::score).reversed()
+            .thenComparingInt(SearchHit::id);
+}
@@ -0,0 +1,14 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+/**
+ * Сжатие файла снимка {@link FileBackedTaskManager}. Сжатый снимок распознается
+ * при загрузке по заголовку, независимо от формата внутри.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 23:05
+ * @project java-kanban
+ */
+public enum SnapshotCompression {
+    NONE,
+    GZIP
+}
@@ -0,0 +1,13 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+/**
+ * Формат файла снимка {@link FileBackedTaskManager}
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 14:40
+ * @project java-kanban
+ */
+public enum SnapshotFormat {
+    CSV,
+    BINARY
+}
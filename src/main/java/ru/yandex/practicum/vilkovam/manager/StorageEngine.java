@@ -0,0 +1,51 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Способ хранения объектов в контроллере
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 13:35
+ * @project java-kanban
+ */
+public enum StorageEngine {
+    /**
+     * {@link HashMap} по id
+     */
+    HASH_MAP,
+    /**
+     * Массив, индексированный по id, см. {@link IdIndexedStorage}
+     */
+    DENSE_ARRAY,
+    /**
+     * Колонки примитивов и общий буфер строк, см. {@link ColumnarStorage}
+     */
+    COLUMNAR,
+    /**
+     * Записи фиксированной длины в прямых буферах вне кучи, см. {@link OffHeapStorage}
+     */
+    OFF_HEAP;
+
+    public <T extends Task> Map<Integer, T> newStorage() {
+        return switch (this) {
+            case HASH_MAP -> new HashMap<>();
+            case DENSE_ARRAY -> new IdIndexedStorage<>();
+            case COLUMNAR -> new ColumnarStorage<>();
+            case OFF_HEAP -> new OffHeapStorage<>();
+        };
+    }
+
+    /**
+     * Создает ли хранилище объекты при каждом чтении. Набор приоритетов над таким хранилищем
+     * не должен держать ссылки на задачи, иначе в куче остается копия каждой задачи со временем.
+     *
+     * @return {@code true} for {@link #COLUMNAR} and {@link #OFF_HEAP}
+     */
+    public boolean materializesOnRead() {
+        return this == COLUMNAR || this == OFF_HEAP;
+    }
+}
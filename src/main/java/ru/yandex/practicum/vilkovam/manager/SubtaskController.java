@@ -0,0 +1,285 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Контроллер подзадач с индексом {@code epicId -> id подзадач}, чтобы выборка подзадач
+ * одного эпика не копировала и не просматривала все подзадачи. Для каждого эпика поддерживается
+ * {@link EpicSummary} и выборка подзадач по статусу: изменение подзадачи обновляет их поиском за O(log k),
+ * где k - число подзадач эпика, и без создания объектов времени.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 11:10
+ * @project java-kanban
+ */
+public class SubtaskController extends TaskController<Subtask> {
+    private final Map<Integer, EpicSubtasks> epicIdToSubtasks = new HashMap<>();
+
+    public SubtaskController(IdGenerator idGenerator, UnaryOperator<Subtask> mapper) {
+        super(idGenerator, mapper);
+    }
+
+    public SubtaskController(IdGenerator idGenerator, Map<Integer, Subtask> storage, UnaryOperator<Subtask> mapper) {
+        this(idGenerator, storage, mapper, List.copyOf(storage.values()));
+    }
+
+    /**
+     * Контроллер над загруженным хранилищем. Индекс строится по переданным подзадачам,
+     * чтобы не читать их через хранилище, которое может подгружать описания.
+     *
+     * @param idGenerator id generator
+     * @param storage     loaded subtasks
+     * @param mapper      copy constructor
+     * @param subtasks    subtasks of {@code storage}
+     */
+    public SubtaskController(IdGenerator idGenerator, Map<Integer, Subtask> storage, UnaryOperator<Subtask> mapper,
+                             Collection<Subtask> subtasks) {
+        super(idGenerator, storage, mapper, subtasks);
+        subtasks.forEach(this::link);
+    }
+
+    @Override
+    protected void reindex(Subtask oldItem, Subtask newItem) {
+        super.reindex(oldItem, newItem);
+        if (oldItem != null && newItem != null && Objects.equals(oldItem.getEpicId(), newItem.getEpicId())
+                && oldItem.getEpicId() != null) {
+            EpicSubtasks epicSubtasks = epicIdToSubtasks.get(newItem.getEpicId());
+            if (epicSubtasks != null) {
+                epicSubtasks.replace(oldItem, newItem);
+                return;
+            }
+        }
+        if (oldItem != null) {
+            unlink(oldItem);
+        }
+        if (newItem != null) {
+            link(newItem);
+        }
+    }
+
+    /**
+     * Подзадачи эпика в порядке добавления
+     *
+     * @param epicId epic id
+     * @return copies of epic subtasks
+     */
+    public List<Subtask> getAllByEpicId(Integer epicId) {
+        EpicSubtasks epicSubtasks = epicIdToSubtasks.get(epicId);
+        if (epicSubtasks == null) return Collections.emptyList();
+        return copyAll(epicSubtasks.ids);
+    }
+
+    /**
+     * Подзадачи эпика с указанным статусом в порядке добавления
+     *
+     * @param epicId epic id
+     * @param status target status
+     * @return copies of epic subtasks with {@code status}
+     */
+    public List<Subtask> getAllByEpicIdAndStatus(Integer epicId, TaskStatus status) {
+        EpicSubtasks epicSubtasks = epicIdToSubtasks.get(epicId);
+        if (epicSubtasks == null || status == null) return Collections.emptyList();
+        return copyAll(epicSubtasks.statusToIds.get(status));
+    }
+
+    /**
+     * Статус и время эпика по его подзадачам, без обхода подзадач
+     *
+     * @param epicId epic id
+     * @return summary of epic subtasks
+     */
+    public EpicSummary getEpicSummary(Integer epicId) {
+        EpicSubtasks epicSubtasks = epicIdToSubtasks.get(epicId);
+        if (epicSubtasks == null) {
+            return new EpicSummary(0, TaskStatus.NEW, Duration.ZERO, null, null);
+        }
+        return epicSubtasks.summary();
+    }
+
+    private void link(Subtask subtask) {
+        if (subtask.getEpicId() == null) return;
+        epicIdToSubtasks.computeIfAbsent(subtask.getEpicId(), k -> new EpicSubtasks()).add(subtask);
+    }
+
+    private void unlink(Subtask subtask) {
+        if (subtask.getEpicId() == null) return;
+        EpicSubtasks epicSubtasks = epicIdToSubtasks.get(subtask.getEpicId());
+        if (epicSubtasks == null) return;
+        epicSubtasks.remove(subtask);
+        if (epicSubtasks.ids.isEmpty()) {
+            epicIdToSubtasks.remove(subtask.getEpicId());
+        }
+    }
+
+    /**
+     * Подзадачи одного эпика и агрегаты по ним: id подзадач по статусам, сумма продолжительностей
+     * и мультимножества времени начала и окончания. Время и продолжительность берутся из примитивов
+     * {@link Subtask}, объекты {@link LocalDateTime} и {@link Duration} создаются только в {@link #summary()}.
+     */
+    private static final class EpicSubtasks {
+        private static final int NANOS_PER_SECOND = 1_000_000_000;
+
+        private final Set<Integer> ids = new LinkedHashSet<>();
+        private final Map<TaskStatus, Set<Integer>> statusToIds = new EnumMap<>(TaskStatus.class);
+        private final TimeMultiset startTimes = new TimeMultiset();
+        private final TimeMultiset endTimes = new TimeMultiset();
+        private long durationSeconds;
+        private long durationNanos;
+
+        private EpicSubtasks() {
+            for (TaskStatus status : TaskStatus.values()) {
+                statusToIds.put(status, new LinkedHashSet<>());
+            }
+        }
+
+        private void add(Subtask subtask) {
+            if (!ids.add(subtask.getId())) return;
+            account(subtask);
+        }
+
+        private void remove(Subtask subtask) {
+            if (!ids.remove(subtask.getId())) return;
+            discount(subtask);
+        }
+
+        /**
+         * Замена подзадачи без изменения ее места в порядке добавления
+         */
+        private void replace(Subtask oldSubtask, Subtask newSubtask) {
+            if (!ids.contains(oldSubtask.getId())) {
+                add(newSubtask);
+                return;
+            }
+            discount(oldSubtask);
+            account(newSubtask);
+        }
+
+        private void account(Subtask subtask) {
+            if (subtask.getStatus() != null) {
+                statusToIds.get(subtask.getStatus()).add(subtask.getId());
+            }
+            durationSeconds += subtask.getDurationSeconds();
+            durationNanos += subtask.getDurationNano();
+            startTimes.add(subtask.getStartEpochSecond(), subtask.getStartNano());
+            endTimes.add(subtask.getEndEpochSecond(), subtask.getEndNano());
+        }
+
+        private void discount(Subtask subtask) {
+            if (subtask.getStatus() != null) {
+                statusToIds.get(subtask.getStatus()).remove(subtask.getId());
+            }
+            durationSeconds -= subtask.getDurationSeconds();
+            durationNanos -= subtask.getDurationNano();
+            startTimes.remove(subtask.getStartEpochSecond(), subtask.getStartNano());
+            endTimes.remove(subtask.getEndEpochSecond(), subtask.getEndNano());
+        }
+
+        private EpicSummary summary() {
+            int count = ids.size();
+            TaskStatus status;
+            if (statusToIds.get(TaskStatus.NEW).size() == count) {
+                status = TaskStatus.NEW;
+            } else if (statusToIds.get(TaskStatus.DONE).size() == count) {
+                status = TaskStatus.DONE;
+            } else {
+                status = TaskStatus.IN_PROGRESS;
+            }
+            return new EpicSummary(count, status,
+                    Duration.ofSeconds(durationSeconds + durationNanos / NANOS_PER_SECOND,
+                            durationNanos % NANOS_PER_SECOND),
+                    startTimes.first(), endTimes.last());
+        }
+    }
+
+    /**
+     * Мультимножество моментов времени в отсортированных массивах секунд и наносекунд.
+     * Поиск - бинарный, вставка и удаление нового момента сдвигают хвост массивов: подзадач у эпика немного,
+     * а изменение подзадачи не создает объектов, пока массивы не растут.
+     * Моменты {@link Task#NO_TIME} не учитываются.
+     */
+    private static final class TimeMultiset {
+        private long[] seconds = new long[4];
+        private int[] nanos = new int[4];
+        private int[] counts = new int[4];
+        private int size;
+
+        private void add(long second, int nano) {
+            if (second == Task.NO_TIME) return;
+            int index = indexOf(second, nano);
+            if (index >= 0) {
+                counts[index]++;
+                return;
+            }
+            index = -index - 1;
+            if (size == seconds.length) {
+                seconds = Arrays.copyOf(seconds, size * 2);
+                nanos = Arrays.copyOf(nanos, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            System.arraycopy(seconds, index, seconds, index + 1, size - index);
+            System.arraycopy(nanos, index, nanos, index + 1, size - index);
+            System.arraycopy(counts, index, counts, index + 1, size - index);
+            seconds[index] = second;
+            nanos[index] = nano;
+            counts[index] = 1;
+            size++;
+        }
+
+        private void remove(long second, int nano) {
+            if (second == Task.NO_TIME) return;
+            int index = indexOf(second, nano);
+            if (index < 0 || --counts[index] > 0) return;
+            System.arraycopy(seconds, index + 1, seconds, index, size - index - 1);
+            System.arraycopy(nanos, index + 1, nanos, index, size - index - 1);
+            System.arraycopy(counts, index + 1, counts, index, size - index - 1);
+            size--;
+        }
+
+        private LocalDateTime first() {
+            return size == 0 ? null : LocalDateTime.ofEpochSecond(seconds[0], nanos[0], ZoneOffset.UTC);
+        }
+
+        private LocalDateTime last() {
+            return size == 0 ? null
+                    : LocalDateTime.ofEpochSecond(seconds[size - 1], nanos[size - 1], ZoneOffset.UTC);
+        }
+
+        /**
+         * @return index of moment or {@code -(insertion point) - 1}
+         */
+        private int indexOf(long second, int nano) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Long.compare(seconds[mid], second);
+                if (cmp == 0) cmp = Integer.compare(nanos[mid], nano);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package ru.yandex.practicum.vilkovam.manager;
 
 import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemSnapshot;
 import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
 import ru.yandex.practicum.vilkovam.model.TaskStatus;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
 /**
@@ -17,9 +25,14 @@ import java.util.function.UnaryOperator;
  * @project java-kanban
  */
 public class TaskController<T extends Task> implements Controller<T> {
+    public static final int DEFAULT_SNAPSHOT_CACHE_SIZE = 1024;
     protected final Map<Integer, T> idToItem;
     private final IdGenerator idGenerator;
     protected final UnaryOperator<T> mapper;
+    private final Map<TaskStatus, Set<Integer>> statusToIds = new EnumMap<>(TaskStatus.class);
+    private final Map<Integer, ItemSnapshot> idToSnapshot = newSnapshotCache(DEFAULT_SNAPSHOT_CACHE_SIZE);
+    private final Map<Integer, ItemSnapshot> staleSnapshots = newSnapshotCache(DEFAULT_SNAPSHOT_CACHE_SIZE);
+    private TextIndex textIndex;
 
     public TaskController(IdGenerator idGenerator, UnaryOperator<T> mapper) {
         this(idGenerator, new HashMap<>(), mapper);
@@ -30,10 +43,54 @@ public class TaskController<T extends Task> implements Controller<T> {
     }
 
     public TaskController(IdGenerator idGenerator, UnaryOperator<T> mapper, Map<Integer, T> storage, Map<Integer, T> idToItem) {
+        this(idGenerator, storage, mapper, List.copyOf(putAll(storage, idToItem).values()));
+    }
+
+    /**
+     * Контроллер над загруженным хранилищем. Индексы строятся по переданным объектам,
+     * чтобы не читать их через хранилище, которое может подгружать описания.
+     *
+     * @param idGenerator id generator
+     * @param storage     loaded items
+     * @param mapper      copy constructor
+     * @param items       items of {@code storage}
+     */
+    public TaskController(IdGenerator idGenerator, Map<Integer, T> storage, UnaryOperator<T> mapper, Collection<T> items) {
         this.idGenerator = idGenerator;
         this.mapper = mapper;
         this.idToItem = storage;
-        this.idToItem.putAll(idToItem);
+        items.forEach(item -> indexStatus(null, item));
+    }
+
+    private static Map<Integer, ItemSnapshot> newSnapshotCache(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ItemSnapshot> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private static <T> Map<Integer, T> putAll(Map<Integer, T> storage, Map<Integer, T> idToItem) {
+        storage.putAll(idToItem);
+        return storage;
+    }
+
+    /**
+     * Захват состояния контроллера для чтения вне блокировки мутаций. Сейчас копируются только ссылки
+     * на хранимые объекты: хранимый объект не изменяется на месте, изменение заменяет его новой копией.
+     * Описания {@link DescriptionStorage} подгружаются уже при вызове результата, поэтому могут оказаться
+     * новее захваченного состояния.
+     *
+     * @return supplier of stored items, must not be shared with callers that modify items
+     */
+    Supplier<List<T>> captureItems() {
+        if (idToItem instanceof DescriptionStorage<T> descriptions) {
+            List<T> stored = descriptions.getStoredItems();
+            return () -> stored.stream().map(descriptions::withDescription).toList();
+        }
+        List<T> stored = new ArrayList<>(idToItem.values());
+        return () -> stored;
     }
 
     @Override
@@ -41,21 +98,27 @@ public class TaskController<T extends Task> implements Controller<T> {
         if (item == null) return null;
         setIdAndStatus(item);
         T itemToSave = mapper.apply(item);
-        idToItem.put(itemToSave.getId(), itemToSave);
+        reindex(idToItem.put(itemToSave.getId(), itemToSave), itemToSave);
+        indexText(item);
         return item;
     }
 
     @Override
     public T getById(Integer id) {
-        if (!existsById(id)) return null;
-        T itemById = idToItem.get(id);
-        return mapper.apply(itemById);
+        if (id == null || id <= 0) return null;
+        return copyOf(idToItem.get(id));
     }
 
     @Override
     public void removeById(Integer id) {
         if (id > 0) {
-            idToItem.remove(id);
+            T removed = idToItem.remove(id);
+            if (removed != null) {
+                reindex(removed, null);
+                if (textIndex != null) {
+                    textIndex.remove(id);
+                }
+            }
         }
     }
 
@@ -63,7 +126,8 @@ public class TaskController<T extends Task> implements Controller<T> {
     public void update(T item) {
         if (item == null || !existsById(item.getId())) return;
         T itemToUpdate = mapper.apply(item);
-        idToItem.replace(itemToUpdate.getId(), itemToUpdate);
+        reindex(idToItem.replace(itemToUpdate.getId(), itemToUpdate), itemToUpdate);
+        indexText(item);
     }
 
     @Override
@@ -83,6 +147,174 @@ public class TaskController<T extends Task> implements Controller<T> {
                 .toList();
     }
 
+    /**
+     * Неизменяемый снимок объекта. Снимок создается при первом чтении после изменения объекта,
+     * следующие чтения возвращают тот же экземпляр без копирования, пока снимок не вытеснен из кэша
+     * последних {@value #DEFAULT_SNAPSHOT_CACHE_SIZE} снимков. Для {@link DescriptionStorage} снимок
+     * строится по хранимому объекту, описание подгружается из {@link DescriptionStore} без копирования объекта.
+     *
+     * @param id item id
+     * @return shared snapshot or {@code null} if item not found
+     */
+    public ItemSnapshot getSnapshot(Integer id) {
+        if (id == null || id <= 0) return null;
+        ItemSnapshot snapshot = idToSnapshot.get(id);
+        if (snapshot != null) return snapshot;
+        if (idToItem instanceof DescriptionStorage<T> descriptions) {
+            T item = descriptions.getStored(id);
+            if (item == null) return null;
+            snapshot = ItemSnapshot.of(item, descriptions.descriptionOf(item), staleSnapshots.remove(id));
+        } else {
+            T item = idToItem.get(id);
+            if (item == null) return null;
+            snapshot = ItemSnapshot.of(item, staleSnapshots.remove(id));
+        }
+        idToSnapshot.put(id, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Снимки всех объектов в порядке хранилища. Снимки из кэша переиспользуются, остальные создаются
+     * без записи в кэш, чтобы обход доски не вытеснял снимки, которые читаются повторно.
+     *
+     * @return snapshots
+     */
+    public List<ItemSnapshot> getAllSnapshots() {
+        DescriptionStorage<T> descriptions = idToItem instanceof DescriptionStorage<T> storage ? storage : null;
+        Collection<T> items = descriptions != null ? descriptions.getStoredItems() : idToItem.values();
+        List<ItemSnapshot> snapshots = new ArrayList<>(items.size());
+        for (T item : items) {
+            ItemSnapshot snapshot = idToSnapshot.get(item.getId());
+            if (snapshot == null) {
+                ItemSnapshot previous = staleSnapshots.get(item.getId());
+                snapshot = descriptions != null
+                        ? ItemSnapshot.of(item, descriptions.descriptionOf(item), previous)
+                        : ItemSnapshot.of(item, previous);
+            }
+            snapshots.add(snapshot);
+        }
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * Поиск по словам названия и описания, см. {@link TextIndex#search(String)}. Индекс строится
+     * при первом поиске и дальше обновляется при каждом изменении объектов.
+     *
+     * @param query words to search
+     * @return ranked hits
+     */
+    public List<SearchHit> search(String query) {
+        if (textIndex == null) {
+            textIndex = new TextIndex();
+            idToItem.values().forEach(this::indexText);
+        }
+        return textIndex.search(query);
+    }
+
+    /**
+     * Объекты с указанным статусом в порядке их появления в этом статусе
+     *
+     * @param status target status
+     * @return copies of items with {@code status}
+     */
+    public List<T> getAllByStatus(TaskStatus status) {
+        return copyAll(statusToIds.getOrDefault(status, Collections.emptySet()));
+    }
+
+    /**
+     * Копии объектов по id в порядке обхода {@code ids}
+     *
+     * @param ids ids of stored items
+     * @return copies of items
+     */
+    protected List<T> copyAll(Collection<Integer> ids) {
+        List<T> items = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            items.add(copyOf(idToItem.get(id)));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Объект из набора приоритетов в том виде, в каком его возвращает {@link #getById(Integer)}.
+     * В наборе лежат хранимые объекты, для {@link DescriptionStorage} - без описаний.
+     *
+     * @param stored item stored by this controller
+     * @return copy with description for {@link DescriptionStorage}, otherwise {@code stored}
+     */
+    public T withDescription(T stored) {
+        return idToItem instanceof DescriptionStorage<T> descriptions ? descriptions.withDescription(stored) : stored;
+    }
+
+    /**
+     * Хранит ли контроллер описания вне объектов, см. {@link DescriptionStorage}
+     *
+     * @return {@code true} if items are stored without descriptions
+     */
+    public boolean hasLazyDescriptions() {
+        return idToItem instanceof DescriptionStorage;
+    }
+
+    /**
+     * Копия объекта из хранилища. {@link DescriptionStorage} уже возвращает копию с описанием.
+     */
+    private T copyOf(T item) {
+        if (item == null || idToItem instanceof DescriptionStorage) return item;
+        return mapper.apply(item);
+    }
+
+    /**
+     * Индексация текста объекта. Используется объект вызывающего кода: копия в хранилище
+     * может быть уже без описания, см. {@link DescriptionStorage}.
+     *
+     * @param item item with name and description
+     */
+    protected void indexText(T item) {
+        if (textIndex != null) {
+            textIndex.put(item.getId(), item.getName(), item.getDescription());
+        }
+    }
+
+    /**
+     * Обновление индексов после изменения хранилища
+     *
+     * @param oldItem previously stored item, {@code null} if item was created
+     * @param newItem stored item, {@code null} if item was removed
+     */
+    protected void reindex(T oldItem, T newItem) {
+        indexStatus(oldItem, newItem);
+        invalidateSnapshot(oldItem, newItem);
+    }
+
+    /**
+     * Сброс снимка измененного объекта. Прежний снимок остается до следующего чтения,
+     * чтобы новый снимок мог переиспользовать неизмененные части.
+     */
+    private void invalidateSnapshot(T oldItem, T newItem) {
+        Integer id = newItem != null ? newItem.getId() : oldItem.getId();
+        ItemSnapshot snapshot = idToSnapshot.remove(id);
+        if (newItem == null) {
+            staleSnapshots.remove(id);
+        } else if (snapshot != null) {
+            staleSnapshots.put(id, snapshot);
+        }
+    }
+
+    private void indexStatus(T oldItem, T newItem) {
+        TaskStatus oldStatus = oldItem != null ? oldItem.getStatus() : null;
+        TaskStatus newStatus = newItem != null ? newItem.getStatus() : null;
+        if (oldStatus == newStatus) return;
+        if (oldStatus != null) {
+            Set<Integer> ids = statusToIds.get(oldStatus);
+            if (ids != null) {
+                ids.remove(oldItem.getId());
+            }
+        }
+        if (newStatus != null) {
+            statusToIds.computeIfAbsent(newStatus, k -> new LinkedHashSet<>()).add(newItem.getId());
+        }
+    }
+
     /**
      * Установка нового id и статуса {@link  TaskStatus#NEW} для переданного объекта {@link Task}/{@link Epic}/{@link Subtask}
      *
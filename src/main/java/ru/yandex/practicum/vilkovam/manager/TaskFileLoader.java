@@ -0,0 +1,349 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.util.BinarySnapshotReader;
+import ru.yandex.practicum.vilkovam.util.CsvTaskParser;
+import ru.yandex.practicum.vilkovam.util.TaskBinaryCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Потоковая загрузка снимка и журнала за один проход: каждая строка сразу
+ * попадает в хранилище своего контроллера, подзадачи связываются с эпиками на лету.
+ * Подзадачи, эпик которых еще не прочитан, ждут его в {@code parkedSubtaskIds}.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 13:05
+ * @project java-kanban
+ */
+class TaskFileLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final SortedSet<Task> prioritizedTasks;
+    private final DescriptionStore descriptions;
+    private final ItemPriorityStorage<Task> idToTask;
+    private final Map<Integer, Epic> idToEpic = new HashMap<>();
+    private final ItemPriorityStorage<Subtask> idToSubtask;
+    private final Map<Integer, List<Integer>> parkedSubtaskIds = new HashMap<>();
+    private final long startNanos = System.nanoTime();
+    private int maxId;
+    private long lines;
+    private long bytes;
+    private long snapshotBytes;
+    private long journalBytes;
+    private long discardedBytes;
+    private long parseNanos;
+    private long mergeNanos;
+    private long journalNanos;
+    private long finishNanos;
+    private boolean snapshotComplete = true;
+    private boolean snapshotDescriptionsStored;
+    private SnapshotCompression compression = SnapshotCompression.NONE;
+
+    TaskFileLoader(SortedSet<Task> prioritizedTasks) {
+        this(prioritizedTasks, null);
+    }
+
+    /**
+     * @param prioritizedTasks set to index items with start time
+     * @param descriptions     store to move descriptions to, {@code null} to keep them in items
+     */
+    TaskFileLoader(SortedSet<Task> prioritizedTasks, DescriptionStore descriptions) {
+        this.prioritizedTasks = prioritizedTasks;
+        this.descriptions = descriptions;
+        this.idToTask = new ItemPriorityStorage<>(prioritizedTasks);
+        this.idToSubtask = new ItemPriorityStorage<>(prioritizedTasks);
+    }
+
+    /**
+     * Загрузка снимка, формат и сжатие определяются по первым байтам файла.
+     * Сжатый снимок распаковывается потоком, без чтения всего файла в память.
+     *
+     * @param path snapshot file
+     * @return detected snapshot format
+     */
+    SnapshotFormat loadSnapshot(Path path) throws IOException {
+        long size = Files.size(path);
+        bytes += size;
+        snapshotBytes += size;
+        long start = System.nanoTime();
+        try (BufferedInputStream in = openSnapshot(path)) {
+            if (isBinary(in)) {
+                loadBinary(new DataInputStream(in), size);
+                return SnapshotFormat.BINARY;
+            }
+            loadCsv(new CsvTaskParser(new InputStreamReader(in, UTF_8)));
+            return SnapshotFormat.CSV;
+        } finally {
+            parseNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Подключение хранилища описаний к снимку перед его загрузкой. Если файл описаний построен
+     * по этому же снимку, описания записей снимка в него не переписываются.
+     *
+     * @param snapshot snapshot file
+     */
+    void openDescriptions(Path snapshot) {
+        if (descriptions != null) {
+            snapshotDescriptionsStored = descriptions.open(snapshot);
+        }
+    }
+
+    /**
+     * Отметка конца описаний снимка; вызывается после загрузки снимка до применения журнала
+     */
+    void sealDescriptions() {
+        if (descriptions == null) return;
+        if (!snapshotDescriptionsStored) {
+            descriptions.seal();
+        }
+        snapshotDescriptionsStored = false;
+    }
+
+    /**
+     * Загрузка снимка. CSV-снимок читается кусками на пуле потоков, бинарный - последовательно,
+     * так как границы его записей нельзя найти без чтения всех предыдущих.
+     *
+     * @param path      snapshot file
+     * @param pool      pool to parse CSV chunks on
+     * @param chunkSize minimal chunk size in bytes
+     * @return detected snapshot format
+     */
+    SnapshotFormat loadSnapshot(Path path, ForkJoinPool pool, int chunkSize) throws IOException {
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(path), Integer.BYTES)) {
+            if (isGzip(in) || isBinary(in)) return loadSnapshot(path);
+        }
+        bytes += Files.size(path);
+        snapshotBytes += Files.size(path);
+        ParallelSnapshotReader.Snapshot snapshot = ParallelSnapshotReader.read(path, pool, chunkSize);
+        long start = System.nanoTime();
+        prioritizedTasks.addAll(snapshot.prioritized());
+        snapshot.idToTask().forEach(idToTask::putUnindexed);
+        snapshot.idToSubtask().forEach(idToSubtask::putUnindexed);
+        idToEpic.putAll(snapshot.idToEpic());
+        parkedSubtaskIds.putAll(snapshot.orphanSubtaskIds());
+        maxId = Math.max(maxId, snapshot.maxId());
+        lines += snapshot.lines();
+        parseNanos += snapshot.parseNanos();
+        mergeNanos += snapshot.mergeNanos() + System.nanoTime() - start;
+        return SnapshotFormat.CSV;
+    }
+
+    private BufferedInputStream openSnapshot(Path path) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+        if (!isGzip(in)) return in;
+        compression = SnapshotCompression.GZIP;
+        return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    private static boolean isGzip(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        return (second << 8 | first) == GZIPInputStream.GZIP_MAGIC;
+    }
+
+    private static boolean isBinary(BufferedInputStream in) throws IOException {
+        in.mark(Integer.BYTES);
+        byte[] magic = in.readNBytes(Integer.BYTES);
+        in.reset();
+        return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == TaskBinaryCodec.MAGIC;
+    }
+
+    private void loadCsv(CsvTaskParser parser) {
+        if (parser.hasNext()) {
+            parser.endRecord();
+        }
+        while (parser.hasNext()) {
+            Task task = parser.readTask();
+            if (task == null) {
+                throw new IllegalArgumentException("Wrong columns count in record " + (lines + 1));
+            }
+            put(task);
+            lines++;
+        }
+    }
+
+    /**
+     * Загрузка бинарного снимка. Оборванный или испорченный хвост отбрасывается,
+     * загружается последнее корректное состояние.
+     */
+    private void loadBinary(DataInputStream in, long size) throws IOException {
+        BinarySnapshotReader reader = new BinarySnapshotReader(in);
+        Task task;
+        while ((task = reader.read()) != null) {
+            put(task);
+            lines++;
+        }
+        snapshotComplete = reader.isComplete();
+        if (!snapshotComplete && reader.getValidLength() >= 0 && compression == SnapshotCompression.NONE) {
+            discardedBytes += size - reader.getValidLength();
+        }
+    }
+
+    /**
+     * Применение журнала. Оборванная последняя запись, например после сбоя во время дозаписи,
+     * отрезается от файла, чтобы следующие записи не склеились с ней.
+     */
+    int loadJournal(Path path) throws IOException {
+        if (!Files.exists(path)) return 0;
+        long size = Files.size(path);
+        bytes += size;
+        journalBytes += size;
+        long start = System.nanoTime();
+        discardedBytes += TaskJournal.truncateTornTail(path);
+        int records = TaskJournal.replay(path, this::put, this::remove);
+        lines += records;
+        journalNanos += System.nanoTime() - start;
+        return records;
+    }
+
+    void put(Task task) {
+        maxId = Math.max(maxId, task.getId());
+        if (descriptions != null) {
+            if (!snapshotDescriptionsStored) {
+                descriptions.put(task.getId(), task.getDescription());
+            }
+            task.setDescription(null);
+        }
+        switch (task.getType()) {
+            case TASK -> idToTask.put(task.getId(), task);
+            case EPIC -> putEpic((Epic) task);
+            case SUBTASK -> putSubtask((Subtask) task);
+        }
+    }
+
+    void remove(ItemType type, Integer id) {
+        if (descriptions != null) {
+            descriptions.remove(id);
+        }
+        switch (type) {
+            case TASK -> idToTask.remove(id);
+            case EPIC -> {
+                Epic epic = idToEpic.remove(id);
+                if (epic != null && !epic.getSubtaskIds().isEmpty()) {
+                    parkedSubtaskIds.put(id, new ArrayList<>(epic.getSubtaskIds()));
+                }
+            }
+            case SUBTASK -> {
+                Subtask subtask = idToSubtask.remove(id);
+                if (subtask != null) unlink(subtask);
+            }
+        }
+    }
+
+    private void putEpic(Epic epic) {
+        Epic oldEpic = idToEpic.put(epic.getId(), epic);
+        List<Integer> subtaskIds = oldEpic != null
+                ? oldEpic.getSubtaskIds()
+                : parkedSubtaskIds.getOrDefault(epic.getId(), Collections.emptyList());
+        parkedSubtaskIds.remove(epic.getId());
+        epic.getSubtaskIds().clear();
+        epic.getSubtaskIds().addAll(subtaskIds);
+    }
+
+    private void putSubtask(Subtask subtask) {
+        Subtask oldSubtask = idToSubtask.remove(subtask.getId());
+        idToSubtask.put(subtask.getId(), subtask);
+        if (oldSubtask != null) {
+            if (oldSubtask.getEpicId() == null ? subtask.getEpicId() == null
+                    : oldSubtask.getEpicId().equals(subtask.getEpicId())) {
+                return;
+            }
+            unlink(oldSubtask);
+        }
+        if (subtask.getEpicId() == null) return;
+        Epic epic = idToEpic.get(subtask.getEpicId());
+        if (epic != null) {
+            epic.getSubtaskIds().add(subtask.getId());
+        } else {
+            parkedSubtaskIds.computeIfAbsent(subtask.getEpicId(), k -> new ArrayList<>()).add(subtask.getId());
+        }
+    }
+
+    private void unlink(Subtask subtask) {
+        if (subtask.getEpicId() == null) return;
+        Epic epic = idToEpic.get(subtask.getEpicId());
+        List<Integer> subtaskIds = epic != null ? epic.getSubtaskIds() : parkedSubtaskIds.get(subtask.getEpicId());
+        if (subtaskIds != null) {
+            subtaskIds.remove(subtask.getId());
+        }
+    }
+
+    /**
+     * Завершение загрузки: подзадачи без эпика отбрасываются, генератор id продолжает после максимального id.
+     * Снимок не хранит время эпика, поэтому статус и время эпиков после любой загрузки берутся из
+     * {@link EpicSummary}, которые {@link SubtaskController} строит при создании. Эпики обновляются
+     * до создания {@link EpicController}, чтобы его индекс статусов строился по пересчитанным статусам.
+     * Если описания вынесены в {@link DescriptionStore}, контроллеры подгружают их при чтении.
+     *
+     * @param idGenerator generator to continue ids
+     * @return controllers over loaded storages
+     */
+    ControllersHolder finish(IdGenerator idGenerator) {
+        long start = System.nanoTime();
+        parkedSubtaskIds.values().forEach(ids -> ids.forEach(idToSubtask::remove));
+        parkedSubtaskIds.clear();
+
+        idGenerator.setNextId(maxId + 1);
+
+        List<Task> tasks = List.copyOf(idToTask.values());
+        List<Subtask> subtasks = List.copyOf(idToSubtask.values());
+        Map<Integer, Subtask> subtaskStorage = descriptions != null
+                ? new DescriptionStorage<>(idToSubtask, descriptions, Subtask::new)
+                : idToSubtask;
+        var subtaskController = new SubtaskController(idGenerator, subtaskStorage, Subtask::new, subtasks);
+        idToEpic.values().forEach(epic -> subtaskController.getEpicSummary(epic.getId()).applyTo(epic));
+
+        List<Epic> epics = List.copyOf(idToEpic.values());
+        TaskController<Task> taskController;
+        EpicController epicController;
+        if (descriptions != null) {
+            taskController = new TaskController<>(idGenerator,
+                    new DescriptionStorage<>(idToTask, descriptions, Task::new), Task::new, tasks);
+            epicController = new EpicController(idGenerator,
+                    new DescriptionStorage<>(idToEpic, descriptions, Epic::new), Epic::new, epics);
+        } else {
+            taskController = new TaskController<>(idGenerator, idToTask, Task::new, tasks);
+            epicController = new EpicController(idGenerator, idToEpic, Epic::new, epics);
+        }
+        finishNanos = System.nanoTime() - start;
+        return new ControllersHolder(taskController, epicController, subtaskController);
+    }
+
+    SnapshotCompression getCompression() {
+        return compression;
+    }
+
+    LoadStats getStats() {
+        return new LoadStats(lines, bytes, System.nanoTime() - startNanos, parseNanos, mergeNanos, journalNanos,
+                finishNanos);
+    }
+
+    RecoveryStats getRecoveryStats() {
+        return new RecoveryStats(snapshotComplete, snapshotBytes, journalBytes, discardedBytes,
+                System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,742 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.function.IntFunction;
+
+/**
+ * Набор задач, упорядоченный по ключу {@code (время начала, id)}: задачи с одинаковым временем начала
+ * различаются по id и не вытесняют друг друга. Время хранится в узлах примитивом - секундами от эпохи,
+ * доли секунды при сравнении не учитываются. Внутри - AVL-дерево, каждый узел которого
+ * хранит максимальное время окончания в своем поддереве. Это позволяет найти пересечения
+ * с интервалом {@code [from, to)} за O(log n + k), пропуская поддеревья, которые заканчиваются раньше {@code from}.
+ * Узел также хранит размер поддерева, поэтому страница задач по времени начала выбирается за O(log n + k)
+ * без обхода пропущенных задач.
+ * <p>
+ * Ключ и время окончания запоминаются при добавлении задачи: задачу нельзя менять, пока она в наборе.
+ * Чтобы перенести задачу, ее прежнюю версию нужно удалить до добавления новой, удаление ищет узел за O(log n).
+ * <p>
+ * Набор, созданный с функцией поиска по id, не держит ссылок на задачи: узел хранит только ключ и время окончания,
+ * а задача запрашивается у функции при чтении. Так набор не дублирует в куче задачи хранилища вне кучи.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 09:20
+ * @project java-kanban
+ */
+public final class TaskIntervalTree extends AbstractSet<Task> implements SortedSet<Task> {
+    /**
+     * Порядок задач в наборе: время начала с точностью до секунды, затем id
+     */
+    public static final Comparator<Task> PRIORITY_ORDER = Comparator
+            .comparingLong(Task::getStartEpochSecond)
+            .thenComparingInt(TaskIntervalTree::idOf);
+
+    private final IntFunction<? extends Task> lookup;
+    private Node root;
+    private int size;
+    private int modCount;
+
+    public TaskIntervalTree() {
+        this.lookup = null;
+    }
+
+    /**
+     * Набор без ссылок на задачи в узлах
+     *
+     * @param lookup returns the current version of a task by id, called on every read of the set
+     */
+    public TaskIntervalTree(IntFunction<? extends Task> lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * Набор без ссылок на задачи над хранилищами задач и подзадач. Id задач и подзадач не пересекаются,
+     * поэтому задача ищется сначала среди задач, затем среди подзадач.
+     *
+     * @param tasks    tasks storage
+     * @param subtasks subtasks storage
+     * @return empty set reading tasks from storages
+     */
+    public static TaskIntervalTree over(Map<Integer, ? extends Task> tasks, Map<Integer, ? extends Task> subtasks) {
+        return new TaskIntervalTree(id -> {
+            Task task = tasks.get(id);
+            return task != null ? task : subtasks.get(id);
+        });
+    }
+
+    public TaskIntervalTree(Collection<? extends Task> tasks) {
+        this.lookup = null;
+        addAll(tasks);
+    }
+
+    /**
+     * Проверка пересечения задачи с интервалом {@code [from, to)}. Задача без продолжительности
+     * считается точкой и пересекается с интервалом, если лежит внутри него. Интервал с {@code from == to}
+     * тоже считается точкой и пересекается с задачей, которая ее содержит или начинается в ней.
+     *
+     * @param task target task
+     * @param from interval start, inclusive
+     * @param to   interval end, exclusive
+     * @return {@code true} if task has start time and overlaps interval
+     */
+    public static boolean overlaps(Task task, LocalDateTime from, LocalDateTime to) {
+        long startSeconds = task.getStartEpochSecond();
+        if (startSeconds == Task.NO_TIME) return false;
+        return overlaps(startSeconds, endOf(task, startSeconds), seconds(from), seconds(to));
+    }
+
+    /**
+     * Задачи, пересекающиеся с интервалом {@code [from, to)}, в порядке времени начала
+     *
+     * @param from interval start, inclusive
+     * @param to   interval end, exclusive
+     * @return overlapping tasks
+     */
+    public List<Task> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        collectOverlapping(root, seconds(from), seconds(to), result);
+        return result;
+    }
+
+    /**
+     * Страница задач с временем начала в {@code [from, to)}. Границы страницы находятся по размерам поддеревьев,
+     * обходятся только узлы страницы и путь к ним.
+     *
+     * @param from       range start, inclusive, {@code null} for no lower bound
+     * @param to         range end, exclusive, {@code null} for no upper bound
+     * @param offset     number of tasks to skip
+     * @param limit      maximum number of tasks to return
+     * @param descending {@code true} to return the latest tasks first
+     * @return tasks of the page in requested order
+     */
+    public List<Task> findStartingBetween(LocalDateTime from, LocalDateTime to, int offset, int limit,
+                                          boolean descending) {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("offset and limit must not be negative");
+        int lo = from == null ? 0 : rank(Key.at(from));
+        int hi = to == null ? size : rank(Key.at(to));
+        int available = Math.max(0, hi - lo);
+        int skip = Math.min(offset, available);
+        int count = Math.min(limit, available - skip);
+        List<Task> result = new ArrayList<>(count);
+        if (descending) {
+            collectByRank(root, 0, hi - skip - count, hi - skip, true, result);
+        } else {
+            collectByRank(root, 0, lo + skip, lo + skip + count, false, result);
+        }
+        return result;
+    }
+
+    /**
+     * Ближайшие свободные окна заданной продолжительности, которые не пересекаются с задачами набора.
+     * Окна идут подряд: свободный промежуток длиной в несколько окон дает несколько окон. Задачи,
+     * начавшиеся раньше {@code earliestStart}, учитываются по максимальному времени окончания в поддеревьях,
+     * дальше просматриваются только задачи между найденными окнами: O(log n + k).
+     *
+     * @param duration      window duration, must be positive
+     * @param earliestStart earliest window start
+     * @param horizon       latest window end, {@code null} for no limit
+     * @param count         maximum number of windows
+     * @return window start times in ascending order
+     */
+    public List<LocalDateTime> findFreeSlots(Duration duration, LocalDateTime earliestStart, LocalDateTime horizon,
+                                             int count) {
+        if (duration.isNegative() || duration.isZero()) throw new IllegalArgumentException("duration must be positive");
+        if (count < 0) throw new IllegalArgumentException("count must not be negative");
+        long length = duration.getSeconds() + (duration.getNano() > 0 ? 1 : 0);
+        long cursor = seconds(earliestStart) + (earliestStart.getNano() > 0 ? 1 : 0);
+        long limit = horizon == null ? Long.MAX_VALUE : seconds(horizon);
+        cursor = Math.max(cursor, maxEndBefore(cursor));
+
+        List<LocalDateTime> slots = new ArrayList<>();
+        Node node = ceiling(cursor, Integer.MIN_VALUE, true);
+        while (slots.size() < count) {
+            long gapEnd = node == null ? limit : Math.min(limit, node.start);
+            while (slots.size() < count && gapEnd - length >= cursor) {
+                slots.add(LocalDateTime.ofEpochSecond(cursor, 0, ZoneOffset.UTC));
+                cursor += length;
+            }
+            if (node == null || node.start >= limit) break;
+            cursor = Math.max(cursor, node.end > node.start ? node.end : node.start + 1);
+            node = ceiling(node.start, node.id, false);
+        }
+        return slots;
+    }
+
+    /**
+     * Проверка, пересекается ли задача с другой задачей набора. Задача с тем же id не учитывается,
+     * чтобы обновление не конфликтовало с собственной прежней версией.
+     *
+     * @param task task to check
+     * @return {@code true} if task has start time and overlaps another task
+     */
+    public boolean hasOverlap(Task task) {
+        long startSeconds = task.getStartEpochSecond();
+        if (startSeconds == Task.NO_TIME) return false;
+        return anyOverlapping(root, startSeconds, endOf(task, startSeconds), idOf(task));
+    }
+
+    @Override
+    public boolean add(Task task) {
+        if (task.getStartEpochSecond() == Task.NO_TIME) throw new NullPointerException("startTime");
+        int sizeBefore = size;
+        root = insert(root, task, Key.of(task));
+        return size != sizeBefore;
+    }
+
+    /**
+     * Добавление в пустой набор уже упорядоченных задач строит сбалансированное дерево за O(n)
+     */
+    @Override
+    public boolean addAll(Collection<? extends Task> tasks) {
+        if (root != null || tasks.isEmpty()) return super.addAll(tasks);
+        Task[] sorted = tasks.toArray(new Task[0]);
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i].getStartEpochSecond() == Task.NO_TIME) throw new NullPointerException("startTime");
+            if (i > 0 && PRIORITY_ORDER.compare(sorted[i - 1], sorted[i]) >= 0) {
+                return super.addAll(tasks);
+            }
+        }
+        root = build(sorted, 0, sorted.length);
+        size = sorted.length;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Удаление задачи по ее ключу {@code (время начала, id)}
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Task task) || task.getStartEpochSecond() == Task.NO_TIME) return false;
+        int sizeBefore = size;
+        root = delete(root, Key.of(task));
+        return size != sizeBefore;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Task task) || task.getStartEpochSecond() == Task.NO_TIME) return false;
+        Key key = Key.of(task);
+        Node node = ceiling(key.start, key.id, true);
+        return node != null && compare(node, key.start, key.id) == 0;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Itr(null, null);
+    }
+
+    @Override
+    public Comparator<? super Task> comparator() {
+        return PRIORITY_ORDER;
+    }
+
+    @Override
+    public SortedSet<Task> subSet(Task fromElement, Task toElement) {
+        return new SubSet(Key.of(fromElement), Key.of(toElement));
+    }
+
+    @Override
+    public SortedSet<Task> headSet(Task toElement) {
+        return new SubSet(null, Key.of(toElement));
+    }
+
+    @Override
+    public SortedSet<Task> tailSet(Task fromElement) {
+        return new SubSet(Key.of(fromElement), null);
+    }
+
+    @Override
+    public Task first() {
+        return taskOf(ceiling(null));
+    }
+
+    @Override
+    public Task last() {
+        return taskOf(lower(null));
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int idOf(Task task) {
+        return task.getId() == null ? 0 : task.getId();
+    }
+
+    private static long endOf(Task task, long start) {
+        long end = task.getEndEpochSecond();
+        return end == Task.NO_TIME ? start : Math.max(start, end);
+    }
+
+    /**
+     * Интервал {@code [start, end)} и интервал {@code [from, to)} пересекаются, если один содержит начало другого.
+     * Пустой интервал считается точкой: точка внутри интервала пересекается с ним в обе стороны,
+     * поэтому результат не зависит от того, какая из задач уже в наборе.
+     */
+    private static boolean overlaps(long start, long end, long from, long to) {
+        if (from == to) return start <= from && (end > from || start == from);
+        return start < to && (end > from || start == end && start >= from);
+    }
+
+    /**
+     * Может ли узел с таким временем начала пересекаться с интервалом {@code [from, to)}:
+     * для точки {@code from == to} подходит и узел, начинающийся в ней
+     */
+    private static boolean startsBefore(long start, long from, long to) {
+        return start < to || start == to && from == to;
+    }
+
+    private static int compare(Node node, long start, int id) {
+        int cmp = Long.compare(node.start, start);
+        return cmp != 0 ? cmp : Integer.compare(node.id, id);
+    }
+
+    private void collectOverlapping(Node node, long from, long to, List<Task> result) {
+        if (node == null || node.maxEnd < from) return;
+        collectOverlapping(node.left, from, to, result);
+        if (!startsBefore(node.start, from, to)) return;
+        if (overlaps(node.start, node.end, from, to)) {
+            result.add(taskOf(node));
+        }
+        collectOverlapping(node.right, from, to, result);
+    }
+
+    /**
+     * Обход узлов с порядковыми номерами в {@code [lo, hi)}
+     *
+     * @param base number of nodes preceding subtree of {@code node}
+     */
+    private void collectByRank(Node node, int base, int lo, int hi, boolean descending, List<Task> result) {
+        if (node == null || lo >= hi) return;
+        int rank = base + count(node.left);
+        if (descending) {
+            if (rank + 1 < hi) collectByRank(node.right, rank + 1, lo, hi, true, result);
+            if (rank >= lo && rank < hi) result.add(taskOf(node));
+            if (rank > lo) collectByRank(node.left, base, lo, hi, true, result);
+        } else {
+            if (rank > lo) collectByRank(node.left, base, lo, hi, false, result);
+            if (rank >= lo && rank < hi) result.add(taskOf(node));
+            if (rank + 1 < hi) collectByRank(node.right, rank + 1, lo, hi, false, result);
+        }
+    }
+
+    private static boolean anyOverlapping(Node node, long from, long to, int excludedId) {
+        if (node == null || node.maxEnd < from) return false;
+        if (overlaps(node.start, node.end, from, to) && node.id != excludedId) return true;
+        if (anyOverlapping(node.left, from, to, excludedId)) return true;
+        return startsBefore(node.start, from, to) && anyOverlapping(node.right, from, to, excludedId);
+    }
+
+    private Node insert(Node node, Task task, Key key) {
+        if (node == null) {
+            size++;
+            modCount++;
+            return new Node(lookup == null ? task : null, key.start, key.id, endOf(task, key.start));
+        }
+        int cmp = compare(node, key.start, key.id);
+        if (cmp > 0) {
+            node.left = insert(node.left, task, key);
+        } else if (cmp < 0) {
+            node.right = insert(node.right, task, key);
+        } else {
+            return node;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, Key key) {
+        if (node == null) return null;
+        int cmp = compare(node, key.start, key.id);
+        if (cmp > 0) {
+            node.left = delete(node.left, key);
+        } else if (cmp < 0) {
+            node.right = delete(node.right, key);
+        } else {
+            size--;
+            modCount++;
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) return node.right;
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node build(Task[] sorted, int from, int to) {
+        if (from >= to) return null;
+        int middle = (from + to) >>> 1;
+        Task task = sorted[middle];
+        Key key = Key.of(task);
+        Node node = new Node(lookup == null ? task : null, key.start, key.id, endOf(task, key.start));
+        node.left = build(sorted, from, middle);
+        node.right = build(sorted, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.count = 1 + count(node.left) + count(node.right);
+        long maxEnd = node.end;
+        if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        if (node.right != null) maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int count(Node node) {
+        return node == null ? 0 : node.count;
+    }
+
+    /**
+     * Число узлов с ключом меньше {@code key}
+     *
+     * @param key upper bound
+     */
+    private int rank(Key key) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(node, key.start, key.id) < 0) {
+                rank += count(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Наибольшее время окончания задач, начавшихся раньше {@code start}, по максимумам поддеревьев на пути поиска
+     *
+     * @param start upper bound of task start, exclusive
+     * @return max end or {@code Long.MIN_VALUE} if no task starts before {@code start}
+     */
+    private long maxEndBefore(long start) {
+        long maxEnd = Long.MIN_VALUE;
+        Node node = root;
+        while (node != null) {
+            if (node.start < start) {
+                maxEnd = Math.max(maxEnd, node.end);
+                if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return maxEnd;
+    }
+
+    /**
+     * Узел с наименьшим ключом не меньше {@code key}
+     *
+     * @param key lower bound, {@code null} for the first node
+     */
+    private Node ceiling(Key key) {
+        if (key != null) return ceiling(key.start, key.id, true);
+        Node node = root;
+        while (node != null && node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    /**
+     * Узел с наименьшим ключом после {@code (start, id)}
+     *
+     * @param inclusive whether node with key equal to {@code (start, id)} matches
+     */
+    private Node ceiling(long start, int id, boolean inclusive) {
+        Node result = null;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(node, start, id);
+            if (cmp > 0 || cmp == 0 && inclusive) {
+                result = node;
+                if (cmp == 0) return result;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Узел с наибольшим ключом меньше {@code key}
+     *
+     * @param key upper bound, {@code null} for the last node
+     */
+    private Node lower(Key key) {
+        Node result = null;
+        Node node = root;
+        while (node != null) {
+            if (key == null || compare(node, key.start, key.id) < 0) {
+                result = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    private Task taskOf(Node node) {
+        if (node == null) throw new NoSuchElementException();
+        return lookup == null ? node.task : lookup.apply(node.id);
+    }
+
+    /**
+     * Ключ задачи в наборе. Граница по времени получает наименьший id, чтобы включать все задачи этого времени.
+     */
+    private record Key(long start, int id) implements Comparable<Key> {
+        private static Key of(Task task) {
+            return new Key(task.getStartEpochSecond(), idOf(task));
+        }
+
+        private static Key at(LocalDateTime time) {
+            return new Key(seconds(time), Integer.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int cmp = Long.compare(start, other.start);
+            return cmp != 0 ? cmp : Integer.compare(id, other.id);
+        }
+    }
+
+    private static final class Node {
+        /**
+         * Задача или {@code null}, если набор ищет задачи по id
+         */
+        private final Task task;
+        private final long start;
+        private final int id;
+        private final long end;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private int count = 1;
+
+        private Node(Task task, long start, int id, long end) {
+            this.task = task;
+            this.start = start;
+            this.id = id;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    /**
+     * Обход узлов с ключами в {@code [from, to)}. Следующий узел ищется по ключу,
+     * поэтому удаление через итератор не ломает обход.
+     */
+    private class Itr implements Iterator<Task> {
+        private final Key to;
+        private Node next;
+        private Node lastReturned;
+        private int expectedModCount = modCount;
+
+        private Itr(Key from, Key to) {
+            this.to = to;
+            this.next = bounded(ceiling(from));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Task next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (next == null) throw new NoSuchElementException();
+            lastReturned = next;
+            next = bounded(ceiling(lastReturned.start, lastReturned.id, false));
+            return taskOf(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            root = delete(root, new Key(lastReturned.start, lastReturned.id));
+            expectedModCount = modCount;
+            lastReturned = null;
+        }
+
+        private Node bounded(Node node) {
+            return node != null && to != null && compare(node, to.start, to.id) >= 0 ? null : node;
+        }
+    }
+
+    /**
+     * Представление части набора с ключами в {@code [from, to)}, границы могут отсутствовать
+     */
+    private class SubSet extends AbstractSet<Task> implements SortedSet<Task> {
+        private final Key from;
+        private final Key to;
+
+        private SubSet(Key from, Key to) {
+            if (from != null && to != null && from.compareTo(to) > 0) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Itr(from, to);
+        }
+
+        @Override
+        public int size() {
+            return Math.max(0, (to == null ? size : rank(to)) - (from == null ? 0 : rank(from)));
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Task task && inRange(task) && TaskIntervalTree.this.contains(task);
+        }
+
+        @Override
+        public boolean add(Task task) {
+            if (!inRange(task)) throw new IllegalArgumentException("Key out of range");
+            return TaskIntervalTree.this.add(task);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Task task && inRange(task) && TaskIntervalTree.this.remove(task);
+        }
+
+        @Override
+        public Comparator<? super Task> comparator() {
+            return PRIORITY_ORDER;
+        }
+
+        @Override
+        public SortedSet<Task> subSet(Task fromElement, Task toElement) {
+            return new SubSet(max(from, Key.of(fromElement)), min(to, Key.of(toElement)));
+        }
+
+        @Override
+        public SortedSet<Task> headSet(Task toElement) {
+            return new SubSet(from, min(to, Key.of(toElement)));
+        }
+
+        @Override
+        public SortedSet<Task> tailSet(Task fromElement) {
+            return new SubSet(max(from, Key.of(fromElement)), to);
+        }
+
+        @Override
+        public Task first() {
+            Iterator<Task> iterator = iterator();
+            if (!iterator.hasNext()) throw new NoSuchElementException();
+            return iterator.next();
+        }
+
+        @Override
+        public Task last() {
+            Node node = lower(to);
+            if (node == null || from != null && compare(node, from.start, from.id) < 0) {
+                throw new NoSuchElementException();
+            }
+            return taskOf(node);
+        }
+
+        private boolean inRange(Task task) {
+            if (task.getStartEpochSecond() == Task.NO_TIME) return false;
+            Key key = Key.of(task);
+            return (from == null || key.compareTo(from) >= 0) && (to == null || key.compareTo(to) < 0);
+        }
+
+        private static Key max(Key bound, Key value) {
+            return bound == null || value.compareTo(bound) > 0 ? value : bound;
+        }
+
+        private static Key min(Key bound, Key value) {
+            return bound == null || value.compareTo(bound) < 0 ? value : bound;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.util.CsvTaskParser;
+import ru.yandex.practicum.vilkovam.util.TaskSaveUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Журнал изменений (write-ahead log) для {@link JournaledTaskManager}.
+ * Каждая мутация дописывается в конец файла одной записью:
+ * <pre>
+ * PUT,&lt;строка задачи в формате CSV&gt;
+ * REMOVE,&lt;id&gt;,&lt;type&gt;
+ * </pre>
+ * Записи PUT хранят полное состояние объекта, поэтому повторное применение журнала идемпотентно.
+ * Момент физической записи на диск определяется {@link CommitPolicy}.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 10:12
+ * @project java-kanban
+ */
+public final class TaskJournal implements ChangeLog {
+    private static final String DELIMITER = ",";
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final CommitPolicy commitPolicy;
+    private final StringBuilder pending = new StringBuilder();
+    private final ScheduledExecutorService committer;
+    private FileChannel channel;
+    private int pendingRecords;
+    private RuntimeException failure;
+
+    private long commits;
+    private long committedRecords;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+    private int maxBatchSize;
+
+    public TaskJournal(Path path) {
+        this(path, CommitPolicy.osBuffered());
+    }
+
+    public TaskJournal(Path path, CommitPolicy commitPolicy) {
+        this.path = path;
+        this.commitPolicy = commitPolicy;
+        if (commitPolicy.mode() == CommitPolicy.Mode.GROUP && commitPolicy.maxDelayMillis() > 0) {
+            committer = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("task-journal-committer").daemon().factory());
+            committer.scheduleAtFixedRate(this::commitInBackground,
+                    commitPolicy.maxDelayMillis(), commitPolicy.maxDelayMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            committer = null;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void reserve(ItemType type, Integer id, int changes) {
+        throwIfFailed();
+    }
+
+    @Override
+    public void put(Task task) {
+        append(Operation.PUT.name() + DELIMITER + TaskSaveUtils.toString(task));
+    }
+
+    @Override
+    public void remove(ItemType type, Integer id) {
+        append(Operation.REMOVE.name() + DELIMITER + id + DELIMITER + type.name());
+    }
+
+    private synchronized void append(String entry) {
+        throwIfFailed();
+        pending.append(entry).append(System.lineSeparator());
+        pendingRecords++;
+        if (pendingRecords >= commitPolicy.maxBatchSize()) {
+            commit();
+        }
+    }
+
+    /**
+     * Запись и фиксация всех накопленных записей. Если запись не удалась, файл обрезается до размера
+     * перед записью и накопленные записи остаются для повторной попытки: иначе повтор дописал бы их
+     * после оборванной записи в середине журнала. Если обрезать файл не удалось, журнал считается
+     * испорченным и следующие вызовы бросают то же исключение.
+     */
+    @Override
+    public synchronized void commit() {
+        throwIfFailed();
+        if (pendingRecords == 0) return;
+        long start = System.nanoTime();
+        long sizeBefore = -1;
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(path, CREATE, WRITE, APPEND);
+            }
+            sizeBefore = channel.size();
+            ByteBuffer buffer = ByteBuffer.wrap(pending.toString().getBytes(UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (commitPolicy.mode() != CommitPolicy.Mode.OS_BUFFERED) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            ManagerSaveException exception =
+                    new ManagerSaveException("Cannot append to journal " + path.toAbsolutePath(), e);
+            rollback(sizeBefore, exception);
+            throw exception;
+        }
+        long latency = System.nanoTime() - start;
+        commits++;
+        committedRecords += pendingRecords;
+        totalLatencyNanos += latency;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+        maxBatchSize = Math.max(maxBatchSize, pendingRecords);
+        pending.setLength(0);
+        pendingRecords = 0;
+    }
+
+    @Override
+    public synchronized CommitStats getStats() {
+        return new CommitStats(commits, committedRecords, totalLatencyNanos, maxLatencyNanos, maxBatchSize);
+    }
+
+    /**
+     * Фиксирует накопленные записи и освобождает файл журнала, например перед его удалением.
+     * Следующая запись откроет файл заново.
+     */
+    @Override
+    public synchronized void release() {
+        commit();
+        closeChannel();
+    }
+
+    @Override
+    public synchronized void rotate(Path target) {
+        release();
+        try {
+            if (!Files.exists(path)) return;
+            if (Files.exists(target)) {
+                try (FileChannel source = FileChannel.open(path, READ);
+                     FileChannel destination = FileChannel.open(target, WRITE, APPEND)) {
+                    long position = 0;
+                    long size = source.size();
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, destination);
+                    }
+                    destination.force(true);
+                }
+                Files.delete(path);
+            } else {
+                Files.move(path, target, ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot rotate journal " + path.toAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (committer != null) {
+            committer.shutdown();
+        }
+        try {
+            commit();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Отмена частично записанного пакета
+     *
+     * @param size  journal size before the failed write, negative if nothing was written
+     * @param cause failure of the write
+     */
+    private void rollback(long size, ManagerSaveException cause) {
+        if (channel == null || size < 0) return;
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            failure = cause;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Cannot close journal " + path.toAbsolutePath(), e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * Фиксация по таймеру. Ошибка записи не запоминается: пакет остается в памяти до следующей фиксации,
+     * испорченным журнал считает только {@link #commit()}, если не удалось отменить частичную запись.
+     */
+    private synchronized void commitInBackground() {
+        if (failure != null) return;
+        try {
+            commit();
+        } catch (RuntimeException ignored) {
+            // пакет будет записан следующей фиксацией
+        }
+    }
+
+    private void throwIfFailed() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Последовательно применяет записи журнала.
+     *
+     * @param path     journal file, missing file means empty journal
+     * @param onPut    consumer for restored {@link Task}/{@link ru.yandex.practicum.vilkovam.model.Epic}/{@link ru.yandex.practicum.vilkovam.model.Subtask}
+     * @param onRemove consumer for removed item type and id
+     * @return count of applied records
+     */
+    public static int replay(Path path, Consumer<Task> onPut, BiConsumer<ItemType, Integer> onRemove) throws IOException {
+        if (!Files.exists(path)) return 0;
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, UTF_8)) {
+            CsvTaskParser parser = new CsvTaskParser(reader);
+            while (parser.hasNextRecord()) {
+                switch (parser.readEnum(OPERATIONS)) {
+                    case PUT -> {
+                        Task task = parser.readTask();
+                        if (task == null) {
+                            throw new IllegalArgumentException("Wrong columns count in journal record " + (count + 1));
+                        }
+                        onPut.accept(task);
+                    }
+                    case REMOVE -> {
+                        int id = parser.readInt();
+                        ItemType type = parser.readEnum(ItemType.values());
+                        parser.endRecord();
+                        onRemove.accept(type, id);
+                    }
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Отрезание оборванной последней записи. Граница записи - перевод строки вне кавычек,
+     * поэтому переводы строк внутри полей в кавычках границами не считаются.
+     *
+     * @param path journal file
+     * @return count of discarded bytes
+     */
+    public static long truncateTornTail(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ, WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            long size = channel.size();
+            long position = 0;
+            long validLength = 0;
+            boolean quoted = false;
+            while (position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) break;
+                byte[] bytes = buffer.array();
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] == '"') {
+                        quoted = !quoted;
+                    } else if (bytes[i] == '\n' && !quoted) {
+                        validLength = position + i + 1;
+                    }
+                }
+                position += read;
+            }
+            if (validLength < size) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+            return size - validLength;
+        }
+    }
+
+    public enum Operation {
+        PUT,
+        REMOVE
+    }
+}
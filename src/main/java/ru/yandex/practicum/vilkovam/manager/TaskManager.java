@@ -1,9 +1,13 @@
 package ru.yandex.practicum.vilkovam.manager;
 
 import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemSnapshot;
 import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -16,6 +20,18 @@ public interface TaskManager {
 
     Set<Task> getPrioritizedTasks();
 
+    List<Task> getOverlappingTasks(LocalDateTime from, LocalDateTime to);
+
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to);
+
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int offset, int limit);
+
+    List<Task> getPrioritizedTasksDescending(LocalDateTime from, LocalDateTime to, int offset, int limit);
+
+    LocalDateTime findFreeSlot(Duration duration, LocalDateTime earliestStart, LocalDateTime horizon);
+
+    List<LocalDateTime> findFreeSlots(Duration duration, LocalDateTime earliestStart, LocalDateTime horizon, int count);
+
     Task createTask(Task task);
 
     Task getTaskById(Integer id);
@@ -48,7 +64,21 @@ public interface TaskManager {
 
     List<Subtask> getAllSubtaskByEpicId(Integer epicId);
 
+    List<Task> getTasksByStatus(TaskStatus status);
+
+    List<Epic> getEpicsByStatus(TaskStatus status);
+
+    List<Subtask> getSubtasksByStatus(TaskStatus status);
+
+    List<Subtask> getSubtasksByEpicIdAndStatus(Integer epicId, TaskStatus status);
+
     List<Task> getUnifiedTaskList();
 
+    ItemSnapshot getSnapshotById(Integer id);
+
+    List<ItemSnapshot> getUnifiedSnapshotList();
+
+    List<Integer> search(String query);
+
     List<Task> getHistory();
 }
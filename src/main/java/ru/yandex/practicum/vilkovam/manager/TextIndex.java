@@ -0,0 +1,202 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Обратный индекс слов из названий и описаний. Текст разбивается на слова по символам, не являющимся
+ * буквами или цифрами, слова приводятся к нижнему регистру. Для каждого слова хранится список
+ * {@code (id, число вхождений)} в двух массивах {@code int[]}, упорядоченных по id,
+ * для каждого объекта - массив его слов, чтобы удалить объект без повторного разбора текста.
+ * <p>
+ * Запрос - одно или несколько слов, каждое ищется как префикс, объект должен содержать все слова запроса.
+ * Результаты упорядочены по числу вхождений найденных слов.
+ * <p>
+ * Память: 8 байт на пару слово-объект в списке слова (до 16 байт с запасом роста массивов) и 4 байта
+ * на ссылку в массиве слов объекта; на каждое уникальное слово - около 120 байт на узел {@code TreeMap},
+ * объект списка и заголовки массивов плюс сама строка слова.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 15:05
+ * @project java-kanban
+ */
+public class TextIndex {
+    private final TreeMap<String, Postings> termToPostings = new TreeMap<>();
+    private final Map<Integer, String[]> idToTerms = new HashMap<>();
+    private long postingCount;
+
+    /**
+     * Индексация объекта. Слова, которые остались в тексте, обновляются на месте,
+     * поэтому повторная индексация неизмененного текста не сдвигает списки объектов.
+     *
+     * @param id    item id
+     * @param texts item texts, {@code null} values are skipped
+     */
+    public void put(int id, String... texts) {
+        Map<String, Integer> termCounts = new LinkedHashMap<>();
+        for (String text : texts) {
+            for (String term : tokenize(text)) {
+                termCounts.merge(term, 1, Integer::sum);
+            }
+        }
+        String[] oldTerms = idToTerms.remove(id);
+        if (oldTerms != null) {
+            for (String term : oldTerms) {
+                if (!termCounts.containsKey(term)) {
+                    removePosting(term, id);
+                }
+            }
+        }
+        if (termCounts.isEmpty()) return;
+        String[] terms = new String[termCounts.size()];
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : termCounts.entrySet()) {
+            Map.Entry<String, Postings> indexed = termToPostings.ceilingEntry(entry.getKey());
+            Postings postings;
+            if (indexed != null && indexed.getKey().equals(entry.getKey())) {
+                terms[index++] = indexed.getKey();
+                postings = indexed.getValue();
+            } else {
+                terms[index++] = entry.getKey();
+                postings = new Postings();
+                termToPostings.put(entry.getKey(), postings);
+            }
+            if (postings.put(id, entry.getValue())) {
+                postingCount++;
+            }
+        }
+        idToTerms.put(id, terms);
+    }
+
+    public void remove(int id) {
+        String[] terms = idToTerms.remove(id);
+        if (terms == null) return;
+        for (String term : terms) {
+            removePosting(term, id);
+        }
+    }
+
+    /**
+     * Поиск объектов, содержащих все слова запроса как префиксы своих слов
+     *
+     * @param query words separated by spaces or punctuation
+     * @return hits ordered by {@link SearchHit#BY_RANK}
+     */
+    public List<SearchHit> search(String query) {
+        String[] queryTerms = tokenize(query).stream().distinct().toArray(String[]::new);
+        if (queryTerms.length == 0) return List.of();
+        Map<Integer, Integer> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<Integer, Integer> termScores = new HashMap<>();
+            for (Postings postings : withPrefix(queryTerm).values()) {
+                for (int i = 0; i < postings.size; i++) {
+                    if (scores == null || scores.containsKey(postings.ids[i])) {
+                        termScores.merge(postings.ids[i], postings.counts[i], Integer::sum);
+                    }
+                }
+            }
+            if (scores != null) {
+                Map<Integer, Integer> previousScores = scores;
+                termScores.replaceAll((id, score) -> score + previousScores.get(id));
+            }
+            scores = termScores;
+            if (scores.isEmpty()) return List.of();
+        }
+        List<SearchHit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> hits.add(new SearchHit(id, score)));
+        hits.sort(SearchHit.BY_RANK);
+        return hits;
+    }
+
+    /**
+     * Число уникальных слов в индексе
+     */
+    public int getTermCount() {
+        return termToPostings.size();
+    }
+
+    /**
+     * Число пар слово-объект в индексе
+     */
+    public long getPostingCount() {
+        return postingCount;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) return List.of();
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private void removePosting(String term, int id) {
+        Postings postings = termToPostings.get(term);
+        if (postings != null && postings.remove(id)) {
+            postingCount--;
+            if (postings.size == 0) {
+                termToPostings.remove(term);
+            }
+        }
+    }
+
+    private NavigableMap<String, Postings> withPrefix(String prefix) {
+        return termToPostings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Список объектов одного слова, упорядоченный по id. Новые объекты обычно получают наибольший id,
+     * поэтому добавление чаще всего идет в конец массива.
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int[] counts = new int[2];
+        private int size;
+
+        /**
+         * @return {@code true} if id was added, {@code false} if its count was updated
+         */
+        private boolean put(int id, int count) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                counts[index] = count;
+                return false;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(counts, index, counts, index + 1, size - index);
+            ids[index] = id;
+            counts[index] = count;
+            size++;
+            return true;
+        }
+
+        private boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) return false;
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(counts, index + 1, counts, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
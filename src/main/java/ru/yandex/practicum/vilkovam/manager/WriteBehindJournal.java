@@ -0,0 +1,331 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
+import ru.yandex.practicum.vilkovam.exceptions.WriteQueueFullException;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Отложенная запись журнала. Вызывающий поток только кладет изменение в ограниченную очередь,
+ * запись в {@link TaskJournal} и fsync выполняет отдельный поток пачками из всего накопленного.
+ * Изменения одного объекта, ожидающие записи, схлопываются в одно - последнее.
+ * <p>
+ * Каждому изменению присваивается порядковый номер. {@link #flush()} и {@link #awaitDurable(long, TimeUnit)}
+ * ждут, пока будут зафиксированы все изменения, принятые до их вызова.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 19:02
+ * @project java-kanban
+ */
+public class WriteBehindJournal implements ChangeLog {
+    private final ChangeLog target;
+    private final WriteBehindPolicy policy;
+    private Map<ItemKey, Task> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition written = lock.newCondition();
+    private final Thread writer;
+    private long acceptedSequence;
+    private long durableSequence;
+    private long coalesced;
+    private boolean closed;
+    private int reservedChanges;
+    private RuntimeException failure;
+
+    public WriteBehindJournal(Path path, WriteBehindPolicy policy) {
+        this(new TaskJournal(path, CommitPolicy.groupCommit(Integer.MAX_VALUE, 0)), policy);
+    }
+
+    WriteBehindJournal(ChangeLog target, WriteBehindPolicy policy) {
+        this.target = target;
+        this.policy = policy;
+        this.writer = Thread.ofPlatform().name("task-write-behind").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Ожидание или отказ при заполненной очереди до изменения объектов. Изменение объекта, который уже ждет
+     * записи, места не занимает. Зарезервированные изменения принимаются без проверок, даже если поток записи
+     * успел завершиться ошибкой: она вернется из {@link #flush()}. Место не может исчезнуть до изменения:
+     * мутации менеджера выполняются по одной, а поток записи очередь только освобождает. Изменение больше
+     * емкости очереди ждет, пока очередь не опустеет, и временно превышает емкость.
+     *
+     * @throws WriteQueueFullException if queue is full and policy is {@link WriteBehindPolicy.Overflow#REJECT}
+     */
+    @Override
+    public void reserve(ItemType type, Integer id, int changes) {
+        lock.lock();
+        try {
+            reservedChanges = 0;
+            throwIfNotAccepting();
+            int slots = changes;
+            if (id != null && pending.containsKey(new ItemKey(type, id))) {
+                slots--;
+            }
+            awaitCapacity(Math.min(slots, policy.capacity()));
+            reservedChanges = changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void endReservation() {
+        lock.lock();
+        try {
+            reservedChanges = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Task task) {
+        enqueue(new ItemKey(task.getType(), task.getId()), task);
+    }
+
+    @Override
+    public void remove(ItemType type, Integer id) {
+        enqueue(new ItemKey(type, id), null);
+    }
+
+    /**
+     * Постановка изменения в очередь
+     *
+     * @param key  changed item
+     * @param task item state, {@code null} for removed item
+     * @throws WriteQueueFullException if queue is full and policy is {@link WriteBehindPolicy.Overflow#REJECT}
+     */
+    private void enqueue(ItemKey key, Task task) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new ManagerSaveException("Write-behind journal is closed");
+            }
+            boolean reserved = reservedChanges > 0;
+            if (reserved) {
+                reservedChanges--;
+            } else {
+                throwIfFailed();
+            }
+            if (pending.containsKey(key)) {
+                pending.remove(key);
+                coalesced++;
+            } else if (!reserved) {
+                awaitCapacity(1);
+            }
+            pending.put(key, task);
+            acceptedSequence++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void throwIfNotAccepting() {
+        throwIfFailed();
+        if (closed) {
+            throw new ManagerSaveException("Write-behind journal is closed");
+        }
+    }
+
+    private void awaitCapacity(int slots) {
+        while (pending.size() + slots > policy.capacity()) {
+            if (policy.overflow() == WriteBehindPolicy.Overflow.REJECT) {
+                throw new WriteQueueFullException(policy.capacity());
+            }
+            notFull.awaitUninterruptibly();
+            throwIfFailed();
+        }
+    }
+
+    /**
+     * Ожидание фиксации всех изменений, принятых до вызова
+     */
+    @Override
+    public void commit() {
+        flush();
+    }
+
+    /**
+     * Ожидание фиксации всех изменений, принятых до вызова
+     *
+     * @throws ManagerSaveException if writer failed or thread was interrupted
+     */
+    public void flush() {
+        try {
+            awaitDurable(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManagerSaveException("Interrupted while waiting for write-behind flush", e);
+        }
+    }
+
+    /**
+     * Ожидание фиксации всех изменений, принятых до вызова, не дольше {@code timeout}
+     *
+     * @param timeout max time to wait
+     * @param unit    time unit of {@code timeout}
+     * @return {@code true} if changes are durable, {@code false} if timeout elapsed
+     * @throws ManagerSaveException if writer failed
+     */
+    public boolean awaitDurable(long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            long sequence = acceptedSequence;
+            long nanos = unit.toNanos(timeout);
+            while (durableSequence < sequence) {
+                throwIfFailed();
+                if (nanos <= 0) return false;
+                nanos = written.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Количество изменений, ожидающих записи
+     *
+     * @return pending items count
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Количество изменений, замененных более поздним изменением того же объекта до записи
+     *
+     * @return coalesced changes count
+     */
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CommitStats getStats() {
+        return target.getStats();
+    }
+
+    @Override
+    public void release() {
+        flush();
+        target.release();
+    }
+
+    @Override
+    public void rotate(Path path) {
+        flush();
+        target.rotate(path);
+    }
+
+    /**
+     * Запись оставшихся изменений и остановка потока записи
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            lock.lock();
+            try {
+                throwIfFailed();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            target.close();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Map<ItemKey, Task> batch;
+            long batchSequence;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) return;
+                batch = pending;
+                batchSequence = acceptedSequence;
+                pending = new LinkedHashMap<>();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            RuntimeException error = null;
+            try {
+                for (Map.Entry<ItemKey, Task> change : batch.entrySet()) {
+                    if (change.getValue() != null) {
+                        target.put(change.getValue());
+                    } else {
+                        target.remove(change.getKey().type(), change.getKey().id());
+                    }
+                }
+                target.commit();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSequence = batchSequence;
+                }
+                written.signalAll();
+                notFull.signalAll();
+                if (error != null) return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void throwIfFailed() {
+        if (failure != null) {
+            throw new ManagerSaveException("Write-behind journal failed", failure);
+        }
+    }
+
+    private record ItemKey(ItemType type, Integer id) {
+    }
+}
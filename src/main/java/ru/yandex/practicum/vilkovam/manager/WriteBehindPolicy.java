@@ -0,0 +1,42 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+/**
+ * Политика очереди отложенной записи {@link WriteBehindJournal}.
+ * Очередь ограничена количеством разных объектов: повторное изменение объекта,
+ * который еще ждет записи, заменяет его запись и места не занимает.
+ * <ul>
+ *     <li>{@link Overflow#BLOCK} - при заполненной очереди вызывающий поток ждет освобождения места;</li>
+ *     <li>{@link Overflow#REJECT} - при заполненной очереди изменение отклоняется исключением
+ *     {@link ru.yandex.practicum.vilkovam.exceptions.WriteQueueFullException}.</li>
+ * </ul>
+ *
+ * @param capacity max count of items waiting for write
+ * @param overflow behaviour when queue is full
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 18:45
+ * @project java-kanban
+ */
+public record WriteBehindPolicy(int capacity, Overflow overflow) {
+
+    public WriteBehindPolicy {
+        if (overflow == null) {
+            throw new IllegalArgumentException("Overflow behaviour must be set");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Wrong write-behind queue capacity: " + capacity);
+        }
+    }
+
+    public static WriteBehindPolicy blocking(int capacity) {
+        return new WriteBehindPolicy(capacity, Overflow.BLOCK);
+    }
+
+    public static WriteBehindPolicy rejecting(int capacity) {
+        return new WriteBehindPolicy(capacity, Overflow.REJECT);
+    }
+
+    public enum Overflow {
+        BLOCK,
+        REJECT
+    }
+}
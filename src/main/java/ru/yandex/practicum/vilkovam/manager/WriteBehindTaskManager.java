@@ -0,0 +1,84 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.io.File;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Менеджер с отложенной записью: мутации сразу меняют состояние в памяти, а изменения
+ * пишутся в журнал отдельным потоком {@link WriteBehindJournal}. Сбой или задержка диска
+ * не останавливает вызывающий поток, пока в очереди есть место.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 19:30
+ * @project java-kanban
+ */
+public class WriteBehindTaskManager extends JournaledTaskManager {
+    private final WriteBehindJournal writeBehindJournal;
+
+    public WriteBehindTaskManager(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                  WriteBehindPolicy policy) {
+        this(file, idGenerator, historyManager, new WriteBehindJournal(getJournalPath(file), policy));
+    }
+
+    WriteBehindTaskManager(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                           WriteBehindJournal journal) {
+        super(file, idGenerator, historyManager, journal);
+        this.writeBehindJournal = journal;
+    }
+
+    public WriteBehindTaskManager(File file,
+                                  SortedSet<Task> prioritizedTasks,
+                                  HistoryManager historyManager,
+                                  ControllersHolder controllers,
+                                  WriteBehindPolicy policy) {
+        this(file, prioritizedTasks, historyManager, controllers, new WriteBehindJournal(getJournalPath(file), policy));
+    }
+
+    private WriteBehindTaskManager(File file,
+                                   SortedSet<Task> prioritizedTasks,
+                                   HistoryManager historyManager,
+                                   ControllersHolder controllers,
+                                   WriteBehindJournal journal) {
+        super(file, prioritizedTasks, historyManager, controllers, journal);
+        this.writeBehindJournal = journal;
+    }
+
+    public static WriteBehindTaskManager loadFromFile(File file, IdGenerator idGenerator, HistoryManager historyManager,
+                                                      WriteBehindPolicy policy) {
+        LoadedBoard board = loadBoard(file, idGenerator);
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(file, board.prioritizedTasks(),
+                historyManager, board.controllers(), policy);
+        manager.afterLoad(board);
+        return manager;
+    }
+
+    /**
+     * Ожидание записи на диск всех изменений, сделанных до вызова
+     */
+    public void flush() {
+        writeBehindJournal.flush();
+    }
+
+    /**
+     * Ожидание записи на диск всех изменений, сделанных до вызова, не дольше {@code timeout}
+     *
+     * @param timeout max time to wait
+     * @param unit    time unit of {@code timeout}
+     * @return {@code true} if changes are durable, {@code false} if timeout elapsed
+     */
+    public boolean awaitDurable(long timeout, TimeUnit unit) throws InterruptedException {
+        return writeBehindJournal.awaitDurable(timeout, unit);
+    }
+
+    /**
+     * Количество объектов, изменения которых ждут записи
+     *
+     * @return pending items count
+     */
+    public int getPendingCount() {
+        return writeBehindJournal.getPendingCount();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.vilkovam.model;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,7 +12,8 @@ import java.util.List;
  */
 public class Epic extends Task {
     private final List<Integer> subtaskIds = new ArrayList<>();
-    private LocalDateTime endTime;
+    private long endEpochSecond = NO_TIME;
+    private int endNano;
 
     public Epic(String name, String description) {
         super(name, description);
@@ -24,7 +26,8 @@ public class Epic extends Task {
     public Epic(Epic epic) {
         super(epic);
         this.subtaskIds.addAll(epic.subtaskIds);
-        this.endTime = epic.endTime;
+        this.endEpochSecond = epic.endEpochSecond;
+        this.endNano = epic.endNano;
     }
 
     public Epic(Integer id, String name, String description, TaskStatus status, List<Integer> subtaskIds) {
@@ -43,11 +46,26 @@ public class Epic extends Task {
 
     @Override
     public LocalDateTime getEndTime() {
-        return endTime;
+        return endEpochSecond == NO_TIME ? null
+                : LocalDateTime.ofEpochSecond(endEpochSecond, endNano, ZoneOffset.UTC);
+    }
+
+    /**
+     * Время окончания эпика задается по его подзадачам, а не вычисляется по началу и продолжительности
+     */
+    @Override
+    public long getEndEpochSecond() {
+        return endEpochSecond;
+    }
+
+    @Override
+    public int getEndNano() {
+        return endNano;
     }
 
     public void setEndTime(LocalDateTime endTime) {
-        this.endTime = endTime;
+        this.endEpochSecond = toEpochSecond(endTime);
+        this.endNano = endTime == null ? 0 : endTime.getNano();
     }
 
     @Override
@@ -60,7 +78,7 @@ public class Epic extends Task {
                 ", subtasks.size=" + getSubtaskIds().size() +
                 ", duration='" + getDuration() + '\'' +
                 ", startTime='" + getStartTime() + '\'' +
-                ", endTime='" + endTime + '\'' +
+                ", endTime='" + getEndTime() + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.vilkovam.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок {@link Task}/{@link Epic}/{@link Subtask}. В отличие от копий, которые
+ * возвращают методы менеджера, один снимок можно отдавать всем читателям: его нельзя изменить.
+ * Список подзадач эпика неизменяемый и переиспользуется следующим снимком, если состав подзадач не менялся.
+ *
+ * @param epicId     epic id for {@link Subtask}, otherwise {@code null}
+ * @param subtaskIds subtask ids for {@link Epic}, otherwise empty list
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 14:30
+ * @project java-kanban
+ */
+public record ItemSnapshot(int id,
+                           ItemType type,
+                           String name,
+                           String description,
+                           TaskStatus status,
+                           Duration duration,
+                           LocalDateTime startTime,
+                           LocalDateTime endTime,
+                           Integer epicId,
+                           List<Integer> subtaskIds) {
+
+    public static ItemSnapshot of(Task task) {
+        return of(task, null);
+    }
+
+    /**
+     * Снимок объекта, разделяющий со своей прежней версией список подзадач, если он не изменился
+     *
+     * @param task     stored item
+     * @param previous snapshot of previous item version, may be {@code null}
+     * @return snapshot of {@code task}
+     */
+    public static ItemSnapshot of(Task task, ItemSnapshot previous) {
+        return of(task, task.getDescription(), previous);
+    }
+
+    /**
+     * Снимок объекта, описание которого хранится отдельно от него
+     *
+     * @param task        stored item
+     * @param description item description
+     * @param previous    snapshot of previous item version, may be {@code null}
+     * @return snapshot of {@code task} with {@code description}
+     */
+    public static ItemSnapshot of(Task task, String description, ItemSnapshot previous) {
+        Integer epicId = task instanceof Subtask subtask ? subtask.getEpicId() : null;
+        List<Integer> subtaskIds = List.of();
+        if (task instanceof Epic epic && !epic.getSubtaskIds().isEmpty()) {
+            subtaskIds = previous != null && previous.subtaskIds.equals(epic.getSubtaskIds())
+                    ? previous.subtaskIds
+                    : List.copyOf(epic.getSubtaskIds());
+        }
+        return new ItemSnapshot(task.getId(), task.getType(), task.getName(), description, task.getStatus(),
+                task.getDuration(), task.getStartTime(), task.getEndTime(), epicId, subtaskIds);
+    }
+
+    /**
+     * Изменяемая копия для кода, работающего с моделью
+     *
+     * @return new {@link Task}, {@link Epic} or {@link Subtask}
+     */
+    public Task toTask() {
+        return switch (type) {
+            case TASK -> new Task(id, name, description, status, duration, startTime);
+            case SUBTASK -> new Subtask(id, name, description, status, epicId, duration, startTime);
+            case EPIC -> {
+                Epic epic = new Epic(id, name, description, status, subtaskIds);
+                epic.setDuration(duration);
+                epic.setStartTime(startTime);
+                epic.setEndTime(endTime);
+                yield epic;
+            }
+        };
+    }
+}
@@ -1,21 +1,40 @@
 package ru.yandex.practicum.vilkovam.model;
 
+import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
 /**
+ * Время начала и продолжительность хранятся примитивами: секунды от эпохи (UTC) и наносекунды.
+ * Секунда окончания вычисляется при изменении времени начала или продолжительности, а не при каждом чтении.
+ * Индексы и проверки пересечений работают с секундами, {@link LocalDateTime} и {@link Duration} остаются
+ * API объекта и создаются при вызове геттеров.
+ *
  * @author Andrew Vilkov
  * @created 28.08.2025 - 10:50
  * @project java-kanban
  */
 public class Task {
+    /**
+     * Значение {@link #getStartEpochSecond()} и {@link #getEndEpochSecond()} при отсутствии времени
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NANOS_PER_SECOND = 1_000_000_000;
+    private static final int NO_DURATION = -1;
+    private static final long MIN_EPOCH_SECOND = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_EPOCH_SECOND = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+
     private Integer id;
     private String name;
     private String description;
     private TaskStatus status;
-    private Duration duration;
-    private LocalDateTime startTime;
+    private long startEpochSecond = NO_TIME;
+    private int startNano;
+    private long durationSeconds;
+    private int durationNano = NO_DURATION;
+    private long endEpochSecond = NO_TIME;
 
     public Task() {
     }
@@ -42,13 +61,21 @@ public class Task {
         this.name = name;
         this.description = description;
         this.status = status;
-        this.duration = duration;
-        this.startTime = startTime;
+        setDurationValue(duration);
+        setStartTimeValue(startTime);
+        updateEnd();
     }
 
+    /**
+     * Копия объекта; вычисленное время окончания копируется, а не вычисляется заново
+     */
     public Task(Task task) {
-        this(task.getId(), task.getName(), task.getDescription(), task.getStatus(), task.getDuration(),
-                task.getStartTime());
+        this(task.getId(), task.getName(), task.getDescription(), task.getStatus());
+        this.startEpochSecond = task.startEpochSecond;
+        this.startNano = task.startNano;
+        this.durationSeconds = task.durationSeconds;
+        this.durationNano = task.durationNano;
+        this.endEpochSecond = task.endEpochSecond;
     }
 
     public Integer getId() {
@@ -88,24 +115,112 @@ public class Task {
     }
 
     public Duration getDuration() {
-        return duration;
+        return durationNano == NO_DURATION ? null : Duration.ofSeconds(durationSeconds, durationNano);
     }
 
     public void setDuration(Duration duration) {
-        this.duration = duration;
+        setDurationValue(duration);
+        updateEnd();
     }
 
     public LocalDateTime getStartTime() {
-        return startTime;
+        return startEpochSecond == NO_TIME ? null
+                : LocalDateTime.ofEpochSecond(startEpochSecond, startNano, ZoneOffset.UTC);
     }
 
     public LocalDateTime getEndTime() {
-        if (startTime == null || duration == null) return null;
-        return startTime.plus(duration);
+        if (startEpochSecond == NO_TIME || durationNano == NO_DURATION) return null;
+        return LocalDateTime.ofEpochSecond(endEpochSecond, (startNano + durationNano) % NANOS_PER_SECOND,
+                ZoneOffset.UTC);
     }
 
     public void setStartTime(LocalDateTime startTime) {
-        this.startTime = startTime;
+        setStartTimeValue(startTime);
+        updateEnd();
+    }
+
+    /**
+     * Время начала в секундах от эпохи (UTC) без создания объектов
+     *
+     * @return start second or {@link #NO_TIME}
+     */
+    public long getStartEpochSecond() {
+        return startEpochSecond;
+    }
+
+    /**
+     * Время окончания в секундах от эпохи (UTC) без создания объектов
+     *
+     * @return end second or {@link #NO_TIME} if {@link #getEndTime()} is {@code null}
+     */
+    public long getEndEpochSecond() {
+        return endEpochSecond;
+    }
+
+    /**
+     * Наносекунды секунды начала без создания объектов
+     *
+     * @return start nanos, {@code 0} if {@link #getStartTime()} is {@code null}
+     */
+    public int getStartNano() {
+        return startNano;
+    }
+
+    /**
+     * Наносекунды секунды окончания без создания объектов
+     *
+     * @return end nanos, {@code 0} if {@link #getEndTime()} is {@code null}
+     */
+    public int getEndNano() {
+        return endEpochSecond == NO_TIME ? 0 : (startNano + durationNano) % NANOS_PER_SECOND;
+    }
+
+    /**
+     * Секунды продолжительности без создания объектов
+     *
+     * @return duration seconds, {@code 0} if {@link #getDuration()} is {@code null}
+     */
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /**
+     * Наносекунды продолжительности без создания объектов
+     *
+     * @return duration nanos, {@code 0} if {@link #getDuration()} is {@code null}
+     */
+    public int getDurationNano() {
+        return durationNano == NO_DURATION ? 0 : durationNano;
+    }
+
+    private void setStartTimeValue(LocalDateTime startTime) {
+        startEpochSecond = toEpochSecond(startTime);
+        startNano = startTime == null ? 0 : startTime.getNano();
+    }
+
+    private void setDurationValue(Duration duration) {
+        durationSeconds = duration == null ? 0 : duration.getSeconds();
+        durationNano = duration == null ? NO_DURATION : duration.getNano();
+    }
+
+    /**
+     * Секунда окончания без создания объектов; переполнение проверяется так же, как в {@link LocalDateTime#plus}
+     */
+    private void updateEnd() {
+        if (startEpochSecond == NO_TIME || durationNano == NO_DURATION) {
+            endEpochSecond = NO_TIME;
+            return;
+        }
+        long end = Math.addExact(startEpochSecond, durationSeconds);
+        end = Math.addExact(end, (startNano + durationNano) / NANOS_PER_SECOND);
+        if (end < MIN_EPOCH_SECOND || end > MAX_EPOCH_SECOND) {
+            throw new DateTimeException("End time exceeds the supported range");
+        }
+        endEpochSecond = end;
+    }
+
+    protected static long toEpochSecond(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC);
     }
 
 
@@ -127,8 +242,8 @@ public class Task {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", status=" + status +
-                ", duration='" + duration + '\'' +
-                ", startTime='" + startTime + '\'' +
+                ", duration='" + getDuration() + '\'' +
+                ", startTime='" + getStartTime() + '\'' +
                 '}';
     }
 }
@@ -57,6 +57,11 @@ public final class TaskHolder extends Task {
         throw new UnsupportedOperationException("Изменение объекта запрещено!");
     }
 
+    @Override
+    public ItemType getType() {
+        return task.getType();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o instanceof TaskHolder t) {
@@ -0,0 +1,128 @@
+package ru.yandex.practicum.vilkovam.util;
+
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * Чтение бинарного снимка с проверкой контрольных сумм, см. {@link BinarySnapshotWriter}.
+ * Чтение останавливается на первой оборванной или испорченной записи: все записи до нее
+ * считаются последним корректным состоянием, а {@link #getValidLength()} указывает его границу.
+ * Снимки версии {@link TaskBinaryCodec#UNFRAMED_VERSION} читаются без проверок.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 20:25
+ * @project java-kanban
+ */
+public class BinarySnapshotReader {
+    private static final int MAX_RECORD_SIZE = 1 << 26;
+
+    private final DataInput in;
+    private final byte version;
+    private final CRC32 crc = new CRC32();
+    private byte[] buffer = new byte[256];
+    private long validLength = TaskBinaryCodec.HEADER_SIZE;
+    private int records;
+    private boolean complete;
+    private boolean torn;
+
+    public BinarySnapshotReader(DataInput in) throws IOException {
+        this.in = in;
+        this.version = TaskBinaryCodec.readHeader(in);
+    }
+
+    /**
+     * Чтение следующей записи
+     *
+     * @return restored object or {@code null} at the footer, end of stream or first damaged record
+     */
+    public Task read() throws IOException {
+        if (complete || torn) return null;
+        if (version == TaskBinaryCodec.UNFRAMED_VERSION) {
+            Task task = TaskBinaryCodec.read(in);
+            complete = task == null;
+            if (task != null) records++;
+            return task;
+        }
+        try {
+            int length = TaskBinaryCodec.readVarInt(in);
+            if (length == 0) {
+                readFooter();
+                return null;
+            }
+            if (length < 0 || length > MAX_RECORD_SIZE) {
+                torn = true;
+                return null;
+            }
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            in.readFully(buffer, 0, length);
+            int checksum = in.readInt();
+            crc.reset();
+            crc.update(buffer, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                torn = true;
+                return null;
+            }
+            Task task = TaskBinaryCodec.read(new DataInputStream(new ByteArrayInputStream(buffer, 0, length)));
+            validLength += varIntSize(length) + length + Integer.BYTES;
+            records++;
+            return task;
+        } catch (EOFException e) {
+            torn = true;
+            return null;
+        }
+    }
+
+    private void readFooter() throws IOException {
+        int count = in.readInt();
+        int magic = in.readInt();
+        if (magic != BinarySnapshotWriter.FOOTER_MAGIC || count != records) {
+            torn = true;
+            return;
+        }
+        validLength += BinarySnapshotWriter.FOOTER_SIZE;
+        complete = true;
+    }
+
+    public byte getVersion() {
+        return version;
+    }
+
+    /**
+     * Признак того, что снимок прочитан до футера и все записи прошли проверку
+     *
+     * @return {@code true} if snapshot is complete
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Длина корректного начала файла: заголовок, проверенные записи и футер, если он прочитан
+     *
+     * @return valid prefix length in bytes, {@code -1} for unframed snapshots
+     */
+    public long getValidLength() {
+        return version == TaskBinaryCodec.UNFRAMED_VERSION ? -1 : validLength;
+    }
+
+    public int getRecords() {
+        return records;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.yandex.practicum.vilkovam.util;
+
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * Запись бинарного снимка версии {@link TaskBinaryCodec#VERSION}:
+ * <pre>
+ * int     MAGIC, byte версии
+ * записи: varint длина, байты записи {@link TaskBinaryCodec}, int CRC32 байтов записи
+ * футер:  byte 0, int количество записей, int {@link #FOOTER_MAGIC}
+ * </pre>
+ * Запись не бывает пустой, поэтому нулевая длина однозначно начинает футер.
+ * Снимок без футера считается оборванным.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 20:10
+ * @project java-kanban
+ */
+public class BinarySnapshotWriter {
+    public static final int FOOTER_MAGIC = 0x4B454E44;
+    public static final int FOOTER_SIZE = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private final DataOutput out;
+    private final RecordBuffer record = new RecordBuffer();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final CRC32 crc = new CRC32();
+    private int count;
+
+    public BinarySnapshotWriter(DataOutput out) throws IOException {
+        this.out = out;
+        TaskBinaryCodec.writeHeader(out);
+    }
+
+    public void write(Task task) throws IOException {
+        record.reset();
+        TaskBinaryCodec.write(recordOut, task);
+        crc.reset();
+        crc.update(record.array(), 0, record.size());
+
+        TaskBinaryCodec.writeVarInt(out, record.size());
+        out.write(record.array(), 0, record.size());
+        out.writeInt((int) crc.getValue());
+        count++;
+    }
+
+    /**
+     * Запись футера. Поток не закрывается.
+     */
+    public void finish() throws IOException {
+        out.writeByte(0);
+        out.writeInt(count);
+        out.writeInt(FOOTER_MAGIC);
+    }
+
+    private static class RecordBuffer extends ByteArrayOutputStream {
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package ru.yandex.practicum.vilkovam.util;
+
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Курсорный парсер CSV-записей задач. Числа, перечисления, даты и продолжительность
+ * разбираются прямо из буфера символов, строки создаются только для имени и описания.
+ * Поля в кавычках могут содержать запятые, переводы строк и удвоенные кавычки.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 16:02
+ * @project java-kanban
+ */
+public class CsvTaskParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int EOF = -1;
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+
+    private static final ItemType[] TYPES = ItemType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final Reader reader;
+    private final StringBuilder text = new StringBuilder();
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private int mark = -1;
+    private boolean fieldStarted;
+    private boolean recordEnded;
+
+    public CsvTaskParser(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    private CsvTaskParser(String value) {
+        this.reader = null;
+        this.buffer = value.toCharArray();
+        this.limit = buffer.length;
+    }
+
+    /**
+     * Разбор одной записи из строки
+     *
+     * @param value CSV record
+     * @return parsed object or {@code null} if record has wrong columns count
+     */
+    public static Task parse(String value) {
+        return new CsvTaskParser(value).readTask();
+    }
+
+    public boolean hasNext() {
+        return peek() != EOF;
+    }
+
+    /**
+     * Пропуск пустых строк перед следующей записью
+     *
+     * @return {@code true} if there is a non-empty record to read
+     */
+    public boolean hasNextRecord() {
+        while (peek() == '\r' || peek() == '\n') {
+            position++;
+        }
+        return hasNext();
+    }
+
+    /**
+     * Чтение записи задачи: {@code id,type,name,status,description,startTime,duration,epic}
+     *
+     * @return parsed object or {@code null} if record has wrong columns count
+     */
+    public Task readTask() {
+        int id = readInt();
+        ItemType type = readEnum(TYPES);
+        String name = readText();
+        TaskStatus status = readEnum(STATUSES);
+        String description = readText();
+        LocalDateTime startTime = readDateTime();
+        Duration duration = readDuration();
+        Integer epicId = readOptionalInt();
+        if (!endRecord()) return null;
+
+        return switch (type) {
+            case TASK -> new Task(id, name, description, status, duration, startTime);
+            case EPIC -> new Epic(id, name, description, status, Collections.emptyList());
+            case SUBTASK -> new Subtask(id, name, description, status, epicId, duration, startTime);
+        };
+    }
+
+    /**
+     * Завершение записи. Оставшиеся поля пропускаются.
+     *
+     * @return {@code true} if record had exactly the read columns count
+     */
+    public boolean endRecord() {
+        boolean exact = !recordEnded && isEndOfRecord(peek());
+        while (!isEndOfRecord(peek())) {
+            if (peek() == QUOTE) {
+                skipQuoted();
+            } else {
+                position++;
+            }
+        }
+        if (peek() == '\r') position++;
+        if (peek() == '\n') position++;
+        fieldStarted = false;
+        recordEnded = false;
+        return exact;
+    }
+
+    public int readInt() {
+        Integer value = readOptionalInt();
+        if (value == null) {
+            throw new NumberFormatException("Empty number");
+        }
+        return value;
+    }
+
+    /**
+     * Чтение значения перечисления без создания промежуточной строки
+     *
+     * @param values all enum constants
+     * @return matched constant, {@code null} if record has ended
+     * @throws IllegalArgumentException if field matches no constant
+     */
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        if (!startField()) return null;
+        mark = position;
+        while (!isEndOfField(peek())) {
+            position++;
+        }
+        int start = mark;
+        int length = position - start;
+        mark = -1;
+        for (E value : values) {
+            if (matches(value.name(), start, length)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + new String(buffer, start, length));
+    }
+
+    /**
+     * Чтение текстового поля, в том числе в кавычках
+     *
+     * @return field value, {@code null} if record has ended
+     */
+    public String readText() {
+        if (!startField()) return null;
+        text.setLength(0);
+        if (peek() != QUOTE) {
+            while (!isEndOfField(peek())) {
+                text.append(buffer[position++]);
+            }
+            return text.toString();
+        }
+        position++;
+        while (true) {
+            int c = peek();
+            if (c == EOF) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            position++;
+            if (c == QUOTE) {
+                if (peek() != QUOTE) break;
+                position++;
+            }
+            text.append((char) c);
+        }
+        return text.toString();
+    }
+
+    private Integer readOptionalInt() {
+        if (!startField() || isEndOfField(peek())) return null;
+        long value = readSignedDigits(10);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range: " + value);
+        }
+        checkEndOfField();
+        return (int) value;
+    }
+
+    private Duration readDuration() {
+        if (!startField() || isEndOfField(peek())) return null;
+        long minutes = readSignedDigits(18);
+        checkEndOfField();
+        return Duration.ofMinutes(minutes);
+    }
+
+    /**
+     * Разбор {@code [+-]yyyy-MM-ddTHH:mm[:ss[.n]]}, формата {@link LocalDateTime#toString()}
+     */
+    private LocalDateTime readDateTime() {
+        if (!startField() || isEndOfField(peek())) return null;
+        int year = (int) readSignedDigits(9);
+        expect('-');
+        int month = (int) readDigits(2);
+        expect('-');
+        int day = (int) readDigits(2);
+        expect('T');
+        int hour = (int) readDigits(2);
+        expect(':');
+        int minute = (int) readDigits(2);
+        int second = 0;
+        int nano = 0;
+        if (peek() == ':') {
+            position++;
+            second = (int) readDigits(2);
+            if (peek() == '.') {
+                position++;
+                int digits = 0;
+                while (digits < 9 && isDigit(peek())) {
+                    nano = nano * 10 + (buffer[position++] - '0');
+                    digits++;
+                }
+                for (; digits < 9; digits++) {
+                    nano *= 10;
+                }
+            }
+        }
+        checkEndOfField();
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    private long readSignedDigits(int maxDigits) {
+        boolean negative = peek() == '-';
+        if (negative || peek() == '+') position++;
+        long value = readDigits(maxDigits);
+        return negative ? -value : value;
+    }
+
+    private long readDigits(int maxDigits) {
+        long value = 0;
+        int digits = 0;
+        while (digits < maxDigits && isDigit(peek())) {
+            value = value * 10 + (buffer[position++] - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Expected digit, found " + describe(peek()));
+        }
+        return value;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw new IllegalArgumentException("Expected '" + c + "', found " + describe(peek()));
+        }
+        position++;
+    }
+
+    private void checkEndOfField() {
+        if (!isEndOfField(peek())) {
+            throw new NumberFormatException("Unexpected " + describe(peek()));
+        }
+    }
+
+    /**
+     * Переход к следующему полю: первое поле записи начинается сразу, остальные - после разделителя
+     *
+     * @return {@code false} if record has fewer columns
+     */
+    private boolean startField() {
+        if (recordEnded) return false;
+        if (fieldStarted) {
+            if (peek() != DELIMITER) {
+                recordEnded = true;
+                return false;
+            }
+            position++;
+        }
+        fieldStarted = true;
+        return true;
+    }
+
+    private void skipQuoted() {
+        position++;
+        while (peek() != EOF) {
+            if (buffer[position++] == QUOTE) {
+                if (peek() != QUOTE) return;
+                position++;
+            }
+        }
+    }
+
+    private boolean matches(String name, int start, int length) {
+        if (name.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != buffer[start + i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isEndOfField(int c) {
+        return c == DELIMITER || isEndOfRecord(c);
+    }
+
+    private static boolean isEndOfRecord(int c) {
+        return c == '\n' || c == '\r' || c == EOF;
+    }
+
+    private static String describe(int c) {
+        return c == EOF ? "end of input" : "'" + (char) c + "'";
+    }
+
+    private int peek() {
+        if (position >= limit && !fill()) return EOF;
+        return buffer[position];
+    }
+
+    /**
+     * Дочитывание буфера. Символы, начиная с {@code mark}, сохраняются.
+     */
+    private boolean fill() {
+        if (reader == null) return false;
+        int keep = mark >= 0 ? mark : position;
+        int remaining = limit - keep;
+        if (remaining == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, remaining);
+        }
+        position -= keep;
+        limit = remaining;
+        if (mark >= 0) mark = 0;
+        try {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read <= 0) return false;
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
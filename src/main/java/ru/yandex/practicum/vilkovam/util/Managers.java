@@ -1,22 +1,35 @@
 package ru.yandex.practicum.vilkovam.util;
 
+import ru.yandex.practicum.vilkovam.manager.CommitPolicy;
 import ru.yandex.practicum.vilkovam.manager.ControllersHolder;
 import ru.yandex.practicum.vilkovam.manager.EpicController;
+import ru.yandex.practicum.vilkovam.manager.FileBackedTaskManager;
 import ru.yandex.practicum.vilkovam.manager.HistoryManager;
 import ru.yandex.practicum.vilkovam.manager.IdGenerator;
 import ru.yandex.practicum.vilkovam.manager.IdGeneratorImpl;
 import ru.yandex.practicum.vilkovam.manager.InMemoryHistoryManager;
 import ru.yandex.practicum.vilkovam.manager.InMemoryTaskManager;
 import ru.yandex.practicum.vilkovam.manager.ItemPriorityStorage;
+import ru.yandex.practicum.vilkovam.manager.JournaledTaskManager;
+import ru.yandex.practicum.vilkovam.manager.OffHeapTaskManager;
+import ru.yandex.practicum.vilkovam.manager.PersistentHistoryManager;
+import ru.yandex.practicum.vilkovam.manager.StorageEngine;
+import ru.yandex.practicum.vilkovam.manager.SubtaskController;
 import ru.yandex.practicum.vilkovam.manager.TaskController;
+import ru.yandex.practicum.vilkovam.manager.TaskIntervalTree;
 import ru.yandex.practicum.vilkovam.manager.TaskManager;
+import ru.yandex.practicum.vilkovam.manager.WriteBehindPolicy;
+import ru.yandex.practicum.vilkovam.manager.WriteBehindTaskManager;
 import ru.yandex.practicum.vilkovam.model.Epic;
 import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
 
-import java.util.Comparator;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
-import java.util.TreeSet;
 
 /**
  * @author Andrew Vilkov
@@ -34,30 +47,117 @@ public class Managers {
     }
 
     public static TaskManager getPrioritizedTaskManager() {
-        TreeSet<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
-        ControllersHolder controllers = getPrioritizedControllers(getDefaultIdGenerator(), prioritizedTasks);
+        return getPrioritizedTaskManager(StorageEngine.HASH_MAP);
+    }
+
+    /**
+     * Менеджер с набором приоритетов и выбранным хранилищем контроллеров
+     *
+     * @param storageEngine controllers storage
+     * @return in-memory manager
+     */
+    public static TaskManager getPrioritizedTaskManager(StorageEngine storageEngine) {
+        if (!storageEngine.materializesOnRead()) {
+            TaskIntervalTree prioritizedTasks = new TaskIntervalTree();
+            ControllersHolder controllers = getPrioritizedControllers(getDefaultIdGenerator(), prioritizedTasks,
+                    storageEngine);
+            return new InMemoryTaskManager(prioritizedTasks, getDefaultHistory(), controllers);
+        }
+        Map<Integer, Task> tasks = storageEngine.newStorage();
+        Map<Integer, Subtask> subtasks = storageEngine.newStorage();
+        TaskIntervalTree prioritizedTasks = TaskIntervalTree.over(tasks, subtasks);
+        ControllersHolder controllers = getPrioritizedControllers(getDefaultIdGenerator(), prioritizedTasks,
+                tasks, storageEngine.newStorage(), subtasks);
         return new InMemoryTaskManager(prioritizedTasks, getDefaultHistory(), controllers);
     }
 
+    /**
+     * Менеджер с журналом изменений. Если файл или журнал уже существуют, доска загружается из них.
+     *
+     * @param file         snapshot file
+     * @param commitPolicy journal commit policy
+     * @return journaled manager, must be closed to flush pending records
+     */
+    public static JournaledTaskManager getJournaledTaskManager(File file, CommitPolicy commitPolicy) {
+        if (file.exists() || Files.exists(FileBackedTaskManager.getJournalPath(file))) {
+            return JournaledTaskManager.loadFromFile(file, getDefaultIdGenerator(), getDefaultHistory(), commitPolicy);
+        }
+        return new JournaledTaskManager(file, getDefaultIdGenerator(), getDefaultHistory(), commitPolicy);
+    }
+
+    /**
+     * Менеджер с отложенной записью журнала. Загружает доску, если файл или журнал уже существуют.
+     *
+     * @param file   snapshot file
+     * @param policy write-behind queue policy
+     * @return write-behind manager, must be closed to write pending changes
+     */
+    public static WriteBehindTaskManager getWriteBehindTaskManager(File file, WriteBehindPolicy policy) {
+        if (file.exists() || Files.exists(FileBackedTaskManager.getJournalPath(file))) {
+            return WriteBehindTaskManager.loadFromFile(file, getDefaultIdGenerator(), getDefaultHistory(), policy);
+        }
+        return new WriteBehindTaskManager(file, getDefaultIdGenerator(), getDefaultHistory(), policy);
+    }
+
+    /**
+     * Менеджер с хранилищами вне кучи над файлами в каталоге доски. Если каталог уже содержит доску,
+     * она открывается без загрузки снимка.
+     *
+     * @param directory board directory
+     * @return off-heap manager, must be closed to write changes to disk
+     */
+    public static OffHeapTaskManager getOffHeapTaskManager(Path directory) {
+        return OffHeapTaskManager.open(directory, getDefaultIdGenerator(), getDefaultHistory());
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager(MAX_HISTORY_SIZE);
     }
 
+    /**
+     * История просмотров, сохраняемая рядом с файлом доски
+     *
+     * @param file snapshot file
+     * @return history manager, restored by {@code loadFromFile}, must be closed to flush pending records
+     */
+    public static PersistentHistoryManager getPersistentHistory(File file) {
+        return new PersistentHistoryManager(FileBackedTaskManager.getHistoryPath(file), getDefaultHistory());
+    }
+
     public static IdGenerator getDefaultIdGenerator() {
         return new IdGeneratorImpl();
     }
 
     public static ControllersHolder getPrioritizedControllers(IdGenerator idGenerator, SortedSet<Task> prioritizedTasks) {
-        var taskController = new TaskController<>(idGenerator, new ItemPriorityStorage<>(prioritizedTasks), Task::new);
-        var subtaskController = new TaskController<Subtask>(idGenerator, new ItemPriorityStorage<>(prioritizedTasks), Subtask::new);
-        var epicController = new EpicController(idGenerator, Epic::new);
+        return getPrioritizedControllers(idGenerator, prioritizedTasks, StorageEngine.HASH_MAP);
+    }
+
+    public static ControllersHolder getPrioritizedControllers(IdGenerator idGenerator, SortedSet<Task> prioritizedTasks,
+                                                              StorageEngine storageEngine) {
+        return getPrioritizedControllers(idGenerator, prioritizedTasks, storageEngine.newStorage(),
+                storageEngine.newStorage(), storageEngine.newStorage());
+    }
+
+    private static ControllersHolder getPrioritizedControllers(IdGenerator idGenerator,
+                                                               SortedSet<Task> prioritizedTasks,
+                                                               Map<Integer, Task> tasks, Map<Integer, Epic> epics,
+                                                               Map<Integer, Subtask> subtasks) {
+        var taskController = new TaskController<>(idGenerator, new ItemPriorityStorage<>(prioritizedTasks, tasks),
+                Task::new);
+        var subtaskController = new SubtaskController(idGenerator,
+                new ItemPriorityStorage<>(prioritizedTasks, subtasks), Subtask::new);
+        var epicController = new EpicController(idGenerator, epics, Epic::new, List.of());
         return new ControllersHolder(taskController, epicController, subtaskController);
     }
 
     public static ControllersHolder getDefaultControllers(IdGenerator idGenerator) {
-        var taskController = new TaskController<>(idGenerator, Task::new);
-        var subtaskController = new TaskController<Subtask>(idGenerator, Subtask::new);
-        var epicController = new EpicController(idGenerator, Epic::new);
+        return getDefaultControllers(idGenerator, StorageEngine.HASH_MAP);
+    }
+
+    public static ControllersHolder getDefaultControllers(IdGenerator idGenerator, StorageEngine storageEngine) {
+        var taskController = new TaskController<>(idGenerator, storageEngine.<Task>newStorage(), Task::new);
+        var subtaskController = new SubtaskController(idGenerator, storageEngine.newStorage(), Subtask::new);
+        var epicController = new EpicController(idGenerator, storageEngine.newStorage(), Epic::new, List.of());
         return new ControllersHolder(taskController, epicController, subtaskController);
     }
 }
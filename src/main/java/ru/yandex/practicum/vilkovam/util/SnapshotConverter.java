@@ -0,0 +1,68 @@
+package ru.yandex.practicum.vilkovam.util;
+
+import ru.yandex.practicum.vilkovam.manager.FileBackedTaskManager;
+import ru.yandex.practicum.vilkovam.model.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Потоковое преобразование снимков между CSV и бинарным форматом {@link TaskBinaryCodec}
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 14:55
+ * @project java-kanban
+ */
+public class SnapshotConverter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SnapshotConverter() {
+    }
+
+    public static void csvToBinary(Path csv, Path binary) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csv, UTF_8);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(binary), BUFFER_SIZE))) {
+            BinarySnapshotWriter snapshotWriter = new BinarySnapshotWriter(out);
+            CsvTaskParser parser = new CsvTaskParser(reader);
+            if (parser.hasNext()) {
+                parser.endRecord();
+            }
+            while (parser.hasNext()) {
+                Task task = parser.readTask();
+                if (task == null) {
+                    throw new IOException("Wrong columns count in " + csv);
+                }
+                snapshotWriter.write(task);
+            }
+            snapshotWriter.finish();
+        }
+    }
+
+    public static void binaryToCsv(Path binary, Path csv) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(binary), BUFFER_SIZE));
+             BufferedWriter writer = Files.newBufferedWriter(csv, UTF_8)) {
+            BinarySnapshotReader reader = new BinarySnapshotReader(in);
+            writer.write(FileBackedTaskManager.CSV_FILE_HEADER);
+            writer.newLine();
+            Task task;
+            while ((task = reader.read()) != null) {
+                writer.write(TaskSaveUtils.toString(task));
+                writer.newLine();
+            }
+            if (!reader.isComplete()) {
+                throw new IOException("Binary snapshot is damaged after " + reader.getRecords() + " records: " + binary);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package ru.yandex.practicum.vilkovam.util;
+
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Компактный бинарный формат снимка. Файл начинается с {@link #MAGIC} и байта версии.
+ * В версии 1 записи идут подряд без обрамления, в версии 2 каждая запись обрамлена длиной
+ * и контрольной суммой, а файл завершается футером, см. {@link BinarySnapshotWriter}.
+ * Запись объекта:
+ * <pre>
+ * byte    flags: ordinal типа (2 бита) и признаки наличия полей
+ * varint  id
+ * byte    ordinal статуса               (если есть)
+ * varint  длина + UTF-8 имени           (если есть)
+ * varint  длина + UTF-8 описания        (если есть)
+ * varlong epoch-second начала (UTC, zigzag) и varint наносекунд (если есть)
+ * varint  продолжительность в минутах   (если есть)
+ * varint  id эпика                      (если есть)
+ * </pre>
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 14:02
+ * @project java-kanban
+ */
+public class TaskBinaryCodec {
+    public static final int MAGIC = 0x4B42414E;
+    public static final byte VERSION = 2;
+    public static final byte UNFRAMED_VERSION = 1;
+    public static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+
+    private static final int TYPE_MASK = 0b11;
+    private static final int HAS_STATUS = 1 << 2;
+    private static final int HAS_NAME = 1 << 3;
+    private static final int HAS_DESCRIPTION = 1 << 4;
+    private static final int HAS_START_TIME = 1 << 5;
+    private static final int HAS_DURATION = 1 << 6;
+    private static final int HAS_EPIC_ID = 1 << 7;
+
+    private static final ItemType[] TYPES = ItemType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private TaskBinaryCodec() {
+    }
+
+    public static void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    /**
+     * Проверка заголовка снимка
+     *
+     * @param in source
+     * @return snapshot format version
+     * @throws IOException if header is missing or has unsupported version
+     */
+    public static byte readHeader(DataInput in) throws IOException {
+        int magic = in.readInt();
+        byte version = in.readByte();
+        if (magic != MAGIC || version < UNFRAMED_VERSION || version > VERSION) {
+            throw new IOException("Unsupported binary snapshot: magic " + Integer.toHexString(magic) + ", version " + version);
+        }
+        return version;
+    }
+
+    public static void write(DataOutput out, Task task) throws IOException {
+        Integer epicId = ItemType.SUBTASK == task.getType() ? ((Subtask) task).getEpicId() : null;
+        boolean hasStartTime = task.getStartEpochSecond() != Task.NO_TIME;
+        int flags = task.getType().ordinal()
+                | (task.getStatus() != null ? HAS_STATUS : 0)
+                | (task.getName() != null ? HAS_NAME : 0)
+                | (task.getDescription() != null ? HAS_DESCRIPTION : 0)
+                | (hasStartTime ? HAS_START_TIME : 0)
+                | (task.getDuration() != null ? HAS_DURATION : 0)
+                | (epicId != null ? HAS_EPIC_ID : 0);
+
+        out.writeByte(flags);
+        writeVarInt(out, task.getId());
+        if (task.getStatus() != null) out.writeByte(task.getStatus().ordinal());
+        if (task.getName() != null) writeString(out, task.getName());
+        if (task.getDescription() != null) writeString(out, task.getDescription());
+        if (hasStartTime) {
+            writeVarLong(out, zigzag(task.getStartEpochSecond()));
+            writeVarInt(out, task.getStartNano());
+        }
+        if (task.getDuration() != null) writeVarInt(out, (int) task.getDuration().toMinutes());
+        if (epicId != null) writeVarInt(out, epicId);
+    }
+
+    /**
+     * Чтение следующей записи
+     *
+     * @param in source positioned at record start
+     * @return restored object or {@code null} at the end of stream
+     */
+    public static Task read(DataInput in) throws IOException {
+        int flags;
+        try {
+            flags = in.readUnsignedByte();
+        } catch (EOFException e) {
+            return null;
+        }
+        int id = readVarInt(in);
+        TaskStatus status = (flags & HAS_STATUS) != 0 ? STATUSES[in.readUnsignedByte()] : null;
+        String name = (flags & HAS_NAME) != 0 ? readString(in) : null;
+        String description = (flags & HAS_DESCRIPTION) != 0 ? readString(in) : null;
+        LocalDateTime startTime = null;
+        if ((flags & HAS_START_TIME) != 0) {
+            long epochSecond = unzigzag(readVarLong(in));
+            startTime = LocalDateTime.ofEpochSecond(epochSecond, readVarInt(in), ZoneOffset.UTC);
+        }
+        Duration duration = (flags & HAS_DURATION) != 0 ? Duration.ofMinutes(readVarInt(in)) : null;
+        Integer epicId = (flags & HAS_EPIC_ID) != 0 ? readVarInt(in) : null;
+
+        return switch (TYPES[flags & TYPE_MASK]) {
+            case TASK -> new Task(id, name, description, status, duration, startTime);
+            case EPIC -> {
+                Epic epic = new Epic(id, name, description, status, Collections.emptyList());
+                epic.setDuration(duration);
+                epic.setStartTime(startTime);
+                yield epic;
+            }
+            case SUBTASK -> new Subtask(id, name, description, status, epicId, duration, startTime);
+        };
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("Malformed varlong");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
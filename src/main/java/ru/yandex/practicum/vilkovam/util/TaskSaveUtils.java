@@ -1,15 +1,9 @@
 package ru.yandex.practicum.vilkovam.util;
 
-import ru.yandex.practicum.vilkovam.manager.FileBackedTaskManager;
 import ru.yandex.practicum.vilkovam.model.Epic;
 import ru.yandex.practicum.vilkovam.model.ItemType;
 import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
-import ru.yandex.practicum.vilkovam.model.TaskStatus;
-
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.Collections;
 
 /**
  * @author Andrew Vilkov
@@ -32,31 +26,40 @@ public class TaskSaveUtils {
                 DELIMITER,
                 String.valueOf(task.getId()),
                 task.getType().name(),
-                task.getName(),
+                quote(task.getName()),
                 task.getStatus().name(),
-                task.getDescription(),
+                quote(task.getDescription()),
                 startTimeToSave,
                 durationToSave,
                 epicIdToSave);
     }
 
+    /**
+     * Разбор строки CSV в объект {@link Task}/{@link Epic}/{@link Subtask}
+     *
+     * @param value CSV record
+     * @return parsed object or {@code null} if record has wrong columns count
+     * @see CsvTaskParser
+     */
     public static Task fromString(String value) {
-        String[] headers = FileBackedTaskManager.CSV_FILE_HEADER.split(DELIMITER);
-        String[] column = value.split(DELIMITER, -1);
-        if (column.length != headers.length) return null;
-        Integer id = Integer.valueOf(column[0]);
-        String name = column[2];
-        TaskStatus status = TaskStatus.valueOf(column[3]);
-        String desc = column[4];
-        String startTimeStr = column[5];
-        String durationStr = column[6];
-        String epicId = column[7];
-        LocalDateTime startTime = "".equals(startTimeStr) ? null : LocalDateTime.parse(startTimeStr);
-        Duration duration = "".equals(durationStr) ? null : Duration.ofMinutes(Long.parseLong(durationStr));
-        return switch (ItemType.valueOf(column[1])) {
-            case TASK -> new Task(id, name, desc, status, duration, startTime);
-            case EPIC -> new Epic(id, name, desc, status, Collections.emptyList());
-            case SUBTASK -> new Subtask(id, name, desc, status, Integer.valueOf(epicId), duration, startTime);
-        };
+        return CsvTaskParser.parse(value);
+    }
+
+    /**
+     * Экранирование текстового поля: значения с запятой, кавычкой или переводом строки
+     * заключаются в кавычки, кавычки внутри удваиваются
+     *
+     * @param value field value
+     * @return value safe for CSV
+     */
+    public static String quote(String value) {
+        String text = String.valueOf(value);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+        }
+        return text;
     }
 }
@@ -0,0 +1,118 @@
+package ru.yandex.practicum.vilkovam.benchmark;
+
+import ru.yandex.practicum.vilkovam.manager.FileBackedTaskManager;
+import ru.yandex.practicum.vilkovam.manager.SnapshotCompression;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+import ru.yandex.practicum.vilkovam.util.TaskSaveUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Размер, время загрузки и время записи CSV-снимка без сжатия и со сжатием GZIP.
+ * Запуск: {@code CompressedSnapshotBenchmark [rows] [iterations]}, по умолчанию 200 000 строк.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 23:30
+ * @project java-kanban
+ */
+public class CompressedSnapshotBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] WORDS = {"board", "release", "review", "deploy", "fix", "client", "report",
+            "sprint", "backlog", "estimate", "design", "meeting", "test", "migration", "index", "cache"};
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Path plain = Files.createTempFile("snapshot", ".csv");
+        Path compressed = Files.createTempFile("snapshot", ".csv.gz");
+        try {
+            try (OutputStream out = Files.newOutputStream(plain)) {
+                writeBoard(out, rows);
+            }
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), 1 << 16)) {
+                writeBoard(out, rows);
+            }
+            System.out.printf("rows=%d%n", rows);
+            report("csv", plain, iterations);
+            report("csv+gzip", compressed, iterations);
+        } finally {
+            Files.deleteIfExists(plain);
+            Files.deleteIfExists(compressed);
+        }
+    }
+
+    /**
+     * Лучшее время загрузки и время перезаписи снимка, которую вызывает изменение задачи
+     */
+    private static void report(String name, Path file, int iterations) throws IOException {
+        long bestLoad = Long.MAX_VALUE;
+        long bestSave = Long.MAX_VALUE;
+        for (int i = 0; i <= iterations; i++) {
+            FileBackedTaskManager manager = FileBackedTaskManager.loadFromFile(
+                    file.toFile(), Managers.getDefaultIdGenerator(), Managers.getDefaultHistory());
+            long startNanos = System.nanoTime();
+            manager.updateTask(manager.getAllTask().getFirst());
+            long saveNanos = System.nanoTime() - startNanos;
+            if (i > 0) {
+                bestLoad = Math.min(bestLoad, manager.getLoadStats().elapsedNanos());
+                bestSave = Math.min(bestSave, saveNanos);
+            }
+            if (manager.getSnapshotCompression() == SnapshotCompression.NONE && name.contains("gzip")) {
+                throw new IllegalStateException("Compressed snapshot was not detected");
+            }
+        }
+        System.out.printf("%-10s size %8.1f MB, load %8.1f ms, save %8.1f ms%n",
+                name, Files.size(file) / 1048576.0, bestLoad / 1e6, bestSave / 1e6);
+    }
+
+    /**
+     * Доска из эпиков по 8 подзадач и отдельных задач с описаниями из нескольких слов
+     */
+    private static void writeBoard(OutputStream out, int rows) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8), 1 << 16);
+        writer.write(FileBackedTaskManager.CSV_FILE_HEADER);
+        writer.newLine();
+        int epicId = 0;
+        for (int id = 1; id <= rows; id++) {
+            String description = describe(id);
+            Task task;
+            if (id % 10 == 1) {
+                epicId = id;
+                task = new Epic(id, "Epic " + id, description, TaskStatus.NEW, Collections.emptyList());
+            } else if (id % 10 == 0) {
+                task = new Task(id, "Task " + id, description, TaskStatus.NEW,
+                        Duration.ofMinutes(1), START.plusMinutes(id * 2L));
+            } else {
+                task = new Subtask(id, "Subtask " + id, description, TaskStatus.values()[id % 3],
+                        epicId, Duration.ofMinutes(1), START.plusMinutes(id * 2L));
+            }
+            writer.write(TaskSaveUtils.toString(task));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    private static String describe(int id) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            if (i > 0) description.append(' ');
+            description.append(WORDS[(id * 31 + i * 7) % WORDS.length]);
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,170 @@
+package ru.yandex.practicum.vilkovam.benchmark;
+
+import ru.yandex.practicum.vilkovam.manager.StorageEngine;
+import ru.yandex.practicum.vilkovam.manager.TaskController;
+import ru.yandex.practicum.vilkovam.manager.TaskManager;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Память кучи на один объект для каждого {@link StorageEngine}: только хранилище, {@link TaskController}
+ * с этим хранилищем (с индексом статусов), менеджер {@link Managers#getPrioritizedTaskManager(StorageEngine)}
+ * с задачами, у которых есть время начала, и тот же менеджер на доске из задач и эпиков с двумя подзадачами,
+ * где общий генератор выдает каждому хранилищу id с шагом.
+ * <p>
+ * Каждый замер идет в отдельной JVM с теми же параметрами, что и у запуска, поэтому объекты прошлого
+ * замера и прогретые кэши не попадают в разницу. Память считается по разнице занятой кучи после
+ * {@link System#gc()}; измеряемая структура остается достижимой до последнего чтения кучи
+ * ({@link Reference#reachabilityFence(Object)}). Запускать лучше с фиксированным размером кучи,
+ * например {@code -Xms2g -Xmx2g}. Буферы {@link StorageEngine#OFF_HEAP} вне кучи не учитываются:
+ * считается только то, что просматривает сборщик мусора.
+ * Запуск: {@code MemoryFootprintBenchmark [items]}, по умолчанию 1 000 000 объектов.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 16:35
+ * @project java-kanban
+ */
+public class MemoryFootprintBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 9, 0);
+    private static final int WARM_UP_ITEMS = 1_000;
+
+    private enum Phase { STORAGE, CONTROLLER, MANAGER, BOARD }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        if (args.length > 2) {
+            System.out.println(measure(StorageEngine.valueOf(args[1]), Phase.valueOf(args[2]), items));
+            return;
+        }
+        System.out.printf("items=%d%n", items);
+        for (StorageEngine engine : StorageEngine.values()) {
+            StringBuilder line = new StringBuilder(String.format("%-11s", engine));
+            for (Phase phase : Phase.values()) {
+                long bytes = measureInChild(engine, phase, items);
+                line.append(String.format(" %s %6.1f B/item,", phase.name().toLowerCase(), (double) bytes / items));
+            }
+            line.setLength(line.length() - 1);
+            System.out.println(line);
+        }
+    }
+
+    private static long measureInChild(StorageEngine engine, Phase phase, int items)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MemoryFootprintBenchmark.class.getName());
+        command.add(String.valueOf(items));
+        command.add(engine.name());
+        command.add(phase.name());
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String result;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            result = reader.readLine();
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Measurement of " + engine + " " + phase + " failed");
+        }
+        return Long.parseLong(result.trim());
+    }
+
+    private static long measure(StorageEngine engine, Phase phase, int items) {
+        Reference.reachabilityFence(build(engine, phase, WARM_UP_ITEMS));
+        long before = usedHeap();
+        Object measured = build(engine, phase, items);
+        long bytes = usedHeap() - before;
+        Reference.reachabilityFence(measured);
+        return bytes;
+    }
+
+    private static Object build(StorageEngine engine, Phase phase, int items) {
+        return switch (phase) {
+            case STORAGE -> buildStorage(engine, items);
+            case CONTROLLER -> buildController(engine, items);
+            case MANAGER -> buildManager(engine, items);
+            case BOARD -> buildBoard(engine, items);
+        };
+    }
+
+    private static Map<Integer, Task> buildStorage(StorageEngine engine, int items) {
+        Map<Integer, Task> storage = engine.newStorage();
+        for (int i = 1; i <= items; i++) {
+            storage.put(i, newTask(i));
+        }
+        check(storage.size(), items);
+        return storage;
+    }
+
+    private static TaskController<Task> buildController(StorageEngine engine, int items) {
+        TaskController<Task> controller = new TaskController<>(Managers.getDefaultIdGenerator(), engine.newStorage(),
+                Task::new);
+        for (int i = 1; i <= items; i++) {
+            controller.create(newTask(i));
+        }
+        check(controller.getAllItem().size(), items);
+        return controller;
+    }
+
+    private static TaskManager buildManager(StorageEngine engine, int items) {
+        TaskManager manager = Managers.getPrioritizedTaskManager(engine);
+        for (int i = 1; i <= items; i++) {
+            manager.createTask(newTask(i));
+        }
+        check(manager.getPrioritizedTasks().size(), items);
+        return manager;
+    }
+
+    private static TaskManager buildBoard(StorageEngine engine, int items) {
+        TaskManager manager = Managers.getPrioritizedTaskManager(engine);
+        for (int i = 0; i < items / 4; i++) {
+            manager.createTask(newTask(4 * i));
+            Epic epic = manager.createEpic(new Epic("Epic " + i, "Description of epic " + i));
+            manager.createSubtask(newSubtask(epic.getId(), 4 * i + 1));
+            manager.createSubtask(newSubtask(epic.getId(), 4 * i + 2));
+        }
+        check(manager.getAllTask().size() + manager.getAllEpic().size() + manager.getAllSubtask().size(),
+                items / 4 * 4);
+        return manager;
+    }
+
+    private static Task newTask(int i) {
+        return new Task(i, "Task " + i, "Description of task " + i, TaskStatus.NEW, Duration.ofMinutes(30),
+                START.plusMinutes(30L * i));
+    }
+
+    private static Subtask newSubtask(int epicId, int i) {
+        Subtask subtask = new Subtask(epicId, "Subtask " + i, "Description of subtask " + i);
+        subtask.setDuration(Duration.ofMinutes(30));
+        subtask.setStartTime(START.plusMinutes(30L * i));
+        return subtask;
+    }
+
+    private static void check(int size, int items) {
+        if (size != items) throw new IllegalStateException("Expected " + items + " items, got " + size);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
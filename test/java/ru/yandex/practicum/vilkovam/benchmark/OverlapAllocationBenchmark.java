@@ -0,0 +1,91 @@
+package ru.yandex.practicum.vilkovam.benchmark;
+
+import ru.yandex.practicum.vilkovam.manager.TaskIntervalTree;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Байты, выделяемые в куче на одну проверку пересечения: {@link TaskIntervalTree#hasOverlap(Task)},
+ * проверка перебором набора, как в {@code InMemoryTaskManager} без дерева интервалов,
+ * и {@link Task#getEndTime()}. Выделения считаются по
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} текущего потока.
+ * Запуск: {@code OverlapAllocationBenchmark [tasks] [checks]}, по умолчанию 100 000 задач и 1 000 000 проверок.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 18:40
+ * @project java-kanban
+ */
+public class OverlapAllocationBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int checks = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        TaskIntervalTree tree = new TaskIntervalTree();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task(i + 1, "Task " + i, "Description", TaskStatus.NEW, Duration.ofMinutes(30),
+                    START.plusHours(i));
+            tasks.add(task);
+            tree.add(task);
+        }
+        Task[] probes = new Task[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = new Task(-i, "Probe", "", TaskStatus.NEW, Duration.ofMinutes(20),
+                    START.plusMinutes(37L * i * count / probes.length));
+        }
+        System.out.printf("tasks=%d, checks=%d%n", count, checks);
+        for (int iteration = 0; iteration < 3; iteration++) {
+            report("hasOverlap", checks, () -> {
+                long found = 0;
+                for (int i = 0; i < checks; i++) {
+                    if (tree.hasOverlap(probes[i & (probes.length - 1)])) found++;
+                }
+                return found;
+            });
+            int scans = Math.max(1, checks / count);
+            report("scan", scans, () -> {
+                long found = 0;
+                for (int i = 0; i < scans; i++) {
+                    Task probe = probes[i & (probes.length - 1)];
+                    LocalDateTime from = probe.getStartTime();
+                    LocalDateTime to = probe.getEndTime();
+                    for (Task task : tasks) {
+                        if (TaskIntervalTree.overlaps(task, from, to)) found++;
+                    }
+                }
+                return found;
+            });
+            report("getEndTime", checks, () -> {
+                long found = 0;
+                for (int i = 0; i < checks; i++) {
+                    found += tasks.get(i % count).getEndTime().getMinute();
+                }
+                return found;
+            });
+        }
+    }
+
+    private static void report(String name, int operations, Operation operation) {
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long startNanos = System.nanoTime();
+        long result = operation.run();
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-10s %10.1f B/op %10.1f ns/op (result %d)%n",
+                name, (double) bytes / operations, (double) nanos / operations, result);
+    }
+
+    private interface Operation {
+        long run();
+    }
+}
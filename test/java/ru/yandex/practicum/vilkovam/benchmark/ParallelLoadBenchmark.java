@@ -0,0 +1,132 @@
+package ru.yandex.practicum.vilkovam.benchmark;
+
+import ru.yandex.practicum.vilkovam.manager.CommitPolicy;
+import ru.yandex.practicum.vilkovam.manager.FileBackedTaskManager;
+import ru.yandex.practicum.vilkovam.manager.LoadStats;
+import ru.yandex.practicum.vilkovam.manager.TaskJournal;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+import ru.yandex.practicum.vilkovam.util.TaskSaveUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Пропускная способность последовательной и параллельной загрузки CSV-снимка с журналом изменений.
+ * Для каждого запуска выводятся этапы из {@link LoadStats}: на пуле потоков идет только разбор кусков,
+ * слияние кусков, применение журнала и построение контроллеров последовательны. Их доля во времени
+ * параллельной загрузки ограничивает ускорение на любом числе ядер величиной {@code 1 / доля}.
+ * Запуск: {@code ParallelLoadBenchmark [rows] [iterations] [journalRecords]}, по умолчанию 1 000 000 строк
+ * и журнал из 100 000 записей.
+ *
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 18:05
+ * @project java-kanban
+ */
+public class ParallelLoadBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int journalRecords = args.length > 2 ? Integer.parseInt(args[2]) : rows / 10;
+        Path file = Files.createTempFile("parallel-load", ".csv");
+        Path journal = FileBackedTaskManager.getJournalPath(file.toFile());
+        try {
+            writeBoard(file, rows);
+            writeJournal(journal, rows, journalRecords);
+            System.out.printf("rows=%d, size=%d MB, journal records=%d, cores=%d%n", rows, Files.size(file) >> 20,
+                    journalRecords, Runtime.getRuntime().availableProcessors());
+
+            report("sequential", iterations, () -> FileBackedTaskManager.loadFromFile(
+                    file.toFile(), Managers.getDefaultIdGenerator(), Managers.getDefaultHistory()));
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    report("parallel x" + threads, iterations, () -> FileBackedTaskManager.loadFromFile(
+                            file.toFile(), Managers.getDefaultIdGenerator(), Managers.getDefaultHistory(), pool));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(journal);
+        }
+    }
+
+    private static void report(String name, int iterations, Loader loader) {
+        loader.load();
+        LoadStats best = null;
+        for (int i = 0; i < iterations; i++) {
+            LoadStats stats = loader.load().getLoadStats();
+            if (best == null || stats.elapsedNanos() < best.elapsedNanos()) {
+                best = stats;
+            }
+        }
+        long elapsed = best.elapsedNanos();
+        double sequentialShare = (double) (elapsed - best.parseNanos()) / elapsed;
+        System.out.printf("%-14s best %8.1f ms, %,12.0f lines/s | parse %7.1f ms, merge %7.1f ms, "
+                        + "journal %7.1f ms, finish %7.1f ms, sequential %4.1f%%%n",
+                name, elapsed / 1e6, best.linesPerSecond(), best.parseNanos() / 1e6, best.mergeNanos() / 1e6,
+                best.journalNanos() / 1e6, best.finishNanos() / 1e6, 100 * sequentialShare);
+    }
+
+    /**
+     * Журнал из обновлений статуса подзадач доски, как после работы с доской после последнего снимка
+     */
+    private static void writeJournal(Path journal, int rows, int records) {
+        int subtasks = rows / 10 * 8;
+        try (TaskJournal taskJournal = new TaskJournal(journal, CommitPolicy.osBuffered())) {
+            for (int i = 0; i < records; i++) {
+                int k = i % subtasks;
+                int epicId = k / 8 * 10 + 1;
+                int id = epicId + 1 + k % 8;
+                taskJournal.put(new Subtask(id, "Subtask " + id, "Subtask description", TaskStatus.DONE,
+                        epicId, Duration.ofMinutes(1), START.plusMinutes(id * 2L)));
+            }
+        }
+    }
+
+    /**
+     * Доска из эпиков по 8 подзадач и отдельных задач, у каждой задачи свое время начала
+     */
+    private static void writeBoard(Path file, int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+            writer.write(FileBackedTaskManager.CSV_FILE_HEADER);
+            writer.newLine();
+            int epicId = 0;
+            for (int id = 1; id <= rows; id++) {
+                Task task;
+                if (id % 10 == 1) {
+                    epicId = id;
+                    task = new Epic(id, "Epic " + id, "Epic description", TaskStatus.NEW, Collections.emptyList());
+                } else if (id % 10 == 0) {
+                    task = new Task(id, "Task " + id, "Task, with comma", TaskStatus.NEW,
+                            Duration.ofMinutes(1), START.plusMinutes(id * 2L));
+                } else {
+                    task = new Subtask(id, "Subtask " + id, "Subtask description", TaskStatus.values()[id % 3],
+                            epicId, Duration.ofMinutes(1), START.plusMinutes(id * 2L));
+                }
+                writer.write(TaskSaveUtils.toString(task));
+                writer.newLine();
+            }
+        }
+    }
+
+    private interface Loader {
+        FileBackedTaskManager load();
+    }
+}
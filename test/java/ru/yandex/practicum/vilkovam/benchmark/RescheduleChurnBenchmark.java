@@ -0,0 +1,99 @@
+package ru.yandex.practicum.vilkovam.benchmark;
+
+import ru.yandex.practicum.vilkovam.manager.TaskManager;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Время переноса задачи на другое время и размер набора приоритетов при длительных переносах.
+ * Для сравнения рядом воспроизводится прежний индекс: {@code TreeSet} по времени начала,
+ * из которого при замене удалялась новая версия задачи вместо старой.
+ * Запуск: {@code RescheduleChurnBenchmark [tasks] [rounds]}, по умолчанию 100 000 задач и 10 раундов.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 12:40
+ * @project java-kanban
+ */
+public class RescheduleChurnBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Random random = new Random(42);
+
+        TaskManager manager = Managers.getPrioritizedTaskManager();
+        LegacyIndex legacy = new LegacyIndex();
+        int slots = count * 2;
+        int[] slotOfTask = new int[count];
+        boolean[] busy = new boolean[slots];
+        Task[] tasks = new Task[count];
+        for (int i = 0; i < count; i++) {
+            slotOfTask[i] = i * 2;
+            busy[i * 2] = true;
+            tasks[i] = manager.createTask(new Task(null, "Task " + i, "Description", TaskStatus.NEW,
+                    Duration.ofMinutes(1), slotTime(i * 2)));
+            legacy.put(new Task(tasks[i]));
+        }
+
+        System.out.printf("tasks=%d, reschedules per round=%d%n", count, count);
+        for (int round = 1; round <= rounds; round++) {
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                int index = random.nextInt(count);
+                int slot = random.nextInt(slots);
+                while (busy[slot]) {
+                    slot = random.nextInt(slots);
+                }
+                busy[slotOfTask[index]] = false;
+                busy[slot] = true;
+                slotOfTask[index] = slot;
+                tasks[index].setStartTime(slotTime(slot));
+                manager.updateTask(tasks[index]);
+                legacy.replace(new Task(tasks[index]));
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            int size = manager.getPrioritizedTasks().size();
+            if (size != count) {
+                throw new IllegalStateException("Prioritized set size drifted: " + size);
+            }
+            System.out.printf("round %2d: %7.2f us/op, prioritized=%d, legacy prioritized=%d%n",
+                    round, elapsed / 1e3 / count, size, legacy.sorted.size());
+        }
+    }
+
+    /**
+     * Слоты идут через 10 минут, задачи по одной минуте в соседних слотах не пересекаются
+     */
+    private static LocalDateTime slotTime(int slot) {
+        return START.plusMinutes(slot * 10L);
+    }
+
+    /**
+     * Прежняя схема индексации из {@code ItemPriorityStorage}
+     */
+    private static final class LegacyIndex {
+        private final Map<Integer, Task> idToTask = new HashMap<>();
+        private final TreeSet<Task> sorted = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+
+        private void put(Task task) {
+            sorted.add(task);
+            idToTask.put(task.getId(), task);
+        }
+
+        private void replace(Task task) {
+            sorted.remove(task);
+            sorted.add(task);
+            idToTask.replace(task.getId(), task);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.yandex.practicum.vilkovam.benchmark;
+
+import ru.yandex.practicum.vilkovam.manager.StorageEngine;
+import ru.yandex.practicum.vilkovam.manager.TaskController;
+import ru.yandex.practicum.vilkovam.manager.TaskManager;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Поиск по id в хранилище контроллера и {@link TaskController#getById(Integer)} для каждого {@link StorageEngine}.
+ * Контроллер со своим генератором получает id подряд. Второй замер идет через менеджер
+ * {@link Managers#getPrioritizedTaskManager(StorageEngine)} на доске из эпиков с двумя подзадачами:
+ * общий генератор выдает эпикам каждый третий id, подзадачам - два из трех.
+ * Запуск: {@code StorageEngineBenchmark [items] [lookups] [iterations]}, по умолчанию 1 000 000 объектов.
+ *
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 14:05
+ * @project java-kanban
+ */
+public class StorageEngineBenchmark {
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        System.out.printf("items=%d, lookups=%d%n", items, lookups);
+        for (StorageEngine engine : StorageEngine.values()) {
+            report(engine, items, lookups, iterations);
+        }
+        for (StorageEngine engine : StorageEngine.values()) {
+            reportMixedBoard(engine, items, lookups, iterations);
+        }
+    }
+
+    private static void reportMixedBoard(StorageEngine engine, int items, int lookups, int iterations) {
+        TaskManager manager = Managers.getPrioritizedTaskManager(engine);
+        int epics = items / 3;
+        int[] epicIds = new int[epics];
+        int[] subtaskIds = new int[epics * 2];
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < epics; i++) {
+            epicIds[i] = manager.createEpic(new Epic("Epic " + i, "Description")).getId();
+            subtaskIds[2 * i] = manager.createSubtask(new Subtask(epicIds[i], "Subtask", "Description")).getId();
+            subtaskIds[2 * i + 1] = manager.createSubtask(new Subtask(epicIds[i], "Subtask", "Description")).getId();
+        }
+        long createNanos = System.nanoTime() - startNanos;
+
+        Random random = new Random(42);
+        int[] epicLookups = new int[lookups];
+        int[] subtaskLookups = new int[lookups];
+        for (int i = 0; i < lookups; i++) {
+            epicLookups[i] = epicIds[random.nextInt(epics)];
+            subtaskLookups[i] = subtaskIds[random.nextInt(subtaskIds.length)];
+        }
+        long bestEpic = Long.MAX_VALUE;
+        long bestSubtask = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int iteration = 0; iteration <= iterations; iteration++) {
+            startNanos = System.nanoTime();
+            for (int id : epicLookups) {
+                checksum += manager.getEpicById(id).getSubtaskIds().size();
+            }
+            long epicNanos = System.nanoTime() - startNanos;
+            startNanos = System.nanoTime();
+            for (int id : subtaskLookups) {
+                checksum += manager.getSubtaskById(id).getEpicId();
+            }
+            long subtaskNanos = System.nanoTime() - startNanos;
+            if (iteration > 0) {
+                bestEpic = Math.min(bestEpic, epicNanos);
+                bestSubtask = Math.min(bestSubtask, subtaskNanos);
+            }
+        }
+        System.out.printf("%-11s mixed board: create %6.1f ns/item, getEpicById %6.1f ns/op, "
+                        + "getSubtaskById %6.1f ns/op (checksum %d)%n",
+                engine, (double) createNanos / (epics * 3), (double) bestEpic / lookups,
+                (double) bestSubtask / lookups, checksum);
+    }
+
+    private static void report(StorageEngine engine, int items, int lookups, int iterations) {
+        Map<Integer, Task> storage = engine.newStorage();
+        TaskController<Task> controller = new TaskController<>(Managers.getDefaultIdGenerator(), storage, Task::new);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < items; i++) {
+            controller.create(new Task("Task " + i, "Description"));
+        }
+        long createNanos = System.nanoTime() - startNanos;
+
+        int[] ids = new int[lookups];
+        Random random = new Random(42);
+        for (int i = 0; i < lookups; i++) {
+            ids[i] = 1 + random.nextInt(items);
+        }
+        long bestGet = Long.MAX_VALUE;
+        long bestGetById = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int iteration = 0; iteration <= iterations; iteration++) {
+            startNanos = System.nanoTime();
+            for (int id : ids) {
+                checksum += storage.get(id).getName().length();
+            }
+            long getNanos = System.nanoTime() - startNanos;
+            startNanos = System.nanoTime();
+            for (int id : ids) {
+                checksum += controller.getById(id).getName().length();
+            }
+            long getByIdNanos = System.nanoTime() - startNanos;
+            if (iteration > 0) {
+                bestGet = Math.min(bestGet, getNanos);
+                bestGetById = Math.min(bestGetById, getByIdNanos);
+            }
+        }
+        System.out.printf("%-11s create %6.1f ns/op, get %6.1f ns/op, getById %6.1f ns/op (checksum %d)%n",
+                engine, (double) createNanos / items, (double) bestGet / lookups, (double) bestGetById / lookups,
+                checksum);
+    }
+}
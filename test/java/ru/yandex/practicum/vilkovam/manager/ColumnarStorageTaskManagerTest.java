@@ -0,0 +1,93 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemSnapshot;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 16:25
+ * @project java-kanban
+ */
+class ColumnarStorageTaskManagerTest extends TaskManagerTest {
+
+    @BeforeEach
+    void setUp() {
+        taskManager = Managers.getPrioritizedTaskManager(StorageEngine.COLUMNAR);
+    }
+
+    @Test
+    void shouldStoreAllFieldsLikeLinkedHashMap() {
+        Random random = new Random(23);
+        ColumnarStorage<Task> storage = new ColumnarStorage<>();
+        Map<Integer, Task> expected = new LinkedHashMap<>();
+        LocalDateTime base = LocalDateTime.of(2026, 10, 19, 9, 0);
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(10) == 0 ? random.nextInt(1_000_000) - 10 : random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertSameItem(expected.remove(id), storage.remove(id));
+                continue;
+            }
+            LocalDateTime start = random.nextBoolean() ? null : base.plusMinutes(random.nextInt(100_000));
+            if (start != null && random.nextInt(20) == 0) {
+                start = start.plusNanos(500);
+            }
+            Duration duration = start == null ? null : Duration.ofMinutes(random.nextInt(600));
+            String description = random.nextInt(5) == 0 ? null : "Описание " + i;
+            TaskStatus status = TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+            Task task = switch (random.nextInt(3)) {
+                case 0 -> new Task(id, "Задача " + i, description, status, duration, start);
+                case 1 -> new Subtask(id, "Подзадача " + i, description, status, random.nextInt(100), duration, start);
+                default -> {
+                    Epic epic = new Epic(id, "Эпик " + i, description, status, List.of(i, i + 1));
+                    epic.setDuration(duration);
+                    epic.setStartTime(start);
+                    epic.setEndTime(start == null ? null : start.plus(duration));
+                    yield epic;
+                }
+            };
+            assertSameItem(expected.put(id, task), storage.put(id, task));
+        }
+        assertEquals(expected.size(), storage.size(), "Размер хранилища не совпадает");
+        assertEquals(snapshots(expected.values()), snapshots(storage.values()),
+                "Содержимое или порядок обхода не совпадает с LinkedHashMap");
+
+        Iterator<Task> iterator = storage.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getId() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        expected.keySet().removeIf(id -> id % 2 == 0);
+        assertEquals(snapshots(expected.values()), snapshots(storage.values()), "Удаление через итератор не сработало");
+    }
+
+    private static void assertSameItem(Task expected, Task actual) {
+        assertEquals(expected == null ? null : ItemSnapshot.of(expected), actual == null ? null : ItemSnapshot.of(actual),
+                "Прежнее значение не совпадает");
+    }
+
+    private static List<ItemSnapshot> snapshots(Iterable<Task> tasks) {
+        List<ItemSnapshot> snapshots = new ArrayList<>();
+        for (Task task : tasks) {
+            snapshots.add(ItemSnapshot.of(task));
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 13:50
+ * @project java-kanban
+ */
+class DenseStorageTaskManagerTest extends TaskManagerTest {
+
+    @BeforeEach
+    void setUp() {
+        taskManager = Managers.getPrioritizedTaskManager(StorageEngine.DENSE_ARRAY);
+    }
+
+    @Test
+    void shouldBehaveLikeHashMap() {
+        Random random = new Random(11);
+        IdIndexedStorage<Task> storage = new IdIndexedStorage<>();
+        Map<Integer, Task> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(10) == 0 ? random.nextInt(1_000_000) - 10 : random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), storage.remove(id), "Результат удаления не совпадает");
+            } else {
+                Task task = new Task(id, "Task " + i, "Description");
+                assertEquals(expected.put(id, task), storage.put(id, task), "Результат добавления не совпадает");
+            }
+        }
+        assertEquals(expected, storage, "Содержимое хранилища не совпадает с HashMap");
+        assertEquals(expected.size(), new ArrayList<>(storage.values()).size(), "Обход вернул не все объекты");
+
+        Iterator<Task> iterator = storage.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getId() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        expected.keySet().removeIf(id -> id % 2 == 0);
+        assertEquals(expected, storage, "Удаление через итератор не сработало");
+    }
+}
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
 import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemType;
 import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
 import ru.yandex.practicum.vilkovam.util.Managers;
 
 import java.io.File;
@@ -14,13 +16,20 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Andrew Vilkov
@@ -177,4 +186,260 @@ class FileBackedTaskManagerTest extends TaskManagerTest {
         assertThrows(ManagerSaveException.class,
                 () -> FileBackedTaskManager.loadFromFile(file, idGenerator, historyManager), "Ошибка не соответствует");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldLinkSubtaskWrittenBeforeEpicOnLoad() throws IOException {
+        Path tempFile = Files.createTempFile("tmp", ".csv");
+        Files.write(tempFile, List.of(
+                FileBackedTaskManager.CSV_FILE_HEADER,
+                "3,SUBTASK,SubtaskName,DONE,SubtaskDescription,,,2",
+                "4,SUBTASK,OrphanName,NEW,OrphanDescription,,,10",
+                "2,EPIC,EpicName,DONE,EpicDescription,,,"));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(
+                tempFile.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(3), loaded.getEpicById(2).getSubtaskIds());
+        assertEquals(1, loaded.getAllSubtask().size(), "Подзадача без эпика должна отбрасываться");
+        assertEquals(3, loaded.getLoadStats().lines(), "Количество прочитанных строк не совпадает");
+    }
+
+    @Test
+    void shouldContinueIdsAfterLoadedItems() {
+        Task task = new Task("TaskName", "TaskDescription");
+        taskManager.createTask(task);
+        Epic epic = new Epic("EpicName", "EpicDescription");
+        taskManager.createEpic(epic);
+
+        taskManager = FileBackedTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+        Task newTask = taskManager.createTask(new Task("NewName", "NewDescription"));
+
+        assertEquals(3, newTask.getId(), "Id не должен пересекаться с загруженными");
+        assertNotNull(taskManager.getEpicById(epic.getId()), "Эпик не должен быть перезаписан");
+    }
+
+    @Test
+    void shouldSaveAndLoadBinarySnapshotSuccess() {
+        taskManager = new FileBackedTaskManager(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory(),
+                SnapshotFormat.BINARY);
+        Task task = new Task("TaskName", "TaskDescription");
+        taskManager.createTask(task);
+        Epic epic = new Epic("EpicName", "EpicDescription");
+        taskManager.createEpic(epic);
+        Subtask subtask = new Subtask(epic.getId(), "SubtaskName", "SubtaskDescription");
+        taskManager.createSubtask(subtask);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertEquals(SnapshotFormat.BINARY, loaded.getSnapshotFormat(), "Формат снимка не определен");
+        assertIterableEquals(List.of(task, epic, subtask), loaded.getUnifiedTaskList());
+        assertIterableEquals(List.of(subtask.getId()), loaded.getEpicById(epic.getId()).getSubtaskIds());
+    }
+
+    @Test
+    void shouldLoadFileInParallelSameAsSequential() throws IOException {
+        Path tempFile = Files.createTempFile("tmp", ".csv");
+        tempFile.toFile().deleteOnExit();
+        List<String> lines = new ArrayList<>();
+        lines.add(FileBackedTaskManager.CSV_FILE_HEADER);
+        for (int i = 1; i <= 300; i += 3) {
+            lines.add(i + ",EPIC,EpicName,NEW,\"Epic\nmultiline, \"\"quoted\"\"\",,,");
+            lines.add((i + 1) + ",SUBTASK,\"Name,\n" + i + "\",DONE,Description,2025-01-01T00:00:" + (i % 60) + ",5," + i);
+            lines.add((i + 2) + ",TASK,TaskName,NEW,\"\"\"\",,,");
+        }
+        Files.write(tempFile, lines);
+
+        FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(
+                tempFile.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        FileBackedTaskManager parallel;
+        try {
+            parallel = FileBackedTaskManager.loadFromFile(
+                    tempFile.toFile(),
+                    Managers.getDefaultIdGenerator(),
+                    Managers.getDefaultHistory(),
+                    pool,
+                    64);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(300, parallel.getLoadStats().lines(), "Количество прочитанных строк не совпадает");
+        assertEquals(sequential.getUnifiedTaskList().size(), parallel.getUnifiedTaskList().size());
+        for (Task task : sequential.getUnifiedTaskList()) {
+            Task loaded = parallel.findItem(task.getType(), task.getId());
+            assertEquals(task.getName(), loaded.getName(), "Имя не совпадает для id " + task.getId());
+            assertEquals(task.getDescription(), loaded.getDescription());
+            if (task.getType() != ItemType.EPIC) {
+                assertEquals(task.getStartTime(), loaded.getStartTime());
+            }
+        }
+        Epic epic = parallel.getEpicById(1);
+        assertIterableEquals(List.of(2), epic.getSubtaskIds());
+        assertEquals(TaskStatus.DONE, epic.getStatus(), "Статус эпика не пересчитан");
+        assertEquals(Duration.ofMinutes(5), epic.getDuration(), "Продолжительность эпика не пересчитана");
+        Epic sequentialEpic = sequential.getEpicById(1);
+        assertEquals(epic.getStatus(), sequentialEpic.getStatus(), "Загрузчики должны одинаково пересчитывать эпики");
+        assertEquals(epic.getDuration(), sequentialEpic.getDuration());
+        assertEquals(epic.getStartTime(), sequentialEpic.getStartTime());
+        assertEquals(epic.getEndTime(), sequentialEpic.getEndTime());
+        assertEquals(sequential.getPrioritizedTasks(), parallel.getPrioritizedTasks());
+        Task newTask = new Task(null, "NewName", "NewDescription", TaskStatus.NEW,
+                Duration.ofMinutes(5), LocalDateTime.of(2030, 1, 1, 0, 0));
+        assertEquals(301, parallel.createTask(newTask).getId(), "Id не должен пересекаться с загруженными");
+    }
+
+    @Test
+    void shouldReplaceSnapshotAtomically() {
+        taskManager.createTask(new Task("TaskName", "TaskDescription"));
+
+        assertFalse(Files.exists(FileBackedTaskManager.getTempPath(path.toFile())),
+                "Временный файл должен быть переименован");
+        assertEquals(1, FileBackedTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory()).getAllTask().size());
+    }
+
+    @Test
+    void shouldRecoverValidPrefixOfTornBinarySnapshot() throws IOException {
+        taskManager = new FileBackedTaskManager(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory(),
+                SnapshotFormat.BINARY);
+        Task task = taskManager.createTask(new Task("TaskName", "TaskDescription"));
+        taskManager.createTask(new Task("SecondName", "SecondDescription"));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 12));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(task), loaded.getAllTask());
+        RecoveryStats recovery = loaded.getRecoveryStats();
+        assertFalse(recovery.snapshotComplete(), "Оборванный снимок не обнаружен");
+        assertTrue(recovery.discardedBytes() > 0, "Отброшенный хвост не учтен");
+        assertEquals(bytes.length - 12, recovery.bytesScanned());
+    }
+
+    @Test
+    void shouldStopAtRecordWithWrongChecksum() throws IOException {
+        taskManager = new FileBackedTaskManager(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory(),
+                SnapshotFormat.BINARY);
+        Task task = taskManager.createTask(new Task("TaskName", "TaskDescription"));
+        taskManager.createTask(new Task("SecondName", "SecondDescription"));
+        byte[] bytes = Files.readAllBytes(path);
+        int secondName = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("SecondName");
+        bytes[secondName] = 'X';
+        Files.write(path, bytes);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(task), loaded.getAllTask());
+        assertFalse(loaded.getRecoveryStats().isClean(), "Испорченная запись не обнаружена");
+    }
+
+    @Test
+    void shouldHydrateDescriptionsLazily() {
+        Task task = taskManager.createTask(new Task(null, "TaskName", "Long description", TaskStatus.NEW,
+                Duration.ofMinutes(5), LocalDateTime.of(2030, 1, 1, 0, 0)));
+        Epic epic = taskManager.createEpic(new Epic("EpicName", "Epic description"));
+        taskManager.createSubtask(new Subtask(epic.getId(), "SubtaskName", "Subtask description"));
+        Path descriptionsPath = FileBackedTaskManager.getDescriptionsPath(path.toFile());
+        descriptionsPath.toFile().deleteOnExit();
+
+        try (DescriptionStore descriptions = new DescriptionStore(descriptionsPath, 1)) {
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(
+                    path.toFile(),
+                    Managers.getDefaultIdGenerator(),
+                    Managers.getDefaultHistory(),
+                    descriptions);
+
+            assertEquals("Long description", loaded.getPrioritizedTasks().iterator().next().getDescription(),
+                    "Набор приоритетов должен возвращать описание из файла");
+            assertEquals("Long description", loaded.getPrioritizedTasks(null, null).getFirst().getDescription());
+            assertEquals("Long description", loaded.getOverlappingTasks(LocalDateTime.of(2030, 1, 1, 0, 0),
+                    LocalDateTime.of(2030, 1, 1, 1, 0)).getFirst().getDescription());
+            assertTrue(loaded.getPrioritizedTasks().contains(loaded.getTaskById(task.getId())),
+                    "Проверка наличия не должна зависеть от описания");
+            assertEquals("Long description", loaded.getTaskById(task.getId()).getDescription());
+            assertEquals("Epic description", loaded.getEpicById(epic.getId()).getDescription());
+            assertTrue(descriptions.getMisses() >= 2, "Описания должны читаться из файла");
+            assertEquals("Long description", loaded.getSnapshotById(task.getId()).description(),
+                    "Снимок должен содержать описание из файла");
+            assertEquals("TaskName", loaded.getUnifiedSnapshotList().getFirst().name());
+            assertEquals("Long description", loaded.getUnifiedSnapshotList().getFirst().description());
+            loaded.updateTask(loaded.getSnapshotById(task.getId()).toTask());
+            assertEquals("Long description", loaded.getTaskById(task.getId()).getDescription(),
+                    "Обновление копией снимка не должно удалять описание");
+
+            Task updated = loaded.getTaskById(task.getId());
+            updated.setDescription("Updated description");
+            loaded.updateTask(updated);
+            assertEquals("Subtask description", loaded.getAllSubtask().getFirst().getDescription());
+        }
+
+        FileBackedTaskManager reloaded = FileBackedTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+        assertEquals("Updated description", reloaded.getTaskById(task.getId()).getDescription(),
+                "Снимок должен содержать полные описания");
+        assertEquals("Epic description", reloaded.getEpicById(epic.getId()).getDescription());
+    }
+
+    @Test
+    void shouldSaveAndLoadCompressedSnapshotSuccess() throws IOException {
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            FileBackedTaskManager manager = new FileBackedTaskManager(
+                    path.toFile(),
+                    Managers.getDefaultIdGenerator(),
+                    Managers.getDefaultHistory(),
+                    format);
+            manager.setSnapshotCompression(SnapshotCompression.GZIP);
+            Task task = manager.createTask(new Task("TaskName", "Description, with comma\nand new line"));
+            Epic epic = manager.createEpic(new Epic("EpicName", "EpicDescription"));
+            Subtask subtask = manager.createSubtask(new Subtask(epic.getId(), "SubtaskName", "SubtaskDescription"));
+
+            byte[] bytes = Files.readAllBytes(path);
+            assertEquals(0x1f, bytes[0] & 0xff, "Снимок должен быть сжат");
+            assertEquals(0x8b, bytes[1] & 0xff, "Снимок должен быть сжат");
+
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(
+                    path.toFile(),
+                    Managers.getDefaultIdGenerator(),
+                    Managers.getDefaultHistory(),
+                    ForkJoinPool.commonPool());
+
+            assertEquals(format, loaded.getSnapshotFormat());
+            assertEquals(SnapshotCompression.GZIP, loaded.getSnapshotCompression(),
+                    "Сжатие должно сохраняться после загрузки");
+            assertEquals(task.getDescription(), loaded.getTaskById(task.getId()).getDescription());
+            assertIterableEquals(List.of(epic), loaded.getAllEpic());
+            assertIterableEquals(List.of(subtask), loaded.getAllSubtaskByEpicId(epic.getId()));
+            Files.delete(path);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.yandex.practicum.vilkovam.model.TaskStatus.NEW;
 
@@ -168,5 +169,124 @@ class InMemoryPrioritizedTaskManagerTest extends TaskManagerTest {
         assertEquals(expectedDuration, duration, "Продолжительность эпика не совпадает.");
     }
 
+    @Test
+    void shouldReturnTasksOverlappingInterval() {
+        LocalDateTime nowDateTime = LocalDateTime.of(2026, 1, 1, 10, 0);
+        Task first = taskManager.createTask(
+                new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(30), nowDateTime));
+        Task second = taskManager.createTask(
+                new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(30), nowDateTime.plusHours(1)));
+        taskManager.createTask(new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(30), nowDateTime.plusHours(2)));
+        taskManager.createTask(new Task(DEFAULT_NAME, DEFAULT_DESCRIPTION));
+
+        assertIterableEquals(List.of(first, second),
+                taskManager.getOverlappingTasks(nowDateTime.plusMinutes(20), nowDateTime.plusMinutes(70)),
+                "Пересекающиеся задачи не совпадают");
+        assertIterableEquals(Collections.emptyList(),
+                taskManager.getOverlappingTasks(nowDateTime.plusMinutes(30), nowDateTime.plusHours(1)),
+                "Интервал между задачами не должен пересекаться с ними");
+    }
+
+    @Test
+    void shouldKeepPrioritizedTasksConsistentAfterReschedule() {
+        LocalDateTime nowDateTime = LocalDateTime.of(2026, 1, 1, 10, 0);
+        Task first = taskManager.createTask(
+                new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(0), nowDateTime));
+        Task second = taskManager.createTask(
+                new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(0), nowDateTime.plusMinutes(30)));
+        assertIterableEquals(List.of(first, second), taskManager.getPrioritizedTasks());
+
+        for (int i = 1; i <= 10; i++) {
+            second.setStartTime(nowDateTime.plusHours(i));
+            taskManager.updateTask(second);
+        }
+        assertIterableEquals(List.of(first, second), taskManager.getPrioritizedTasks(),
+                "После переноса задачи не должно оставаться устаревших записей");
+        assertEquals(nowDateTime.plusHours(10), List.copyOf(taskManager.getPrioritizedTasks()).getLast().getStartTime());
+    }
+
+    @Test
+    void shouldRejectPointTaskAndRangeTaskWithSameStartInAnyOrder() {
+        LocalDateTime nowDateTime = LocalDateTime.of(2026, 1, 1, 10, 0);
+        for (Duration pointDuration : new Duration[]{Duration.ZERO, null}) {
+            taskManager.createTask(new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, pointDuration, nowDateTime));
+            assertThrows(OverlappingTaskException.class, () -> taskManager.createTask(
+                            new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(60), nowDateTime)),
+                    "Интервал, начинающийся в точке задачи, должен пересекаться с ней");
+
+            taskManager = Managers.getPrioritizedTaskManager();
+            taskManager.createTask(new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(60), nowDateTime));
+            assertThrows(OverlappingTaskException.class, () -> taskManager.createTask(
+                            new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, pointDuration, nowDateTime)),
+                    "Точка в начале интервала должна пересекаться с ним");
+            taskManager = Managers.getPrioritizedTaskManager();
+        }
+    }
+
+    @Test
+    void shouldFindFreeSlotBetweenTasks() {
+        LocalDateTime nowDateTime = LocalDateTime.of(2026, 1, 1, 10, 0);
+        taskManager.createTask(new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(30), nowDateTime));
+        taskManager.createTask(
+                new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(30), nowDateTime.plusMinutes(40)));
+
+        assertEquals(nowDateTime.plusMinutes(30),
+                taskManager.findFreeSlot(ofMinutes(10), nowDateTime.plusMinutes(5), null),
+                "Окно должно начаться после задачи, идущей в момент начала поиска");
+        assertEquals(nowDateTime.plusMinutes(70), taskManager.findFreeSlot(ofMinutes(11), nowDateTime, null));
+        assertNull(taskManager.findFreeSlot(ofMinutes(11), nowDateTime, nowDateTime.plusMinutes(80)),
+                "Окно не должно выходить за горизонт");
+        assertIterableEquals(List.of(nowDateTime.plusMinutes(30), nowDateTime.plusMinutes(70)),
+                taskManager.findFreeSlots(ofMinutes(10), nowDateTime, null, 2));
+
+        Task created = taskManager.createTask(new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(10),
+                taskManager.findFreeSlot(ofMinutes(10), nowDateTime, null)));
+        assertNotNull(created, "Задача в найденном окне должна создаваться без пересечений");
+    }
+
+    @Test
+    void shouldReturnPrioritizedTasksPage() {
+        LocalDateTime nowDateTime = LocalDateTime.of(2026, 1, 1, 10, 0);
+        Task first = taskManager.createTask(
+                new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(30), nowDateTime));
+        Task second = taskManager.createTask(
+                new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(30), nowDateTime.plusHours(1)));
+        Task third = taskManager.createTask(
+                new Task(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, ofMinutes(30), nowDateTime.plusHours(2)));
+
+        assertIterableEquals(List.of(second, third),
+                taskManager.getPrioritizedTasks(nowDateTime.plusMinutes(20), null),
+                "Задачи диапазона не совпадают");
+        assertIterableEquals(List.of(second),
+                taskManager.getPrioritizedTasks(null, null, 1, 1), "Страница не совпадает");
+        assertIterableEquals(List.of(second, first),
+                taskManager.getPrioritizedTasksDescending(nowDateTime, nowDateTime.plusHours(2), 0, 10),
+                "Обратный порядок не совпадает");
+        assertIterableEquals(Collections.emptyList(),
+                taskManager.getPrioritizedTasks(null, null, 5, 10), "Страница за концом набора должна быть пустой");
+    }
 
+    @Test
+    void shouldUpdateEpicTimeWhenSubtaskRemovedOrMoved() {
+        LocalDateTime nowDateTime = LocalDateTime.of(2026, 1, 1, 10, 0);
+        Epic epic = taskManager.createEpic(new Epic(DEFAULT_NAME, DEFAULT_DESCRIPTION));
+        Epic secondEpic = taskManager.createEpic(new Epic(DEFAULT_NAME, DEFAULT_DESCRIPTION));
+        Subtask first = taskManager.createSubtask(
+                new Subtask(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW, epic.getId(), ofMinutes(10), nowDateTime));
+        Subtask second = taskManager.createSubtask(new Subtask(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW,
+                epic.getId(), ofMinutes(20), nowDateTime.plusHours(1)));
+        Subtask third = taskManager.createSubtask(new Subtask(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW,
+                epic.getId(), ofMinutes(30), nowDateTime.plusHours(2)));
+
+        taskManager.removeSubtaskById(first.getId());
+        third.setEpicId(secondEpic.getId());
+        taskManager.updateSubtask(third);
+
+        Epic epicById = taskManager.getEpicById(epic.getId());
+        assertEquals(second.getStartTime(), epicById.getStartTime(), "Время начала эпика не совпадает.");
+        assertEquals(second.getEndTime(), epicById.getEndTime(), "Время завершения эпика не совпадает.");
+        assertEquals(ofMinutes(20), epicById.getDuration(), "Продолжительность эпика не совпадает.");
+        assertEquals(third.getEndTime(), taskManager.getEpicById(secondEpic.getId()).getEndTime(),
+                "Время завершения нового эпика не совпадает.");
+    }
 }
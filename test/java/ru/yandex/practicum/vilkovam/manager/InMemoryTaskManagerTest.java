@@ -1,8 +1,23 @@
 package ru.yandex.practicum.vilkovam.manager;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemSnapshot;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
 import ru.yandex.practicum.vilkovam.util.Managers;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static ru.yandex.practicum.vilkovam.model.TaskStatus.NEW;
+
 /**
  * @author Andrew Vilkov
  * @created 18.09.2025 - 19:11
@@ -14,4 +29,53 @@ class InMemoryTaskManagerTest extends TaskManagerTest {
     void setUp() {
         taskManager = new InMemoryTaskManager(Managers.getDefaultIdGenerator(), Managers.getDefaultHistory());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldEvictLeastRecentlyReadSnapshots() {
+        int count = TaskController.DEFAULT_SNAPSHOT_CACHE_SIZE + 1;
+        for (int i = 0; i < count; i++) {
+            taskManager.createTask(new Task("Task " + i, "Description"));
+        }
+        List<Task> tasks = taskManager.getAllTask();
+        ItemSnapshot snapshot = taskManager.getSnapshotById(tasks.getFirst().getId());
+        assertSame(snapshot, taskManager.getSnapshotById(tasks.getFirst().getId()), "Снимок должен браться из кэша");
+        assertEquals(count, taskManager.getUnifiedSnapshotList().size());
+
+        tasks.subList(1, count - 1).forEach(task -> taskManager.getSnapshotById(task.getId()));
+        assertSame(snapshot, taskManager.getSnapshotById(tasks.getFirst().getId()),
+                "Снимок, который помещается в кэш, не должен вытесняться");
+
+        tasks.subList(1, count).forEach(task -> taskManager.getSnapshotById(task.getId()));
+        ItemSnapshot rebuilt = taskManager.getSnapshotById(tasks.getFirst().getId());
+        assertNotSame(snapshot, rebuilt, "Кэш снимков должен быть ограничен");
+        assertEquals(snapshot, rebuilt, "Пересозданный снимок должен совпадать с прежним");
+    }
+
+    @Test
+    void shouldKeepEpicTimeExactWithEqualAndSubSecondSubtaskTimes() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 10, 0, 0, 500_000_000);
+        Epic epic = taskManager.createEpic(new Epic(DEFAULT_NAME, DEFAULT_DESCRIPTION));
+        Subtask first = taskManager.createSubtask(new Subtask(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW,
+                epic.getId(), Duration.ofMillis(700), start));
+        Subtask second = taskManager.createSubtask(new Subtask(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW,
+                epic.getId(), Duration.ofMillis(700), start));
+        taskManager.createSubtask(new Subtask(null, DEFAULT_NAME, DEFAULT_DESCRIPTION, NEW,
+                epic.getId(), null, null));
+
+        Epic epicById = taskManager.getEpicById(epic.getId());
+        assertEquals(start, epicById.getStartTime(), "Время начала эпика не совпадает.");
+        assertEquals(start.plusNanos(700_000_000), epicById.getEndTime(), "Время завершения эпика не совпадает.");
+        assertEquals(Duration.ofMillis(1400), epicById.getDuration(), "Продолжительность эпика не совпадает.");
+
+        taskManager.removeSubtaskById(first.getId());
+        epicById = taskManager.getEpicById(epic.getId());
+        assertEquals(start, epicById.getStartTime(), "Одинаковое время второй подзадачи должно остаться.");
+        assertEquals(Duration.ofMillis(700), epicById.getDuration(), "Продолжительность эпика не совпадает.");
+
+        second.setStartTime(null);
+        taskManager.updateSubtask(second);
+        epicById = taskManager.getEpicById(epic.getId());
+        assertNull(epicById.getStartTime(), "Подзадач со временем не осталось.");
+        assertNull(epicById.getEndTime(), "Подзадач со временем не осталось.");
+    }
+}
@@ -0,0 +1,376 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.exceptions.ManagerSaveException;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 11:05
+ * @project java-kanban
+ */
+class JournaledTaskManagerTest extends TaskManagerTest {
+    Path path;
+    Path journalPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("journaled", ".csv");
+        Files.delete(path);
+        journalPath = FileBackedTaskManager.getJournalPath(path.toFile());
+        taskManager = new JournaledTaskManager(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        path.toFile().deleteOnExit();
+        journalPath.toFile().deleteOnExit();
+    }
+
+    @Test
+    void shouldAppendOneRecordPerMutation() throws IOException {
+        Task task = new Task("TaskName", "TaskDescription");
+        taskManager.createTask(task);
+        task.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(task);
+        taskManager.removeTaskById(task.getId());
+
+        List<String> actual = Files.readAllLines(journalPath, StandardCharsets.UTF_8);
+        List<String> expected = List.of(
+                "PUT,1,TASK,TaskName,NEW,TaskDescription,,,",
+                "PUT,1,TASK,TaskName,DONE,TaskDescription,,,",
+                "REMOVE,1,TASK");
+        assertIterableEquals(expected, actual);
+        assertFalse(Files.exists(path), "Снимок не должен перезаписываться");
+    }
+
+    @Test
+    void shouldReplayJournalOnLoad() {
+        Task task = new Task("TaskName", "TaskDescription");
+        taskManager.createTask(task);
+        Epic epic = new Epic("EpicName", "EpicDescription");
+        taskManager.createEpic(epic);
+        Subtask subtask = new Subtask(epic.getId(), "SubtaskName", "SubtaskDescription");
+        taskManager.createSubtask(subtask);
+        subtask.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(subtask);
+
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(task, epic, subtask), taskManager.getUnifiedTaskList());
+        Epic loadedEpic = taskManager.getEpicById(epic.getId());
+        assertEquals(TaskStatus.DONE, loadedEpic.getStatus(), "Статус эпика не восстановлен");
+        assertIterableEquals(List.of(subtask.getId()), loadedEpic.getSubtaskIds());
+    }
+
+    @Test
+    void shouldSkipEmptyJournalLines() throws IOException {
+        Files.writeString(journalPath, String.join(System.lineSeparator(),
+                "",
+                "PUT,1,TASK,TaskName,NEW,TaskDescription,,,",
+                "",
+                "PUT,2,TASK,SecondName,DONE,SecondDescription,,,",
+                "REMOVE,1,TASK",
+                "",
+                ""), StandardCharsets.UTF_8);
+
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertNull(taskManager.getTaskById(1), "Задача должна быть удалена");
+        assertEquals(TaskStatus.DONE, taskManager.getTaskById(2).getStatus(), "Пустые строки должны пропускаться");
+    }
+
+    @Test
+    void shouldReplayJournalTailAfterCheckpoint() throws IOException {
+        Task task = new Task("TaskName", "TaskDescription");
+        taskManager.createTask(task);
+        Task secondTask = new Task("SecondName", "SecondDescription");
+        taskManager.createTask(secondTask);
+        ((JournaledTaskManager) taskManager).checkpoint();
+
+        assertFalse(Files.exists(journalPath), "Журнал должен очищаться после снимка");
+
+        taskManager.removeTaskById(task.getId());
+
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertNull(taskManager.getTaskById(task.getId()), "Задача должна быть удалена");
+        assertIterableEquals(List.of(secondTask), taskManager.getAllTask());
+    }
+
+    @Test
+    void shouldCoalesceRecordsWithGroupCommit() throws IOException {
+        try (JournaledTaskManager manager = new JournaledTaskManager(path.toFile(),
+                Managers.getDefaultIdGenerator(), Managers.getDefaultHistory(), CommitPolicy.groupCommit(100, 0))) {
+            Epic epic = manager.createEpic(new Epic("EpicName", "EpicDescription"));
+            for (int i = 0; i < 9; i++) {
+                manager.createSubtask(new Subtask(epic.getId(), "SubtaskName", "SubtaskDescription"));
+            }
+
+            assertFalse(Files.exists(journalPath), "Записи должны копиться до фиксации");
+
+            manager.commit();
+
+            assertEquals(10, Files.readAllLines(journalPath, StandardCharsets.UTF_8).size());
+            CommitStats stats = manager.getCommitStats();
+            assertEquals(1, stats.commits(), "Ожидается одна физическая запись");
+            assertEquals(10, stats.maxBatchSize(), "Размер пачки не совпадает");
+        }
+    }
+
+    @Test
+    void shouldCommitGroupByTimer() throws InterruptedException {
+        try (JournaledTaskManager manager = new JournaledTaskManager(path.toFile(),
+                Managers.getDefaultIdGenerator(), Managers.getDefaultHistory(), CommitPolicy.groupCommit(100, 10))) {
+            manager.createTask(new Task("TaskName", "TaskDescription"));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!Files.exists(journalPath) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertTrue(Files.exists(journalPath), "Запись должна быть зафиксирована по таймеру");
+            assertEquals(1, manager.getCommitStats().records(), "Количество записей не совпадает");
+        }
+    }
+
+    @Test
+    void shouldFlushPendingRecordsOnClose() {
+        JournaledTaskManager manager = new JournaledTaskManager(path.toFile(),
+                Managers.getDefaultIdGenerator(), Managers.getDefaultHistory(), CommitPolicy.groupCommit(100, 0));
+        Task task = manager.createTask(new Task("TaskName", "TaskDescription"));
+        manager.close();
+
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(task), taskManager.getAllTask());
+    }
+
+    @Test
+    void shouldTruncateTornJournalTail() throws IOException {
+        Task task = taskManager.createTask(new Task("TaskName", "TaskDescription"));
+        String tornRecord = "PUT,2,TASK,\"Torn\nname";
+        Files.writeString(journalPath, tornRecord, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(task), loaded.getAllTask());
+        assertEquals(tornRecord.length(), loaded.getRecoveryStats().discardedBytes(), "Оборванная запись не отброшена");
+        assertTrue(Files.readString(journalPath, StandardCharsets.UTF_8).endsWith(System.lineSeparator()),
+                "Журнал должен обрезаться по последней целой записи");
+
+        Task secondTask = loaded.createTask(new Task("SecondName", "SecondDescription"));
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(task, secondTask), taskManager.getAllTask());
+        assertTrue(((JournaledTaskManager) taskManager).getRecoveryStats().isClean(), "Журнал должен быть целым");
+    }
+
+    @Test
+    void shouldCompactJournalIntoSnapshot() {
+        JournaledTaskManager manager = (JournaledTaskManager) taskManager;
+        Task task = manager.createTask(new Task("TaskName", "TaskDescription"));
+        manager.compact();
+
+        assertFalse(Files.exists(journalPath), "Журнал должен удаляться после сжатия");
+        assertTrue(Files.exists(path), "Снимок не записан");
+
+        Task secondTask = manager.createTask(new Task("SecondName", "SecondDescription"));
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(task, secondTask), taskManager.getAllTask());
+        assertEquals(1, manager.getCompactions(), "Количество сжатий не совпадает");
+    }
+
+    @Test
+    void shouldCompactLazyDescriptionBoard() {
+        Task task = taskManager.createTask(new Task("TaskName", "TaskDescription"));
+        Epic epic = taskManager.createEpic(new Epic("EpicName", "EpicDescription"));
+        ((JournaledTaskManager) taskManager).checkpoint();
+        Path descriptionsPath = FileBackedTaskManager.getDescriptionsPath(path.toFile());
+        descriptionsPath.toFile().deleteOnExit();
+
+        try (DescriptionStore descriptions = new DescriptionStore(descriptionsPath, 1);
+             JournaledTaskManager lazy = JournaledTaskManager.loadFromFile(path.toFile(),
+                     Managers.getDefaultIdGenerator(), Managers.getDefaultHistory(), CommitPolicy.osBuffered(),
+                     descriptions)) {
+            Task updated = lazy.getTaskById(task.getId());
+            updated.setDescription("UpdatedDescription");
+            lazy.updateTask(updated);
+            lazy.compact();
+        }
+
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+        assertEquals("UpdatedDescription", taskManager.getTaskById(task.getId()).getDescription(),
+                "Снимок после сжатия должен содержать описания");
+        assertEquals("EpicDescription", taskManager.getEpicById(epic.getId()).getDescription());
+    }
+
+    @Test
+    void shouldReuseDescriptionsFileWhileSnapshotIsUnchanged() {
+        Task task = taskManager.createTask(new Task("TaskName", "TaskDescription"));
+        Epic epic = taskManager.createEpic(new Epic("EpicName", "EpicDescription"));
+        ((JournaledTaskManager) taskManager).checkpoint();
+        Path descriptionsPath = FileBackedTaskManager.getDescriptionsPath(path.toFile());
+        descriptionsPath.toFile().deleteOnExit();
+
+        try (DescriptionStore descriptions = new DescriptionStore(descriptionsPath);
+             JournaledTaskManager lazy = JournaledTaskManager.loadFromFile(path.toFile(),
+                     Managers.getDefaultIdGenerator(), Managers.getDefaultHistory(), CommitPolicy.osBuffered(),
+                     descriptions)) {
+            Task updated = lazy.getTaskById(task.getId());
+            updated.setDescription("UpdatedDescription");
+            lazy.updateTask(updated);
+        }
+
+        try (DescriptionStore descriptions = new DescriptionStore(descriptionsPath, 1)) {
+            assertTrue(descriptions.open(path), "Файл описаний неизмененного снимка должен переиспользоваться");
+        }
+        try (DescriptionStore descriptions = new DescriptionStore(descriptionsPath, 1);
+             JournaledTaskManager lazy = JournaledTaskManager.loadFromFile(path.toFile(),
+                     Managers.getDefaultIdGenerator(), Managers.getDefaultHistory(), CommitPolicy.osBuffered(),
+                     descriptions)) {
+            assertEquals("UpdatedDescription", lazy.getTaskById(task.getId()).getDescription(),
+                    "Описание из журнала должно заменять описание снимка");
+            assertEquals("EpicDescription", lazy.getEpicById(epic.getId()).getDescription());
+            lazy.compact();
+        }
+
+        try (DescriptionStore descriptions = new DescriptionStore(descriptionsPath, 1)) {
+            assertFalse(descriptions.open(path), "После изменения снимка файл описаний строится заново");
+        }
+    }
+
+    @Test
+    void shouldReplayRotatedJournalLeftAfterCrash() throws IOException {
+        JournaledTaskManager manager = (JournaledTaskManager) taskManager;
+        Task task = manager.createTask(new Task("TaskName", "TaskDescription"));
+        byte[] rotatedJournal = Files.readAllBytes(journalPath);
+        manager.compact();
+        Files.write(FileBackedTaskManager.getCompactingJournalPath(path.toFile()), rotatedJournal);
+        FileBackedTaskManager.getCompactingJournalPath(path.toFile()).toFile().deleteOnExit();
+        task.setStatus(TaskStatus.DONE);
+        manager.updateTask(task);
+
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertEquals(TaskStatus.DONE, taskManager.getTaskById(task.getId()).getStatus(),
+                "Повторное применение старого журнала не должно откатывать изменения");
+    }
+
+    @Test
+    void shouldCompactByScheduledThreshold() throws InterruptedException {
+        JournaledTaskManager manager = (JournaledTaskManager) taskManager;
+        manager.scheduleCompaction(new CompactionPolicy(1, 0, 5));
+        Task task = manager.createTask(new Task("TaskName", "TaskDescription"));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (manager.getCompactions() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        manager.close();
+
+        assertEquals(1, manager.getCompactions(), "Журнал должен сжиматься по порогу размера");
+        assertFalse(Files.exists(journalPath), "Журнал должен удаляться после сжатия");
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+        assertIterableEquals(List.of(task), taskManager.getAllTask());
+    }
+
+    @Test
+    void shouldWriteBatchOnceWhenRetryingFailedCommit() throws IOException {
+        Path directory = Files.createTempDirectory("journal").resolve("missing");
+        Path journal = directory.resolve("journal.csv");
+        try (TaskJournal taskJournal = new TaskJournal(journal, CommitPolicy.groupCommit(100, 0))) {
+            taskJournal.put(new Task(1, "First", "Description", TaskStatus.NEW));
+            taskJournal.put(new Task(2, "Second", "Description", TaskStatus.NEW));
+            assertThrows(ManagerSaveException.class, taskJournal::commit, "Запись в отсутствующий каталог");
+
+            Files.createDirectories(directory);
+            taskJournal.commit();
+        }
+
+        assertEquals(2, TaskJournal.replay(journal, task -> {
+        }, (type, id) -> {
+        }), "Повторная фиксация не должна дублировать записи");
+        directory.getParent().toFile().deleteOnExit();
+        directory.toFile().deleteOnExit();
+        journal.toFile().deleteOnExit();
+    }
+
+    @Test
+    void shouldRetryBackgroundCommitAfterTransientFailure() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("journal").resolve("missing");
+        Path journal = directory.resolve("journal.csv");
+        try (TaskJournal taskJournal = new TaskJournal(journal, CommitPolicy.groupCommit(100, 10))) {
+            taskJournal.put(new Task(1, "First", "Description", TaskStatus.NEW));
+            Thread.sleep(50);
+
+            taskJournal.put(new Task(2, "Second", "Description", TaskStatus.NEW));
+            Files.createDirectories(directory);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (taskJournal.getStats().records() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(2, taskJournal.getStats().records(), "Пакет должен быть записан следующей фиксацией");
+
+            taskJournal.put(new Task(3, "Third", "Description", TaskStatus.NEW));
+            taskJournal.commit();
+        }
+
+        assertEquals(3, TaskJournal.replay(journal, task -> {
+        }, (type, id) -> {
+        }), "Записи не должны теряться или дублироваться");
+        directory.getParent().toFile().deleteOnExit();
+        directory.toFile().deleteOnExit();
+        journal.toFile().deleteOnExit();
+    }
+}
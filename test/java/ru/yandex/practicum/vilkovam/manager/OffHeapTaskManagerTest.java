@@ -0,0 +1,119 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemSnapshot;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+/**
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 18:10
+ * @project java-kanban
+ */
+class OffHeapTaskManagerTest extends TaskManagerTest {
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("off-heap");
+        taskManager = Managers.getOffHeapTaskManager(directory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (taskManager instanceof OffHeapTaskManager manager) {
+            manager.close();
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void shouldRestoreBoardAfterReopen() {
+        LocalDateTime start = LocalDateTime.of(2026, 10, 19, 9, 0);
+        Task task = taskManager.createTask(new Task(null, "Задача", "Описание задачи", TaskStatus.NEW,
+                Duration.ofMinutes(30), start));
+        Epic epic = taskManager.createEpic(new Epic("Эпик", null));
+        Subtask subtask = taskManager.createSubtask(new Subtask(null, "Подзадача", "Описание подзадачи",
+                TaskStatus.IN_PROGRESS, epic.getId(), Duration.ofSeconds(90, 500), start.plusHours(1)));
+        taskManager.removeTaskById(taskManager.createTask(new Task("Удаленная", "")).getId());
+        List<ItemSnapshot> expected = taskManager.getUnifiedSnapshotList();
+        List<Task> expectedPrioritized = List.copyOf(taskManager.getPrioritizedTasks());
+
+        ((OffHeapTaskManager) taskManager).close();
+        taskManager = Managers.getOffHeapTaskManager(directory);
+
+        assertEquals(expected, taskManager.getUnifiedSnapshotList(), "Доска не восстановлена после открытия");
+        assertIterableEquals(expectedPrioritized, taskManager.getPrioritizedTasks(),
+                "Набор приоритетов не восстановлен");
+        assertEquals(List.of(subtask), taskManager.getAllSubtaskByEpicId(epic.getId()), "Подзадачи эпика не найдены");
+        assertEquals(List.of(task), taskManager.getTasksByStatus(TaskStatus.NEW), "Индекс статусов не восстановлен");
+        assertEquals(4, taskManager.createTask(new Task("Новая", "")).getId(),
+                "Id должен продолжать наибольший сохраненный, как при загрузке из файла");
+    }
+
+    @Test
+    void shouldKeepStorageConsistentAcrossCompactionAndReopen() {
+        Random random = new Random(31);
+        Path path = directory.resolve("storage.bin");
+        Map<Integer, Task> expected = new LinkedHashMap<>();
+        OffHeapStorage<Task> storage = new OffHeapStorage<>(path);
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(10) == 0 ? random.nextInt(1_000_000) - 10 : random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(snapshot(expected.remove(id)), snapshot(storage.remove(id)), "Результат удаления не совпадает");
+                continue;
+            }
+            Task task;
+            if (random.nextBoolean()) {
+                task = new Task(id, "Задача " + i, "x".repeat(random.nextInt(200)), TaskStatus.DONE,
+                        Duration.ofMinutes(random.nextInt(100)), LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(i));
+            } else {
+                task = new Epic(id, "Эпик " + i, null, TaskStatus.NEW, List.of(i, i + 1, i + 2));
+            }
+            assertEquals(snapshot(expected.put(id, task)), snapshot(storage.put(id, task)), "Результат добавления не совпадает");
+        }
+        assertEquals(snapshots(expected.values()), snapshots(storage.values()), "Содержимое не совпадает");
+
+        storage.close();
+        storage = new OffHeapStorage<>(path);
+        assertEquals(expected.size(), storage.size(), "Размер не восстановлен");
+        assertEquals(snapshots(expected.values()), snapshots(storage.values()), "Содержимое не восстановлено");
+        storage.close();
+    }
+
+    private static ItemSnapshot snapshot(Task task) {
+        return task == null ? null : ItemSnapshot.of(task);
+    }
+
+    private static List<ItemSnapshot> snapshots(Iterable<Task> tasks) {
+        List<ItemSnapshot> snapshots = new ArrayList<>();
+        for (Task task : tasks) {
+            snapshots.add(ItemSnapshot.of(task));
+        }
+        return snapshots;
+    }
+}
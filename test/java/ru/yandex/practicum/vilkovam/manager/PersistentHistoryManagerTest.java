@@ -0,0 +1,181 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 21:40
+ * @project java-kanban
+ */
+class PersistentHistoryManagerTest {
+    Path path;
+    Path historyPath;
+    PersistentHistoryManager history;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("history", ".csv");
+        Files.delete(path);
+        historyPath = FileBackedTaskManager.getHistoryPath(path.toFile());
+        history = Managers.getPersistentHistory(path.toFile());
+
+        path.toFile().deleteOnExit();
+        historyPath.toFile().deleteOnExit();
+    }
+
+    @AfterEach
+    void tearDown() {
+        history.close();
+    }
+
+    @Test
+    void shouldRestoreHistoryAfterLoadFromFile() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(path.toFile(),
+                Managers.getDefaultIdGenerator(), history);
+        Task task = manager.createTask(new Task(null, "Task", "Description", TaskStatus.NEW));
+        Epic epic = manager.createEpic(new Epic("Epic", "Description"));
+        Subtask subtask = manager.createSubtask(new Subtask(epic.getId(), "Subtask", "Description"));
+        manager.getTaskById(task.getId());
+        manager.getSubtaskById(subtask.getId());
+        manager.getEpicById(epic.getId());
+        manager.getTaskById(task.getId());
+        List<Task> expected = manager.getHistory();
+        history.close();
+
+        history = Managers.getPersistentHistory(path.toFile());
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(path.toFile(),
+                Managers.getDefaultIdGenerator(), history);
+
+        assertIterableEquals(expected, loaded.getHistory(), "История должна восстанавливаться в прежнем порядке");
+        assertEquals(ItemType.EPIC, loaded.getHistory().get(1).getType(), "Тип объекта истории не совпадает");
+    }
+
+    @Test
+    void shouldSkipRemovedItemsOnRestore() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(path.toFile(),
+                Managers.getDefaultIdGenerator(), history);
+        Task first = manager.createTask(new Task(null, "First", "Description", TaskStatus.NEW));
+        Task second = manager.createTask(new Task(null, "Second", "Description", TaskStatus.NEW));
+        manager.getTaskById(first.getId());
+        manager.getTaskById(second.getId());
+        manager.removeTaskById(first.getId());
+        history.close();
+
+        history = Managers.getPersistentHistory(path.toFile());
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(path.toFile(),
+                Managers.getDefaultIdGenerator(), history);
+
+        assertIterableEquals(List.of(second), loaded.getHistory(), "Удаленная задача не должна попасть в историю");
+        assertEquals(1, history.getRecordCount(), "После восстановления файл должен быть сжат");
+    }
+
+    @Test
+    void shouldCompactWhenRecordsExceedThreshold() throws IOException {
+        history.close();
+        history = new PersistentHistoryManager(historyPath, Managers.getDefaultHistory(), 16);
+        Task first = new Task(1, "First", "Description", TaskStatus.NEW);
+        Task second = new Task(2, "Second", "Description", TaskStatus.NEW);
+        for (int i = 0; i < 100; i++) {
+            history.add(i % 2 == 0 ? first : second);
+        }
+        history.close();
+
+        assertTrue(history.getCompactions() > 0, "Файл истории должен сжиматься");
+        assertTrue(Files.size(historyPath) < 16L * PersistentHistoryManager.RECORD_SIZE,
+                "Размер файла должен оставаться ограниченным");
+
+        history = new PersistentHistoryManager(historyPath, Managers.getDefaultHistory(), 16);
+        history.restore((type, id) -> id == 1 ? first : second);
+        assertIterableEquals(List.of(second, first), history.getHistory(), "Порядок просмотров не совпадает");
+    }
+
+    @Test
+    void shouldKeepViewsAddedDuringBackgroundCompaction() {
+        history.close();
+        history = new PersistentHistoryManager(historyPath, Managers.getDefaultHistory(), 8);
+        Task[] tasks = new Task[50];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Task(i + 1, "Task " + i, "Description", TaskStatus.NEW);
+        }
+        for (int round = 0; round < 200; round++) {
+            history.add(tasks[round % tasks.length]);
+        }
+        List<Task> expected = history.getHistory();
+        history.close();
+
+        history = new PersistentHistoryManager(historyPath, Managers.getDefaultHistory(), 8);
+        history.restore((type, id) -> tasks[id - 1]);
+        assertIterableEquals(expected, history.getHistory(), "Просмотры во время сжатия не должны теряться");
+    }
+
+    @Test
+    void shouldKeepReadingWhenBackgroundCompactionFails() throws IOException, InterruptedException {
+        history.close();
+        Path blocker = Path.of(historyPath + ".compacting" + FileBackedTaskManager.TEMP_FILE_SUFFIX);
+        Path blockerContent = Files.createDirectories(blocker).resolve("content");
+        Files.createFile(blockerContent);
+        try {
+            history = new PersistentHistoryManager(historyPath, Managers.getDefaultHistory(), 8);
+            FileBackedTaskManager manager = new FileBackedTaskManager(path.toFile(),
+                    Managers.getDefaultIdGenerator(), history);
+            Task first = manager.createTask(new Task(null, "First", "Description", TaskStatus.NEW));
+            Task second = manager.createTask(new Task(null, "Second", "Description", TaskStatus.NEW));
+            for (int i = 0; i < 20; i++) {
+                manager.getTaskById(i % 2 == 0 ? first.getId() : second.getId());
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (history.getFailedCompactions() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(history.getFailedCompactions() > 0, "Сжатие в фоне должно было завершиться ошибкой");
+
+            for (int i = 0; i < 20; i++) {
+                manager.getTaskById(i % 2 == 0 ? second.getId() : first.getId());
+            }
+            history.flush();
+            assertEquals(0, history.getCompactions(), "Файл не должен подменяться после ошибки сжатия");
+            history.close();
+
+            history = new PersistentHistoryManager(historyPath, Managers.getDefaultHistory(), 8);
+            history.restore((type, id) -> id.equals(first.getId()) ? first : second);
+            assertIterableEquals(List.of(first, second), history.getHistory(),
+                    "Просмотры должны сохраняться после неудачного сжатия");
+        } finally {
+            Files.deleteIfExists(blockerContent);
+            Files.deleteIfExists(blocker);
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornRecord() throws IOException {
+        Task task = new Task(1, "Task", "Description", TaskStatus.NEW);
+        history.add(task);
+        history.close();
+        Files.write(historyPath, new byte[]{0, 0}, StandardOpenOption.APPEND);
+
+        history = Managers.getPersistentHistory(path.toFile());
+        history.restore((type, id) -> task);
+
+        assertIterableEquals(List.of(task), history.getHistory(), "Оборванная запись должна отбрасываться");
+        assertEquals(PersistentHistoryManager.RECORD_SIZE, Files.size(historyPath), "Хвост файла не отрезан");
+    }
+}
@@ -0,0 +1,223 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Andrew Vilkov
+ * @created 19.10.2026 - 10:05
+ * @project java-kanban
+ */
+class TaskIntervalTreeTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Test
+    void shouldFindSameOverlapsAsFullScan() {
+        Random random = new Random(42);
+        TaskIntervalTree tree = new TaskIntervalTree();
+        TreeSet<Task> expected = new TreeSet<>(TaskIntervalTree.PRIORITY_ORDER);
+        List<Task> added = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            Task task = task(i, random.nextInt(10_000), random.nextInt(60));
+            assertEquals(expected.add(task), tree.add(task), "Результат добавления не совпадает с TreeSet");
+            added.add(task);
+            if (i % 3 == 0) {
+                Task removed = random.nextBoolean()
+                        ? added.get(random.nextInt(added.size()))
+                        : task(random.nextInt(i), random.nextInt(10_000), 0);
+                assertEquals(expected.remove(removed), tree.remove(removed), "Результат удаления не совпадает");
+            }
+        }
+        assertIterableEquals(expected, tree, "Порядок задач не совпадает с TreeSet");
+
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime from = START.plusMinutes(random.nextInt(10_000));
+            LocalDateTime to = from.plusMinutes(random.nextInt(120));
+            List<Task> overlapping = expected.stream()
+                    .filter(e -> TaskIntervalTree.overlaps(e, from, to))
+                    .toList();
+            assertIterableEquals(overlapping, tree.findOverlapping(from, to), "Пересечения не совпадают");
+        }
+    }
+
+    @Test
+    void shouldKeepTasksWithSameStartTime() {
+        TaskIntervalTree tree = new TaskIntervalTree();
+        Task first = task(1, 10, 0);
+        Task second = task(2, 10, 0);
+
+        assertTrue(tree.add(second));
+        assertTrue(tree.add(first), "Задача с тем же временем начала не должна вытеснять другую");
+        assertIterableEquals(List.of(first, second), tree, "Задачи с одинаковым временем упорядочиваются по id");
+        assertFalse(tree.remove(task(3, 10, 0)), "Удаление должно учитывать id");
+        assertTrue(tree.remove(task(2, 10, 0)));
+        assertIterableEquals(List.of(first), tree);
+    }
+
+    @Test
+    void shouldExcludeSameIdWhenCheckingOverlap() {
+        TaskIntervalTree tree = new TaskIntervalTree();
+        tree.add(task(1, 0, 10));
+        tree.add(task(2, 20, 10));
+
+        assertFalse(tree.hasOverlap(task(1, 5, 10)), "Задача не должна пересекаться сама с собой");
+        assertTrue(tree.hasOverlap(task(3, 5, 10)), "Пересечение не найдено");
+        assertFalse(tree.hasOverlap(task(3, 10, 10)), "Интервалы, касающиеся границами, не пересекаются");
+        assertTrue(tree.hasOverlap(task(3, 25, 0)), "Задача без продолжительности внутри интервала пересекается");
+    }
+
+    @Test
+    void shouldFindOverlapOfPointAndRangeInBothOrders() {
+        TaskIntervalTree pointFirst = new TaskIntervalTree();
+        pointFirst.add(task(1, 60, 0));
+        assertTrue(pointFirst.hasOverlap(task(2, 60, 60)), "Интервал пересекается с точкой в своем начале");
+        assertFalse(pointFirst.hasOverlap(task(2, 0, 60)), "Интервал не пересекается с точкой в своем конце");
+
+        TaskIntervalTree rangeFirst = new TaskIntervalTree();
+        rangeFirst.add(task(1, 60, 60));
+        assertTrue(rangeFirst.hasOverlap(task(2, 60, 0)), "Точка в начале интервала пересекается с ним");
+        assertFalse(rangeFirst.hasOverlap(task(2, 120, 0)), "Точка в конце интервала с ним не пересекается");
+        assertIterableEquals(rangeFirst, rangeFirst.findOverlapping(START.plusMinutes(60), START.plusMinutes(60)));
+        assertTrue(pointFirst.hasOverlap(task(2, 60, 0)), "Точки с одним временем пересекаются");
+    }
+
+    @Test
+    void shouldBuildFromSortedTasksAndSupportViews() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(task(i + 1, i * 10, 5));
+        }
+        TaskIntervalTree tree = new TaskIntervalTree(tasks);
+
+        assertIterableEquals(tasks, tree, "Порядок задач не совпадает");
+        assertEquals(tasks.get(0), tree.first());
+        assertEquals(tasks.get(99), tree.last());
+        assertIterableEquals(tasks.subList(10, 20), tree.subSet(tasks.get(10), tasks.get(20)));
+        assertEquals(tasks.get(9), tree.headSet(tasks.get(10)).last());
+        assertEquals(10, tree.tailSet(tasks.get(90)).size());
+
+        Iterator<Task> iterator = tree.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getId() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(50, tree.size(), "Удаление через итератор не сработало");
+        assertIterableEquals(List.of(tasks.get(0)), tree.findOverlapping(START, START.plusMinutes(10)));
+    }
+
+    @Test
+    void shouldReadTasksThroughLookup() {
+        Map<Integer, Task> storage = new HashMap<>();
+        TaskIntervalTree tree = new TaskIntervalTree(storage::get);
+        for (int i = 1; i <= 20; i++) {
+            Task task = task(i, i * 10, 5);
+            storage.put(i, task);
+            tree.add(task);
+        }
+        Task renamed = new Task(5, "Renamed", "Description", TaskStatus.DONE, Duration.ofMinutes(5),
+                START.plusMinutes(50));
+        storage.put(5, renamed);
+
+        assertIterableEquals(storage.values().stream().sorted(TaskIntervalTree.PRIORITY_ORDER).toList(), tree,
+                "Набор должен возвращать задачи хранилища");
+        assertEquals("Renamed", tree.findOverlapping(START.plusMinutes(50), START.plusMinutes(51)).getFirst().getName(),
+                "Задача должна читаться через функцию поиска");
+        assertEquals(storage.get(20), tree.last());
+        assertTrue(tree.remove(task(5, 50, 0)), "Удаление должно идти по ключу");
+        assertEquals(19, tree.size());
+    }
+
+    @Test
+    void shouldReturnPagesInBothDirections() {
+        Random random = new Random(7);
+        TaskIntervalTree tree = new TaskIntervalTree();
+        TreeSet<Task> expected = new TreeSet<>(TaskIntervalTree.PRIORITY_ORDER);
+        for (int i = 1; i <= 1000; i++) {
+            Task task = task(i, random.nextInt(5_000), 1);
+            expected.add(task);
+            tree.add(task);
+        }
+        for (int i = 0; i < 300; i++) {
+            int fromMinute = random.nextInt(5_000);
+            int toMinute = fromMinute + random.nextInt(1_000);
+            LocalDateTime from = START.plusMinutes(fromMinute);
+            LocalDateTime to = START.plusMinutes(toMinute);
+            int offset = random.nextInt(50);
+            int limit = random.nextInt(50);
+            List<Task> inRange = new ArrayList<>(expected.subSet(task(0, fromMinute, 0), task(0, toMinute, 0)));
+            assertEquals(inRange.size(), tree.subSet(task(0, fromMinute, 0), task(0, toMinute, 0)).size(),
+                    "Размер диапазона не совпадает");
+            assertIterableEquals(inRange.stream().skip(offset).limit(limit).toList(),
+                    tree.findStartingBetween(from, to, offset, limit, false), "Страница не совпадает");
+            assertIterableEquals(inRange.reversed().stream().skip(offset).limit(limit).toList(),
+                    tree.findStartingBetween(from, to, offset, limit, true), "Обратная страница не совпадает");
+        }
+        assertIterableEquals(expected, tree.findStartingBetween(null, null, 0, Integer.MAX_VALUE, false));
+    }
+
+    @Test
+    void shouldFindEarliestFreeSlots() {
+        Random random = new Random(5);
+        TaskIntervalTree tree = new TaskIntervalTree();
+        for (int i = 1; i <= 300; i++) {
+            Task task = task(i, random.nextInt(3_000), 1 + random.nextInt(30));
+            if (!tree.hasOverlap(task)) {
+                tree.add(task);
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(3_000);
+            int minutes = 1 + random.nextInt(20);
+            int expected = from;
+            while (tree.hasOverlap(task(0, expected, minutes))) {
+                expected++;
+            }
+            List<LocalDateTime> slots = tree.findFreeSlots(Duration.ofMinutes(minutes), START.plusMinutes(from), null, 3);
+            assertEquals(START.plusMinutes(expected), slots.getFirst(), "Найдено не самое раннее окно");
+            assertEquals(3, slots.size());
+            for (int j = 0; j < slots.size(); j++) {
+                Task slot = new Task(0, "Slot", "Description", TaskStatus.NEW, Duration.ofMinutes(minutes), slots.get(j));
+                assertFalse(tree.hasOverlap(slot), "Окно пересекается с задачей");
+                if (j > 0) {
+                    assertFalse(slots.get(j).isBefore(slots.get(j - 1).plusMinutes(minutes)), "Окна пересекаются");
+                }
+            }
+        }
+        assertEquals(List.of(), tree.findFreeSlots(Duration.ofDays(1), START, START.plusMinutes(3_000), 1),
+                "Окно не должно выходить за горизонт");
+    }
+
+    @Test
+    void shouldFindFreeSlotsBeforeEpoch() {
+        TaskIntervalTree tree = new TaskIntervalTree();
+        LocalDateTime start = LocalDateTime.of(1969, 1, 1, 0, 0);
+        assertEquals(List.of(start), tree.findFreeSlots(Duration.ofHours(1), start, null, 1),
+                "Окно до 1970 года на пустом наборе не найдено");
+
+        tree.add(new Task(1, "Task 1", "Description", TaskStatus.NEW, Duration.ofHours(1), start));
+        assertEquals(List.of(start.plusHours(1), start.plusHours(2)),
+                tree.findFreeSlots(Duration.ofHours(1), start, null, 2));
+    }
+
+    private static Task task(int id, int startMinute, int minutes) {
+        return new Task(id, "Task " + id, "Description", TaskStatus.NEW,
+                Duration.ofMinutes(minutes), START.plusMinutes(startMinute));
+    }
+}
@@ -2,16 +2,19 @@ package ru.yandex.practicum.vilkovam.manager;
 
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.ItemSnapshot;
 import ru.yandex.practicum.vilkovam.model.Subtask;
 import ru.yandex.practicum.vilkovam.model.Task;
 import ru.yandex.practicum.vilkovam.model.TaskStatus;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * @author Andrew Vilkov
@@ -220,6 +223,109 @@ public abstract class TaskManagerTest {
         assertEquals(subtask.getStatus(), updatedSubtask.getStatus(), "Статус подзадачи не совпадает.");
     }
 
+    @Test
+    void shouldMoveSubtaskBetweenEpicsInIndex() {
+        Epic epic = taskManager.createEpic(new Epic("First epic", "Description"));
+        Epic secondEpic = taskManager.createEpic(new Epic("Second epic", "Description"));
+        Subtask first = taskManager.createSubtask(new Subtask(epic.getId(), "First", "Description"));
+        Subtask second = taskManager.createSubtask(new Subtask(epic.getId(), "Second", "Description"));
+
+        second.setEpicId(secondEpic.getId());
+        second.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(second);
+
+        assertIterableEquals(List.of(first), taskManager.getAllSubtaskByEpicId(epic.getId()),
+                "Подзадача должна уйти из прежнего эпика");
+        assertIterableEquals(List.of(second), taskManager.getAllSubtaskByEpicId(secondEpic.getId()),
+                "Подзадача должна появиться в новом эпике");
+        assertEquals(TaskStatus.NEW, taskManager.getEpicById(epic.getId()).getStatus());
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(secondEpic.getId()).getStatus());
+
+        taskManager.removeSubtaskById(first.getId());
+        assertIterableEquals(Collections.emptyList(), taskManager.getAllSubtaskByEpicId(epic.getId()),
+                "Удаленная подзадача не должна возвращаться");
+    }
+
+    @Test
+    void shouldShareSnapshotsUntilItemChanges() {
+        Task task = taskManager.createTask(new Task("Task", "Description"));
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Description"));
+        Subtask subtask = taskManager.createSubtask(new Subtask(epic.getId(), "Subtask", "Description"));
+
+        ItemSnapshot taskSnapshot = taskManager.getSnapshotById(task.getId());
+        ItemSnapshot epicSnapshot = taskManager.getSnapshotById(epic.getId());
+        assertSame(taskSnapshot, taskManager.getSnapshotById(task.getId()), "Повторное чтение не должно копировать");
+        assertEquals(List.of(subtask.getId()), epicSnapshot.subtaskIds());
+        assertEquals(epic.getId(), taskManager.getSnapshotById(subtask.getId()).epicId());
+        assertEquals(taskManager.getTaskById(task.getId()), taskSnapshot.toTask(), "Снимок должен совпадать с задачей");
+
+        task.setName("Changed");
+        taskManager.updateTask(task);
+        subtask.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(subtask);
+        ItemSnapshot changedEpic = taskManager.getSnapshotById(epic.getId());
+        assertEquals("Changed", taskManager.getSnapshotById(task.getId()).name(), "Снимок не обновился");
+        assertEquals(TaskStatus.DONE, changedEpic.status());
+        assertSame(epicSnapshot.subtaskIds(), changedEpic.subtaskIds(),
+                "Неизмененный список подзадач должен переиспользоваться");
+        assertEquals(3, taskManager.getUnifiedSnapshotList().size());
+
+        taskManager.removeTaskById(task.getId());
+        assertNull(taskManager.getSnapshotById(task.getId()), "Снимок удаленной задачи не должен возвращаться");
+    }
+
+    @Test
+    void shouldSearchByWordPrefixes() {
+        Task release = taskManager.createTask(new Task("Release notes", "Prepare release of the board"));
+        Task review = taskManager.createTask(new Task("Code review", "Review release branch"));
+        Epic epic = taskManager.createEpic(new Epic("Миграция", "Перенос доски"));
+        Subtask subtask = taskManager.createSubtask(new Subtask(epic.getId(), "Release migration", "Board"));
+
+        assertIterableEquals(List.of(release.getId(), review.getId(), subtask.getId()), taskManager.search("releas"),
+                "Больше совпадений - выше в выдаче");
+        assertIterableEquals(List.of(review.getId()), taskManager.search("REVIEW rel"),
+                "Объект должен содержать все слова запроса");
+        assertIterableEquals(List.of(epic.getId()), taskManager.search("мигра"));
+        assertIterableEquals(Collections.emptyList(), taskManager.search("deploy"));
+
+        review.setDescription("Deploy branch");
+        taskManager.updateTask(review);
+        taskManager.removeSubtaskById(subtask.getId());
+        assertIterableEquals(List.of(release.getId()), taskManager.search("release"), "Индекс не обновился");
+        assertIterableEquals(List.of(review.getId()), taskManager.search("deploy"));
+    }
+
+    @Test
+    void shouldReturnItemsByStatus() {
+        Task task = taskManager.createTask(new Task("Task", "Description"));
+        Task doneTask = taskManager.createTask(new Task("Done task", "Description"));
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Description"));
+        Subtask first = taskManager.createSubtask(new Subtask(epic.getId(), "First", "Description"));
+        Subtask second = taskManager.createSubtask(new Subtask(epic.getId(), "Second", "Description"));
+
+        doneTask.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(doneTask);
+        second.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(second);
+
+        assertIterableEquals(List.of(task), taskManager.getTasksByStatus(TaskStatus.NEW));
+        assertIterableEquals(List.of(doneTask), taskManager.getTasksByStatus(TaskStatus.DONE));
+        assertIterableEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.IN_PROGRESS),
+                "Статус эпика в индексе должен следовать за подзадачами");
+        assertIterableEquals(List.of(first), taskManager.getSubtasksByEpicIdAndStatus(epic.getId(), TaskStatus.NEW));
+        assertIterableEquals(List.of(second), taskManager.getSubtasksByStatus(TaskStatus.DONE));
+        assertIterableEquals(List.of(first, second), taskManager.getAllSubtaskByEpicId(epic.getId()),
+                "Изменение статуса не должно менять порядок подзадач эпика");
+
+        taskManager.removeTaskById(task.getId());
+        taskManager.removeSubtaskById(first.getId());
+        assertIterableEquals(Collections.emptyList(), taskManager.getTasksByStatus(TaskStatus.NEW),
+                "Удаленная задача не должна возвращаться");
+        assertIterableEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.DONE));
+        assertIterableEquals(Collections.emptyList(),
+                taskManager.getSubtasksByEpicIdAndStatus(epic.getId(), TaskStatus.NEW));
+    }
+
     @Test
     void deleteTaskSuccess() {
         Task task = new Task("Test createTask", "Test createTask description");
@@ -0,0 +1,209 @@
+package ru.yandex.practicum.vilkovam.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.exceptions.WriteQueueFullException;
+import ru.yandex.practicum.vilkovam.model.ItemType;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+import ru.yandex.practicum.vilkovam.util.Managers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 19:45
+ * @project java-kanban
+ */
+class WriteBehindTaskManagerTest extends TaskManagerTest {
+    Path path;
+    Path journalPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("write-behind", ".csv");
+        Files.delete(path);
+        journalPath = FileBackedTaskManager.getJournalPath(path.toFile());
+        taskManager = new WriteBehindTaskManager(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory(),
+                WriteBehindPolicy.blocking(1024));
+
+        path.toFile().deleteOnExit();
+        journalPath.toFile().deleteOnExit();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (taskManager instanceof WriteBehindTaskManager manager) {
+            manager.close();
+        }
+    }
+
+    @Test
+    void shouldWriteChangesAfterFlush() throws IOException {
+        WriteBehindTaskManager manager = (WriteBehindTaskManager) taskManager;
+        Task task = manager.createTask(new Task("TaskName", "TaskDescription"));
+        manager.flush();
+
+        assertEquals(0, manager.getPendingCount(), "Очередь должна быть пуста после flush");
+        assertTrue(Files.readString(journalPath, StandardCharsets.UTF_8).startsWith("PUT,1,TASK,TaskName"));
+
+        manager.close();
+        taskManager = JournaledTaskManager.loadFromFile(
+                path.toFile(),
+                Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory());
+
+        assertIterableEquals(List.of(task), taskManager.getAllTask());
+    }
+
+    @Test
+    void shouldCoalesceChangesOfSameItem() throws InterruptedException {
+        GatedChangeLog target = new GatedChangeLog();
+        try (WriteBehindJournal journal = new WriteBehindJournal(target, WriteBehindPolicy.blocking(10))) {
+            journal.put(new Task(1, "First", "Description", TaskStatus.NEW));
+            target.entered.await();
+            for (TaskStatus status : TaskStatus.values()) {
+                journal.put(new Task(2, "Second", "Description", status));
+            }
+            journal.remove(ItemType.TASK, 3);
+            journal.remove(ItemType.TASK, 3);
+
+            assertEquals(2, journal.getPendingCount(), "Изменения одного объекта должны схлопываться");
+            assertEquals(3, journal.getCoalescedCount(), "Количество схлопнутых изменений не совпадает");
+
+            target.gate.countDown();
+            assertTrue(journal.awaitDurable(5, TimeUnit.SECONDS), "Изменения не записаны");
+            assertEquals(List.of("PUT 1 NEW", "PUT 2 DONE", "REMOVE 3"), target.records);
+        }
+    }
+
+    @Test
+    void shouldRejectChangeWhenQueueIsFull() throws InterruptedException {
+        GatedChangeLog target = new GatedChangeLog();
+        try (WriteBehindJournal journal = new WriteBehindJournal(target, WriteBehindPolicy.rejecting(1))) {
+            journal.put(new Task(1, "First", "Description", TaskStatus.NEW));
+            target.entered.await();
+            journal.put(new Task(2, "Second", "Description", TaskStatus.NEW));
+
+            assertThrows(WriteQueueFullException.class,
+                    () -> journal.put(new Task(3, "Third", "Description", TaskStatus.NEW)));
+            assertFalse(journal.awaitDurable(10, TimeUnit.MILLISECONDS), "Запись не должна завершиться до открытия");
+
+            target.gate.countDown();
+        }
+        assertEquals(List.of("PUT 1 NEW", "PUT 2 NEW"), target.records);
+    }
+
+    @Test
+    void shouldNotKeepRejectedChangeInManager() throws InterruptedException {
+        GatedChangeLog target = new GatedChangeLog();
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(path.toFile(), Managers.getDefaultIdGenerator(),
+                Managers.getDefaultHistory(), new WriteBehindJournal(target, WriteBehindPolicy.rejecting(1)));
+        ((WriteBehindTaskManager) taskManager).close();
+        taskManager = manager;
+
+        Task first = manager.createTask(new Task("First", "Description"));
+        target.entered.await();
+        Task second = manager.createTask(new Task("Second", "Description"));
+
+        assertThrows(WriteQueueFullException.class, () -> manager.createTask(new Task("Third", "Description")));
+        assertIterableEquals(List.of(first, second), manager.getAllTask(),
+                "Отклоненная задача не должна оставаться в менеджере");
+        assertThrows(WriteQueueFullException.class, () -> manager.removeTaskById(first.getId()));
+        assertIterableEquals(List.of(first, second), manager.getAllTask(),
+                "Отклоненное удаление не должно менять менеджер");
+
+        second.setStatus(TaskStatus.DONE);
+        manager.updateTask(second);
+        assertEquals(TaskStatus.DONE, manager.getTaskById(second.getId()).getStatus(),
+                "Изменение объекта, ожидающего записи, места не занимает");
+
+        target.gate.countDown();
+        manager.flush();
+        assertEquals(List.of("PUT 1 NEW", "PUT 2 DONE"), target.records);
+    }
+
+    @Test
+    void shouldBlockCallerWhenQueueIsFull() throws InterruptedException {
+        GatedChangeLog target = new GatedChangeLog();
+        try (WriteBehindJournal journal = new WriteBehindJournal(target, WriteBehindPolicy.blocking(1))) {
+            journal.put(new Task(1, "First", "Description", TaskStatus.NEW));
+            target.entered.await();
+            journal.put(new Task(2, "Second", "Description", TaskStatus.NEW));
+
+            Thread producer = Thread.ofPlatform()
+                    .start(() -> journal.put(new Task(3, "Third", "Description", TaskStatus.NEW)));
+            producer.join(50);
+            assertTrue(producer.isAlive(), "Поток должен ждать места в очереди");
+
+            target.gate.countDown();
+            producer.join(5_000);
+            assertFalse(producer.isAlive(), "Поток должен продолжить после освобождения места");
+            journal.flush();
+        }
+        assertEquals(List.of("PUT 1 NEW", "PUT 2 NEW", "PUT 3 NEW"), target.records);
+    }
+
+    /**
+     * Приемник, который задерживает первую запись до открытия {@code gate}
+     */
+    private static class GatedChangeLog implements ChangeLog {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void put(Task task) {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            records.add("PUT " + task.getId() + " " + task.getStatus());
+        }
+
+        @Override
+        public void remove(ItemType type, Integer id) {
+            records.add("REMOVE " + id);
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void release() {
+        }
+
+        @Override
+        public void rotate(Path target) {
+        }
+
+        @Override
+        public CommitStats getStats() {
+            return new CommitStats(0, records.size(), 0, 0, 0);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -2,6 +2,10 @@ package ru.yandex.practicum.vilkovam.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -64,6 +68,44 @@ class TaskTest {
         assertNotSame(original, copy, "Ссылки на объект не должны совпадать");
     }
 
+    @Test
+    void endTimeShouldFollowStartTimeAndDuration() {
+        LocalDateTime start = LocalDateTime.of(2026, 10, 19, 9, 0);
+        Task task = new Task(1, "Task", "Desc", TaskStatus.NEW, Duration.ofMinutes(30), start);
+
+        assertEquals(start.plusMinutes(30), task.getEndTime(), "Время окончания не совпадает");
+        assertEquals(start.toEpochSecond(ZoneOffset.UTC), task.getStartEpochSecond(), "Секунды начала не совпадают");
+        assertEquals(start.plusMinutes(30).toEpochSecond(ZoneOffset.UTC), task.getEndEpochSecond(),
+                "Секунды окончания не совпадают");
+
+        task.setStartTime(start.plusHours(1));
+        assertEquals(start.plusMinutes(90), task.getEndTime(), "Окончание не пересчитано после переноса");
+        task.setDuration(Duration.ofMinutes(10));
+        assertEquals(start.plusMinutes(70), new Task(task).getEndTime(), "Копия должна сохранить окончание");
+
+        task.setDuration(null);
+        assertNull(task.getEndTime(), "Без продолжительности окончания нет");
+        assertEquals(Task.NO_TIME, task.getEndEpochSecond(), "Без продолжительности окончания нет");
+        task.setStartTime(null);
+        assertEquals(Task.NO_TIME, task.getStartEpochSecond(), "Без времени начала секунд нет");
+    }
+
+    @Test
+    void primitiveAccessorsShouldMatchTimeObjects() {
+        LocalDateTime start = LocalDateTime.of(2026, 10, 19, 9, 0, 0, 600_000_000);
+        Task task = new Task(1, "Task", "Desc", TaskStatus.NEW, Duration.ofSeconds(90, 700_000_000), start);
+
+        assertEquals(start.getNano(), task.getStartNano(), "Наносекунды начала не совпадают");
+        assertEquals(task.getEndTime().getNano(), task.getEndNano(), "Наносекунды окончания не совпадают");
+        assertEquals(task.getEndTime().toEpochSecond(ZoneOffset.UTC), task.getEndEpochSecond());
+        assertEquals(90, task.getDurationSeconds(), "Секунды продолжительности не совпадают");
+        assertEquals(700_000_000, task.getDurationNano(), "Наносекунды продолжительности не совпадают");
+
+        task.setDuration(null);
+        assertEquals(0, task.getEndNano(), "Без продолжительности окончания нет");
+        assertEquals(0, task.getDurationNano(), "Без продолжительности наносекунд нет");
+    }
+
     @Test
     void equalsShouldReturnTrueForTasksWithSameId() {
         Task task1 = new Task(1, "Task1", "Desc1");
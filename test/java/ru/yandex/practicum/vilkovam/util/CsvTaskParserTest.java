@@ -0,0 +1,79 @@
+package ru.yandex.practicum.vilkovam.util;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 16:50
+ * @project java-kanban
+ */
+class CsvTaskParserTest {
+
+    @Test
+    void shouldParseDateTimeWithSecondsAndNanosSuccess() {
+        Task task = CsvTaskParser.parse("1,TASK,TaskName,NEW,TaskDescription,2025-11-06T18:48:12.1234,90,");
+
+        assertEquals(LocalDateTime.of(2025, 11, 6, 18, 48, 12, 123_400_000), task.getStartTime());
+        assertEquals(Duration.ofMinutes(90), task.getDuration());
+    }
+
+    @Test
+    void shouldRestoreQuotedFieldsSuccess() {
+        Task task = new Task(1, "Name, with comma", "Line one\nline \"two\"", TaskStatus.DONE,
+                Duration.ofMinutes(5), LocalDateTime.of(2025, 1, 2, 3, 4));
+
+        Task restored = CsvTaskParser.parse(TaskSaveUtils.toString(task));
+
+        assertEquals(task.getName(), restored.getName());
+        assertEquals(task.getDescription(), restored.getDescription());
+        assertEquals(task.getStartTime(), restored.getStartTime());
+        assertEquals(TaskStatus.DONE, restored.getStatus());
+    }
+
+    @Test
+    void shouldReadRecordsSpanningLinesFromReader() {
+        String longDescription = "x".repeat(100_000);
+        String csv = "id,type,name,status,description,startTime,duration,epic\r\n"
+                + "1,TASK,TaskName,NEW,\"multi\nline\",,,\r\n"
+                + "2,SUBTASK,SubtaskName,IN_PROGRESS," + longDescription + ",,,7\n";
+        CsvTaskParser parser = new CsvTaskParser(new StringReader(csv));
+        parser.endRecord();
+
+        Task first = parser.readTask();
+        Task second = parser.readTask();
+
+        assertEquals("multi\nline", first.getDescription());
+        assertInstanceOf(Subtask.class, second);
+        assertEquals(longDescription, second.getDescription());
+        assertEquals(7, ((Subtask) second).getEpicId());
+        assertFalse(parser.hasNext(), "Записей больше быть не должно");
+    }
+
+    @Test
+    void shouldReturnNullIfMoreColumns() {
+        CsvTaskParser parser = new CsvTaskParser(new StringReader("1,TASK,Name,NEW,Desc,,,,extra\n2,TASK,Name,NEW,Desc,,,"));
+
+        assertNull(parser.readTask());
+        assertTrue(parser.hasNext(), "Лишние поля должны пропускаться до конца записи");
+        assertEquals(2, parser.readTask().getId());
+    }
+
+    @Test
+    void shouldThrowExceptionIfInvalidNumber() {
+        assertThrows(IllegalArgumentException.class, () -> CsvTaskParser.parse("1a,TASK,Name,NEW,Desc,,,"));
+    }
+}
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.vilkovam.util;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.manager.FileBackedTaskManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 15:25
+ * @project java-kanban
+ */
+class SnapshotConverterTest {
+
+    @Test
+    void shouldConvertCsvToBinaryAndBackSuccess() throws IOException {
+        List<String> csv = List.of(
+                FileBackedTaskManager.CSV_FILE_HEADER,
+                "1,TASK,TaskName,NEW,TaskDescription,2025-11-06T18:48,15,",
+                "2,EPIC,EpicName,IN_PROGRESS,EpicDescription,,,",
+                "3,SUBTASK,SubtaskName,DONE,SubtaskDescription,,,2");
+        Path csvFile = Files.createTempFile("snapshot", ".csv");
+        Path binaryFile = Files.createTempFile("snapshot", ".bin");
+        Path restoredFile = Files.createTempFile("restored", ".csv");
+        Files.write(csvFile, csv, StandardCharsets.UTF_8);
+
+        SnapshotConverter.csvToBinary(csvFile, binaryFile);
+        SnapshotConverter.binaryToCsv(binaryFile, restoredFile);
+
+        assertTrue(Files.size(binaryFile) < Files.size(csvFile), "Бинарный снимок должен быть меньше CSV");
+        assertIterableEquals(csv, Files.readAllLines(restoredFile, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.vilkovam.util;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.vilkovam.model.Epic;
+import ru.yandex.practicum.vilkovam.model.Subtask;
+import ru.yandex.practicum.vilkovam.model.Task;
+import ru.yandex.practicum.vilkovam.model.TaskStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Andrew Vilkov
+ * @created 18.10.2026 - 15:10
+ * @project java-kanban
+ */
+class TaskBinaryCodecTest {
+
+    @Test
+    void shouldRestoreAllFieldsSuccess() throws IOException {
+        LocalDateTime startTime = LocalDateTime.of(2025, 11, 6, 18, 48, 12, 123_456_789);
+        Task task = new Task(1, "TaskName", "Описание, с запятой", TaskStatus.IN_PROGRESS, Duration.ofMinutes(90), startTime);
+        Epic epic = new Epic(2, "EpicName", "EpicDescription", TaskStatus.DONE, Collections.emptyList());
+        Subtask subtask = new Subtask(300, "SubtaskName", null, TaskStatus.NEW, 2, null, startTime.minusYears(100));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(encode(task, epic, subtask)));
+        TaskBinaryCodec.readHeader(in);
+
+        Task restoredTask = TaskBinaryCodec.read(in);
+        assertEquals(1, restoredTask.getId());
+        assertEquals("TaskName", restoredTask.getName());
+        assertEquals("Описание, с запятой", restoredTask.getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, restoredTask.getStatus());
+        assertEquals(Duration.ofMinutes(90), restoredTask.getDuration());
+        assertEquals(startTime, restoredTask.getStartTime());
+
+        Task restoredEpic = TaskBinaryCodec.read(in);
+        assertInstanceOf(Epic.class, restoredEpic);
+        assertEquals(TaskStatus.DONE, restoredEpic.getStatus());
+
+        Task restoredSubtask = TaskBinaryCodec.read(in);
+        assertInstanceOf(Subtask.class, restoredSubtask);
+        assertEquals(300, restoredSubtask.getId());
+        assertEquals(2, ((Subtask) restoredSubtask).getEpicId());
+        assertNull(restoredSubtask.getDescription());
+        assertNull(restoredSubtask.getDuration());
+        assertEquals(startTime.minusYears(100), restoredSubtask.getStartTime());
+
+        assertNull(TaskBinaryCodec.read(in), "После последней записи ожидается конец потока");
+    }
+
+    @Test
+    void shouldBeSmallerThanCsv() throws IOException {
+        Task task = new Task(123456, "TaskName", "TaskDescription", TaskStatus.IN_PROGRESS,
+                Duration.ofMinutes(90), LocalDateTime.of(2025, 11, 6, 18, 48));
+
+        int binarySize = encode(task).length;
+        int csvSize = TaskSaveUtils.toString(task).length();
+
+        assertTrue(binarySize < csvSize, "Бинарная запись должна быть компактнее CSV");
+    }
+
+    @Test
+    void shouldThrowExceptionIfWrongHeader() {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream("id,type,name".getBytes()));
+
+        assertThrows(IOException.class, () -> TaskBinaryCodec.readHeader(in));
+    }
+
+    private static byte[] encode(Task... tasks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        TaskBinaryCodec.writeHeader(out);
+        for (Task task : tasks) {
+            TaskBinaryCodec.write(out, task);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -130,4 +130,15 @@ class TaskSaveUtilsTest {
 
         assertThrows(IllegalArgumentException.class, () -> TaskSaveUtils.fromString(input));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldQuoteFieldsWithDelimiterSuccess() {
+        Task task = new Task(1, "Name, with comma", "Say \"hi\"", TaskStatus.NEW);
+
+        String result = TaskSaveUtils.toString(task);
+        String expected = "1,TASK,\"Name, with comma\",NEW,\"Say \"\"hi\"\"\",,,";
+
+        assertEquals(expected, result);
+        assertEquals(task.getName(), TaskSaveUtils.fromString(result).getName());
+    }
+}